@@ -0,0 +1,84 @@
+package com.goldmonitor.benchmarks;
+
+import com.goldmonitor.alert.AlertEngine;
+import com.goldmonitor.alert.AlertRule;
+import com.goldmonitor.alert.AlertType;
+import com.goldmonitor.model.FixedPrice;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 价格提醒评估：注册大量规则后每个 tick 的评估耗时
+ *
+ * 阈值均匀分布在 1800.00 ~ 2400.00 之间（分为单位），一半向上一半向下。
+ * quietTick 在两个阈值之间来回波动，不触发规则，只有二分查找的代价；
+ * movingTick 每次跨越 5 美分，首次跨越时触发区间内的规则，之后扫描的是已失效的条目
+ *
+ * 运行：java -jar target/benchmarks.jar AlertEngineBenchmark -prof gc
+ *
+ * @author Gold Monitor Team
+ * @version 1.0.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class AlertEngineBenchmark {
+
+    private static final long BASE = FixedPrice.toMicros(2000.0);
+    private static final long CENT = FixedPrice.MICROS_PER_UNIT / 100;
+
+    @Param({"1000000"})
+    private int rules;
+
+    private AlertEngine engine;
+    private final List<AlertRule> triggered = new ArrayList<>();
+    private boolean flip;
+
+    @Setup
+    public void setUp() {
+        engine = new AlertEngine(Integer.MAX_VALUE, Integer.MAX_VALUE);
+        SplittableRandom random = new SplittableRandom(42);
+        long low = FixedPrice.toMicros(1800.0);
+        long cents = FixedPrice.toMicros(600.0) / CENT;
+        for (int i = 0; i < rules; i++) {
+            long threshold = low + random.nextLong(cents) * CENT;
+            engine.register("user-" + (i % 10_000), (i & 1) == 0 ? AlertType.ABOVE : AlertType.BELOW,
+                    threshold, BASE, 0);
+        }
+        engine.maintain();
+        engine.evaluate(BASE + 1_000, triggered);
+    }
+
+    @Benchmark
+    public int quietTick() {
+        flip = !flip;
+        int count = engine.evaluate(BASE + (flip ? 9_000 : 1_000), triggered);
+        triggered.clear();
+        return count;
+    }
+
+    @Benchmark
+    public int movingTick() {
+        flip = !flip;
+        int count = engine.evaluate(BASE + (flip ? 5 * CENT : 0), triggered);
+        triggered.clear();
+        return count;
+    }
+}
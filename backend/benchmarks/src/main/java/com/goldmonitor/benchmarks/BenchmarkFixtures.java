@@ -0,0 +1,72 @@
+package com.goldmonitor.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.goldmonitor.market.ExchangeHolidays;
+import com.goldmonitor.market.MarketCalendar;
+import com.goldmonitor.model.CurrencyCode;
+import com.goldmonitor.model.GoldPrice;
+import com.goldmonitor.source.CircuitBreaker;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+
+/**
+ * 基准测试共用的样本数据
+ *
+ * @author Gold Monitor Team
+ * @version 1.0.0
+ */
+final class BenchmarkFixtures {
+
+    /**
+     * goldprice.org dbXRates/USD 的典型响应
+     */
+    static final byte[] GOLDPRICE_ORG = ("{\"ts\":1698765432123,\"tsj\":1698765431000,"
+            + "\"date\":\"Oct 31st 2023, 11:17:11 am NY\",\"items\":[{\"curr\":\"USD\","
+            + "\"xauPrice\":2050.3,\"xagPrice\":25.4,\"chgXau\":5.2,\"chgXag\":-0.3,"
+            + "\"pcXau\":0.25,\"pcXag\":-1.18,\"xauClose\":2045.1,\"xagClose\":25.7}]}")
+            .getBytes(StandardCharsets.UTF_8);
+
+    private BenchmarkFixtures() {
+    }
+
+    /**
+     * 与 Spring Boot 自动配置相同的 ObjectMapper（注册 JavaTimeModule，日期不写成时间戳）
+     */
+    static ObjectMapper objectMapper() {
+        return Jackson2ObjectMapperBuilder.json().build();
+    }
+
+    static GoldPrice goldPrice() {
+        return GoldPrice.builder()
+                .id("1698765432123")
+                .price(2_050_300_000L)
+                .currency(CurrencyCode.USD)
+                .unit("oz")
+                .change(5_200_000L)
+                .changePercent(250_000L)
+                .timestamp(LocalDateTime.of(2023, 10, 31, 11, 17, 11))
+                .source("GOLDPRICE.ORG")
+                .marketStatus("OPEN")
+                .build();
+    }
+
+    /**
+     * 与默认配置相同的 COMEX 黄金交易日历（2023 ~ 2035）
+     */
+    static MarketCalendar marketCalendar() {
+        return MarketCalendar.build(ZoneId.of("America/New_York"), LocalTime.of(18, 0), LocalTime.of(17, 0),
+                ExchangeHolidays.between(2023, 2035), LocalDate.of(2023, 1, 1), LocalDate.of(2035, 12, 31));
+    }
+
+    /**
+     * 与默认配置相同的上游熔断器
+     */
+    static CircuitBreaker circuitBreaker() {
+        return new CircuitBreaker(20, 5, 0.5, 3000, 0.8, 30000, 1);
+    }
+}
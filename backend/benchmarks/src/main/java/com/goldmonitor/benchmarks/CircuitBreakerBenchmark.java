@@ -0,0 +1,105 @@
+package com.goldmonitor.benchmarks;
+
+import com.goldmonitor.model.GoldPrice;
+import com.goldmonitor.service.GoldPriceService;
+import com.goldmonitor.service.PriceMatrixService;
+import com.goldmonitor.source.CircuitBreaker;
+import com.goldmonitor.source.PriceSourceAggregator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 上游故障时获取价格的耗时：熔断打开后直接返回最近一次有效价格，不再等待上游超时
+ * 对照为熔断关闭、上游正常时的一次完整请求
+ *
+ * 运行：java -jar target/benchmarks.jar CircuitBreakerBenchmark -prof gc
+ *
+ * @author Gold Monitor Team
+ * @version 1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class CircuitBreakerBenchmark {
+
+    private DisposableServer upstream;
+    private GoldPriceService healthyService;
+    private GoldPriceService failingService;
+    private CircuitBreaker failingBreaker;
+    private volatile boolean failing;
+
+    @Setup
+    public void setUp() {
+        upstream = HttpServer.create()
+                .host("127.0.0.1")
+                .port(0)
+                .route(routes -> routes.get("/dbXRates/USD", (request, response) -> failing
+                        ? response.status(503).send()
+                        : response.header("Content-Type", "application/json")
+                                .sendByteArray(Mono.just(BenchmarkFixtures.GOLDPRICE_ORG))))
+                .bindNow();
+
+        healthyService = service(BenchmarkFixtures.circuitBreaker());
+        // 打开后在整个测量期间保持打开
+        failingBreaker = new CircuitBreaker(20, 5, 0.5, 3000, 0.8, TimeUnit.HOURS.toMillis(1), 1);
+        failingService = service(failingBreaker);
+
+        // 先取得一次有效价格，再让上游持续失败直到熔断打开
+        failingService.getCurrentGoldPrice().block();
+        failing = true;
+        while (failingBreaker.getState() != CircuitBreaker.State.OPEN) {
+            failingService.getCurrentGoldPrice().block();
+        }
+        failing = false;
+    }
+
+    private GoldPriceService service(CircuitBreaker breaker) {
+        String url = "http://127.0.0.1:" + upstream.port() + "/dbXRates/USD";
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        PriceSourceAggregator aggregator = new PriceSourceAggregator(WebClient.builder(), meterRegistry,
+                new String[] {"STUB=" + url}, new String[] {"USD"}, "hedged", 10000, 100, 3000, 1000,
+                Integer.MAX_VALUE, Integer.MAX_VALUE);
+        return new GoldPriceService(aggregator, new PriceMatrixService((destination, payload, contentType) -> { }),
+                BenchmarkFixtures.marketCalendar(), breaker, meterRegistry, "benchmark");
+    }
+
+    @TearDown
+    public void tearDown() {
+        upstream.disposeNow();
+    }
+
+    /**
+     * 熔断打开：不发起请求，返回标记为陈旧的最近一次有效价格
+     */
+    @Benchmark
+    public GoldPrice openCircuitStalePrice() {
+        return failingService.getCurrentGoldPrice().block();
+    }
+
+    /**
+     * 熔断关闭：请求进程内的上游桩服务并解析
+     */
+    @Benchmark
+    public GoldPrice closedCircuitFetch() {
+        return healthyService.getCurrentGoldPrice().block();
+    }
+}
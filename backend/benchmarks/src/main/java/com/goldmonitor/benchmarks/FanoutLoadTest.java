@@ -0,0 +1,420 @@
+package com.goldmonitor.benchmarks;
+
+import com.goldmonitor.GoldPriceMonitorApplication;
+import com.goldmonitor.websocket.PriceFanout;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * STOMP 扇出负载测试
+ * 启动完整的后端应用（直连扇出引擎，定时轮询不参与），测试线程每 tickInterval 毫秒向 /topic/gold-price
+ * 推送一个带发送时间的小帧，每 100 毫秒向 /topic/gold-price/delta 推送一个 slowFrameBytes 字节的大帧。
+ * 客户端在子进程中运行：sessions - slow 个快速会话订阅 /topic/gold-price，由一个 NIO 选择器线程读取，
+ * 统计每个会话收到的帧数和推送延迟；slow 个慢会话（4 KB 接收缓冲区）订阅 /topic/gold-price/delta 后不再读取，
+ * 几秒内填满 TCP 缓冲区，使服务端对它们的发送阻塞。
+ * 慢会话阻塞扇出线程池时，快速会话的延迟会上升甚至收不到帧
+ *
+ * 客户端与服务端各自占用 sessions 个文件描述符，放在两个进程中以便在 ulimit -n 20000 下建立 10000 个会话；
+ * 两个进程的 System.nanoTime 在 Linux 上同为 CLOCK_MONOTONIC，延迟直接相减
+ *
+ * 运行：java -Xmx1g -cp target/benchmarks.jar com.goldmonitor.benchmarks.FanoutLoadTest
+ *       [sessions=10000] [slow=16] [duration=30000] [tickInterval=1000] [slowFrameBytes=262144] [--应用配置 ...]
+ *
+ * @author Gold Monitor Team
+ * @version 1.0.0
+ */
+public final class FanoutLoadTest {
+
+    private static final String TICK_DESTINATION = "/topic/gold-price";
+    private static final String SLOW_DESTINATION = "/topic/gold-price/delta";
+    private static final byte[] MARKER = "\"ns\":".getBytes(StandardCharsets.US_ASCII);
+
+    private FanoutLoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length > 0 && "client".equals(args[0])) {
+            runClients(args);
+            return;
+        }
+        int sessions = (int) arg(args, 0, 10000);
+        int slow = (int) arg(args, 1, 16);
+        long duration = arg(args, 2, 30000);
+        long tickInterval = arg(args, 3, 1000);
+        int slowFrameBytes = (int) arg(args, 4, 256 * 1024);
+
+        DisposableServer upstream = HttpServer.create()
+                .host("127.0.0.1")
+                .port(0)
+                .route(routes -> routes.get("/dbXRates/USD", (request, response) -> response
+                        .header("Content-Type", "application/json")
+                        .sendByteArray(Mono.just(BenchmarkFixtures.GOLDPRICE_ORG))))
+                .bindNow();
+
+        List<String> appArgs = new ArrayList<>(Arrays.asList(
+                "--server.port=0",
+                "--server.tomcat.max-connections=" + (sessions + 100),
+                "--gold.api.key=load-test",
+                "--gold.api.url=http://127.0.0.1:" + upstream.port() + "/dbXRates/USD",
+                "--gold.api.sources=STUB=${gold.api.url}",
+                "--gold.api.currencies=USD",
+                "--gold.journal.enabled=false",
+                "--gold.scheduler.adaptive.enabled=false",
+                "--gold.scheduler.price-update-interval=3600",
+                "--gold.scheduler.initial-delay=3600",
+                "--gold.fanout.engine=direct",
+                "--logging.level.root=WARN",
+                "--logging.level.com.goldmonitor=WARN"));
+        // 命令行中的应用配置覆盖同名的默认值
+        for (String arg : args) {
+            if (arg.startsWith("--")) {
+                String key = arg.substring(0, arg.indexOf('=') + 1);
+                appArgs.removeIf(defaultArg -> !key.isEmpty() && defaultArg.startsWith(key));
+                appArgs.add(arg);
+            }
+        }
+        ConfigurableApplicationContext context = SpringApplication.run(GoldPriceMonitorApplication.class,
+                appArgs.toArray(new String[0]));
+        int port = Integer.parseInt(context.getEnvironment().getProperty("local.server.port"));
+        PriceFanout fanout = context.getBean(PriceFanout.class);
+        MeterRegistry meterRegistry = context.getBean(MeterRegistry.class);
+
+        byte[] slowFrame = new byte[slowFrameBytes];
+        Arrays.fill(slowFrame, (byte) 'x');
+        byte[] prefix = "{\"pad\":\"".getBytes(StandardCharsets.US_ASCII);
+        System.arraycopy(prefix, 0, slowFrame, 0, prefix.length);
+        slowFrame[slowFrameBytes - 2] = '"';
+        slowFrame[slowFrameBytes - 1] = '}';
+
+        AtomicLong sequence = new AtomicLong();
+        ScheduledExecutorService publisher = Executors.newScheduledThreadPool(2);
+        publisher.scheduleAtFixedRate(() -> fanout.publish(TICK_DESTINATION,
+                ("{\"seq\":" + sequence.incrementAndGet() + ",\"ns\":" + System.nanoTime() + "}")
+                        .getBytes(StandardCharsets.US_ASCII)),
+                tickInterval, tickInterval, TimeUnit.MILLISECONDS);
+        publisher.scheduleAtFixedRate(() -> fanout.publish(SLOW_DESTINATION, slowFrame),
+                100, 100, TimeUnit.MILLISECONDS);
+
+        String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+        Process client = new ProcessBuilder(java, "-Xmx512m", "-cp", System.getProperty("java.class.path"),
+                FanoutLoadTest.class.getName(), "client", String.valueOf(port), String.valueOf(sessions - slow),
+                String.valueOf(slow), String.valueOf(duration), String.valueOf(tickInterval))
+                .inheritIO()
+                .start();
+        int exit = client.waitFor();
+
+        System.out.printf("server: java=%s, send-time-limit=%s ms, pool-size=%s, sessions timed out=%.0f, "
+                        + "frames dropped=%.0f, frames conflated=%.0f, client exit=%d%n",
+                System.getProperty("java.version"),
+                context.getEnvironment().getProperty("gold.fanout.send-time-limit", "3000"),
+                context.getEnvironment().getProperty("gold.fanout.pool-size", "8"),
+                meterRegistry.counter("gold.fanout.sessions.timed-out").count(),
+                meterRegistry.counter("gold.fanout.frames.dropped").count(),
+                meterRegistry.counter("gold.fanout.frames.conflated").count(),
+                exit);
+
+        publisher.shutdownNow();
+        context.close();
+        upstream.disposeNow();
+        System.exit(0);
+    }
+
+    private static void runClients(String[] args) throws Exception {
+        InetSocketAddress address = new InetSocketAddress("127.0.0.1", Integer.parseInt(args[1]));
+        int fast = Integer.parseInt(args[2]);
+        int slow = Integer.parseInt(args[3]);
+        long duration = Long.parseLong(args[4]);
+        long tickInterval = Long.parseLong(args[5]);
+
+        Client client = new Client();
+        long connectStart = System.nanoTime();
+        List<SocketChannel> slowChannels = new ArrayList<>();
+        for (int i = 0; i < fast; i++) {
+            client.register(connect(address, TICK_DESTINATION, false));
+            // 慢会话穿插在快速会话之间建立
+            if (slow > 0 && i % Math.max(1, fast / slow) == 0 && slowChannels.size() < slow) {
+                slowChannels.add(connect(address, SLOW_DESTINATION, true));
+            }
+        }
+        while (slowChannels.size() < slow) {
+            slowChannels.add(connect(address, SLOW_DESTINATION, true));
+        }
+        long connectMillis = (System.nanoTime() - connectStart) / 1_000_000;
+        Thread.sleep(2000);
+
+        client.reset();
+        Thread.sleep(duration);
+        int[] frames = client.frames();
+        long[] latencies = client.latencies();
+        int slowClosed = 0;
+        for (SocketChannel channel : slowChannels) {
+            if (closedByServer(channel)) {
+                slowClosed++;
+            }
+        }
+
+        Arrays.sort(frames);
+        Arrays.sort(latencies);
+        long expected = duration / tickInterval;
+        int complete = 0;
+        for (int count : frames) {
+            if (count >= expected - 1) {
+                complete++;
+            }
+        }
+        System.out.printf("clients: fast sessions=%d (closed by server %d), slow sessions=%d (closed by server %d), "
+                + "connect time=%d ms%n", fast, client.closed(), slow, slowClosed, connectMillis);
+        System.out.printf("ticks per fast session in %d ms (expected ~%d): min=%d, p50=%d, max=%d, "
+                        + "sessions with all ticks=%d%n",
+                duration, expected, frames[0], frames[frames.length / 2], frames[frames.length - 1], complete);
+        if (latencies.length > 0) {
+            System.out.printf("tick latency ms: p50=%.2f, p99=%.2f, p99.9=%.2f, max=%.2f (%d samples)%n",
+                    percentile(latencies, 0.5), percentile(latencies, 0.99), percentile(latencies, 0.999),
+                    latencies[latencies.length - 1] / 1e6, latencies.length);
+        }
+        System.exit(0);
+    }
+
+    /**
+     * 建立 WebSocket 连接，完成 STOMP CONNECT 并订阅目的地；慢会话使用 4 KB 接收缓冲区
+     */
+    private static SocketChannel connect(InetSocketAddress address, String destination, boolean slow)
+            throws Exception {
+        SocketChannel channel = SocketChannel.open();
+        if (slow) {
+            channel.setOption(StandardSocketOptions.SO_RCVBUF, 4096);
+        }
+        channel.connect(address);
+        write(channel, ("GET /ws/gold-price HTTP/1.1\r\nHost: 127.0.0.1\r\nUpgrade: websocket\r\n"
+                + "Connection: Upgrade\r\nSec-WebSocket-Key: dGhlIHNhbXBsZSBub25jZQ==\r\n"
+                + "Sec-WebSocket-Version: 13\r\nSec-WebSocket-Protocol: v12.stomp\r\n\r\n")
+                .getBytes(StandardCharsets.US_ASCII));
+        // 服务端在收到 CONNECT 之前不会发送其他数据，读到响应头结尾即可
+        ByteBuffer response = ByteBuffer.allocate(1024);
+        while (!endsWithHeaderTerminator(response)) {
+            if (channel.read(response) < 0) {
+                throw new IllegalStateException("握手失败");
+            }
+        }
+        write(channel, textFrame("CONNECT\naccept-version:1.2\nhost:127.0.0.1\nheart-beat:0,0\n\n\0"));
+        readFrame(channel);
+        write(channel, textFrame("SUBSCRIBE\nid:sub-0\ndestination:" + destination + "\n\n\0"));
+        channel.configureBlocking(false);
+        return channel;
+    }
+
+    private static boolean endsWithHeaderTerminator(ByteBuffer buffer) {
+        int position = buffer.position();
+        byte[] data = buffer.array();
+        return position >= 4 && data[position - 4] == '\r' && data[position - 3] == '\n'
+                && data[position - 2] == '\r' && data[position - 1] == '\n';
+    }
+
+    /**
+     * 客户端文本帧，掩码为 0
+     */
+    private static byte[] textFrame(String text) {
+        byte[] payload = text.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer frame = ByteBuffer.allocate(payload.length + 8);
+        frame.put((byte) 0x81);
+        if (payload.length < 126) {
+            frame.put((byte) (0x80 | payload.length));
+        } else {
+            frame.put((byte) (0x80 | 126)).putShort((short) payload.length);
+        }
+        frame.putInt(0).put(payload);
+        return Arrays.copyOf(frame.array(), frame.position());
+    }
+
+    private static void readFrame(SocketChannel channel) throws Exception {
+        ByteBuffer header = readFully(channel, 2);
+        int length = header.get(1) & 0x7F;
+        if (length == 126) {
+            length = readFully(channel, 2).getShort() & 0xFFFF;
+        }
+        readFully(channel, length);
+    }
+
+    private static ByteBuffer readFully(SocketChannel channel, int length) throws Exception {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                throw new IllegalStateException("连接已关闭");
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    private static void write(SocketChannel channel, byte[] data) throws Exception {
+        ByteBuffer buffer = ByteBuffer.wrap(data);
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    /**
+     * 读完慢会话中积压的数据，读到流结尾说明服务端已关闭连接
+     */
+    private static boolean closedByServer(SocketChannel channel) {
+        ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+        try {
+            while (System.nanoTime() < deadline) {
+                buffer.clear();
+                int read = channel.read(buffer);
+                if (read < 0) {
+                    return true;
+                }
+                if (read == 0) {
+                    Thread.sleep(10);
+                }
+            }
+            return false;
+        } catch (Exception e) {
+            return true;
+        }
+    }
+
+    private static double percentile(long[] sorted, double quantile) {
+        return sorted[(int) Math.min(sorted.length - 1, Math.ceil(quantile * sorted.length) - 1)] / 1e6;
+    }
+
+    private static long arg(String[] args, int index, long defaultValue) {
+        return args.length > index && !args[index].startsWith("--") ? Long.parseLong(args[index]) : defaultValue;
+    }
+
+    /**
+     * 快速会话的读取端：一个选择器线程读取全部连接，在字节流中查找 "ns": 后的发送时间计算延迟
+     */
+    private static final class Client {
+
+        private final Selector selector;
+        private final List<long[]> states = new ArrayList<>();
+        private long[] latencies = new long[1 << 16];
+        private int latencyCount;
+        private volatile int closed;
+
+        Client() throws Exception {
+            this.selector = Selector.open();
+            Thread reader = new Thread(this::readLoop, "stomp-load-client");
+            reader.setDaemon(true);
+            reader.start();
+        }
+
+        void register(SocketChannel channel) throws Exception {
+            // 状态：[0] 收到的帧数，[1] 标记的匹配进度，[2] 正在解析的时间，[3] 是否在解析数字
+            long[] state = new long[4];
+            synchronized (this) {
+                states.add(state);
+            }
+            // JDK 11 起 register 不会被进行中的 select 阻塞
+            channel.register(selector, SelectionKey.OP_READ, state);
+            selector.wakeup();
+        }
+
+        private void readLoop() {
+            ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+            while (true) {
+                try {
+                    selector.select(100);
+                    for (SelectionKey key : selector.selectedKeys()) {
+                        SocketChannel channel = (SocketChannel) key.channel();
+                        buffer.clear();
+                        int read;
+                        try {
+                            read = channel.read(buffer);
+                        } catch (Exception e) {
+                            read = -1;
+                        }
+                        if (read < 0) {
+                            key.cancel();
+                            closed++;
+                            continue;
+                        }
+                        scan((long[]) key.attachment(), buffer.array(), read, System.nanoTime());
+                    }
+                    selector.selectedKeys().clear();
+                } catch (Exception e) {
+                    return;
+                }
+            }
+        }
+
+        private void scan(long[] state, byte[] data, int length, long now) {
+            for (int i = 0; i < length; i++) {
+                byte b = data[i];
+                if (state[3] != 0) {
+                    if (b >= '0' && b <= '9') {
+                        state[2] = state[2] * 10 + (b - '0');
+                        continue;
+                    }
+                    state[0]++;
+                    record(now - state[2]);
+                    state[2] = 0;
+                    state[3] = 0;
+                }
+                int matched = (int) state[1];
+                if (b == MARKER[matched]) {
+                    if (++matched == MARKER.length) {
+                        state[3] = 1;
+                        matched = 0;
+                    }
+                } else {
+                    matched = b == MARKER[0] ? 1 : 0;
+                }
+                state[1] = matched;
+            }
+        }
+
+        private synchronized void record(long latency) {
+            if (latencyCount == latencies.length) {
+                latencies = Arrays.copyOf(latencies, latencies.length * 2);
+            }
+            latencies[latencyCount++] = latency;
+        }
+
+        synchronized void reset() {
+            for (long[] state : states) {
+                state[0] = 0;
+            }
+            latencyCount = 0;
+        }
+
+        synchronized int[] frames() {
+            int[] frames = new int[states.size()];
+            for (int i = 0; i < frames.length; i++) {
+                frames[i] = (int) states.get(i)[0];
+            }
+            return frames;
+        }
+
+        synchronized long[] latencies() {
+            return Arrays.copyOf(latencies, latencyCount);
+        }
+
+        int closed() {
+            return closed;
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.goldmonitor.benchmarks;
+
+import com.goldmonitor.model.FixedPrice;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 每个 tick 的价格计算：BigDecimal vs 微单位 long
+ *
+ * 两个基准做同样的事：生成价格、变化量和变化百分比（保留两位小数），
+ * 再得到写入历史/K线的定点值
+ *
+ * 运行：java -jar target/benchmarks.jar FixedPointBenchmark -prof gc
+ *
+ * @author Gold Monitor Team
+ * @version 1.0.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class FixedPointBenchmark {
+
+    private double variation = 12.345678;
+    private double delta = -3.21;
+
+    /**
+     * 原实现：setScale/divide/multiply 每步都创建新的 BigDecimal
+     */
+    @Benchmark
+    public void bigDecimalTick(Blackhole blackhole) {
+        BigDecimal price = BigDecimal.valueOf(2000.0 + variation).setScale(2, RoundingMode.HALF_UP);
+        BigDecimal change = BigDecimal.valueOf(delta).setScale(2, RoundingMode.HALF_UP);
+        BigDecimal changePercent = change.divide(price, 4, RoundingMode.HALF_UP)
+                .multiply(BigDecimal.valueOf(100))
+                .setScale(2, RoundingMode.HALF_UP);
+        blackhole.consume(price.movePointRight(6).setScale(0, RoundingMode.HALF_UP).longValueExact());
+        blackhole.consume(change);
+        blackhole.consume(changePercent);
+    }
+
+    /**
+     * 当前实现：全部为 long 运算，不分配对象
+     */
+    @Benchmark
+    public void fixedPointTick(Blackhole blackhole) {
+        long price = FixedPrice.round(FixedPrice.toMicros(2000.0 + variation), 2);
+        long change = FixedPrice.round(FixedPrice.toMicros(delta), 2);
+        long changePercent = FixedPrice.round(FixedPrice.percentOf(change, price), 2);
+        blackhole.consume(price);
+        blackhole.consume(change);
+        blackhole.consume(changePercent);
+    }
+
+    /**
+     * JSON 边界：微单位格式化为十进制文本
+     */
+    @Benchmark
+    public String formatForJson() {
+        return FixedPrice.format(2_050_300_000L);
+    }
+}
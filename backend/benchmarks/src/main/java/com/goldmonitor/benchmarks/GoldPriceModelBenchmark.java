@@ -0,0 +1,109 @@
+package com.goldmonitor.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.goldmonitor.codec.GoldBinaryCodec;
+import com.goldmonitor.model.CurrencyCode;
+import com.goldmonitor.model.GoldPrice;
+import com.goldmonitor.service.GoldPriceService;
+import com.goldmonitor.websocket.GoldPriceBroadcaster;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 价格对象的构建与序列化
+ *
+ * 运行：java -jar target/benchmarks.jar GoldPriceModelBenchmark -prof gc
+ *
+ * @author Gold Monitor Team
+ * @version 1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class GoldPriceModelBenchmark {
+
+    private GoldPrice goldPrice;
+    private GoldPriceService mockService;
+    private SimpMessagingTemplate messagingTemplate;
+    private GoldPriceBroadcaster broadcaster;
+
+    @Setup
+    public void setUp() {
+        ObjectMapper objectMapper = BenchmarkFixtures.objectMapper();
+        goldPrice = BenchmarkFixtures.goldPrice();
+
+        // demo_key 时服务直接返回模拟数据，不会用到数据源聚合器和价格矩阵
+        mockService = new GoldPriceService(null, null, BenchmarkFixtures.marketCalendar(),
+                BenchmarkFixtures.circuitBreaker(), new SimpleMeterRegistry(), "demo_key");
+
+        // 与 Spring 配置相同的消息转换链，通道直接丢弃消息
+        MappingJackson2MessageConverter converter = new MappingJackson2MessageConverter();
+        converter.setObjectMapper(objectMapper);
+        messagingTemplate = new SimpMessagingTemplate((message, timeout) -> true);
+        messagingTemplate.setMessageConverter(converter);
+
+        broadcaster = new GoldPriceBroadcaster((destination, payload, contentType) -> { }, objectMapper,
+                new GoldBinaryCodec(), new SimpleMeterRegistry(), true, 30, false);
+    }
+
+    /**
+     * 模拟数据生成（generateMockGoldPrice）
+     */
+    @Benchmark
+    public GoldPrice generateMockGoldPrice() {
+        return mockService.getCurrentGoldPrice().block();
+    }
+
+    /**
+     * GoldPrice 构建器
+     */
+    @Benchmark
+    public GoldPrice builder() {
+        return GoldPrice.builder()
+                .id(String.valueOf(System.currentTimeMillis()))
+                .price(2_050_300_000L)
+                .currency(CurrencyCode.USD)
+                .unit("oz")
+                .change(5_200_000L)
+                .changePercent(250_000L)
+                .timestamp(LocalDateTime.now())
+                .source("GOLDPRICE.ORG")
+                .marketStatus("OPEN")
+                .build();
+    }
+
+    /**
+     * 原广播方式：SimpMessagingTemplate.convertAndSend 在发送时做 Jackson 转换
+     */
+    @Benchmark
+    public void convertAndSend() {
+        messagingTemplate.convertAndSend("/topic/gold-price", goldPrice);
+    }
+
+    /**
+     * 当前广播方式：每个 tick 序列化一次并编码增量帧，扇出引擎不计在内
+     */
+    @Benchmark
+    public void preSerializedBroadcast(Blackhole blackhole) throws Exception {
+        broadcaster.broadcast(goldPrice, System.currentTimeMillis(), goldPrice.getPrice());
+        blackhole.consume(broadcaster);
+    }
+}
@@ -0,0 +1,263 @@
+package com.goldmonitor.benchmarks;
+
+import com.goldmonitor.GoldPriceMonitorApplication;
+import com.goldmonitor.stream.PriceStreamServer;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 价格流空闲连接负载测试
+ * 启动完整的后端应用（上游为进程内桩服务，每秒轮询一次），用一个 NIO 选择器线程建立 connections 个
+ * /gold/stream（或 /gold/stream/ndjson）长连接，客户端只读取不发送。统计建连后的堆增量（两次 GC 后）、线程数，
+ * 以及 hold 毫秒内每个连接收到的 price 事件数（NDJSON 只统计以换行结尾的行）。
+ * server 为 netty 时连接独立的价格流服务器，为 servlet 时连接 Tomcat 上的同名接口；
+ * hold 超过 30 秒可以确认连接不受容器默认异步超时影响（被服务端关闭的连接数应为 0）
+ *
+ * 客户端与服务端在同一进程内，每个连接占用两个文件描述符，连接数受 ulimit -n 限制；
+ * 堆增量包含客户端 SocketChannel 等对象，是服务端每连接开销的上界
+ *
+ * 运行：java -Xmx256m -cp target/benchmarks.jar com.goldmonitor.benchmarks.IdleStreamLoadTest
+ *       [connections=9000] [hold=10000] [server=netty|servlet] [format=sse|ndjson] [--应用配置 ...]
+ *
+ * @author Gold Monitor Team
+ * @version 1.0.0
+ */
+public final class IdleStreamLoadTest {
+
+    private static final byte[] SSE_EVENT = "event:price".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] NDJSON_EVENT = "}\n".getBytes(StandardCharsets.US_ASCII);
+
+    private IdleStreamLoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int connections = (int) arg(args, 0, 9000);
+        long hold = arg(args, 1, 10000);
+        boolean netty = args.length <= 2 || args[2].startsWith("--") || "netty".equals(args[2]);
+        boolean ndjson = args.length > 3 && "ndjson".equals(args[3]);
+
+        DisposableServer upstream = HttpServer.create()
+                .host("127.0.0.1")
+                .port(0)
+                .route(routes -> routes.get("/dbXRates/USD", (request, response) -> response
+                        .header("Content-Type", "application/json")
+                        .sendByteArray(Mono.just(BenchmarkFixtures.GOLDPRICE_ORG))))
+                .bindNow();
+
+        List<String> appArgs = new ArrayList<>(Arrays.asList(
+                "--server.port=0",
+                "--gold.api.key=load-test",
+                "--gold.api.url=http://127.0.0.1:" + upstream.port() + "/dbXRates/USD",
+                "--gold.api.sources=STUB=${gold.api.url}",
+                "--gold.api.currencies=USD",
+                "--gold.journal.enabled=false",
+                "--gold.scheduler.adaptive.enabled=false",
+                "--gold.scheduler.price-update-interval=1",
+                "--gold.scheduler.initial-delay=1",
+                "--gold.scheduler.force-enabled=true",
+                "--logging.level.root=WARN",
+                "--logging.level.com.goldmonitor=WARN",
+                "--gold.stream.server.enabled=" + netty,
+                "--gold.stream.server.port=0"));
+        // 命令行中的应用配置覆盖同名的默认值
+        for (String arg : args) {
+            if (arg.startsWith("--")) {
+                String key = arg.substring(0, arg.indexOf('=') + 1);
+                appArgs.removeIf(defaultArg -> !key.isEmpty() && defaultArg.startsWith(key));
+                appArgs.add(arg);
+            }
+        }
+        ConfigurableApplicationContext context = SpringApplication.run(GoldPriceMonitorApplication.class,
+                appArgs.toArray(new String[0]));
+        int port = netty ? context.getBean(PriceStreamServer.class).getPort()
+                : Integer.parseInt(context.getEnvironment().getProperty("local.server.port"));
+
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        Client client = new Client(new InetSocketAddress("127.0.0.1", port), ndjson);
+        // 预热流式响应路径
+        client.open(100);
+        Thread.sleep(3000);
+        client.closeAll();
+        Thread.sleep(1000);
+
+        long heapBefore = usedHeapAfterGc();
+        int threadsBefore = threads.getThreadCount();
+        long connectStart = System.nanoTime();
+        client.open(connections);
+        long connectMillis = (System.nanoTime() - connectStart) / 1_000_000;
+        Thread.sleep(2000);
+
+        client.resetEvents();
+        Thread.sleep(hold);
+        int[] events = client.events();
+        long heapAfter = usedHeapAfterGc();
+        int threadsAfter = threads.getThreadCount();
+
+        Arrays.sort(events);
+        long total = 0;
+        for (int count : events) {
+            total += count;
+        }
+        System.out.printf("server=%s, format=%s, java=%s, max heap=%d MB, connections=%d (closed by server %d), "
+                        + "connect time=%d ms%n", netty ? "netty" : "servlet", ndjson ? "ndjson" : "sse",
+                System.getProperty("java.version"),
+                Runtime.getRuntime().maxMemory() / (1024 * 1024), connections, client.closed(), connectMillis);
+        System.out.printf("heap after GC: before=%.1f MB, after=%.1f MB, per connection=%.2f KB%n",
+                heapBefore / 1048576.0, heapAfter / 1048576.0,
+                (heapAfter - heapBefore) / 1024.0 / connections);
+        System.out.printf("threads: before=%d, after=%d%n", threadsBefore, threadsAfter);
+        System.out.printf("price events per connection in %d ms: min=%d, p50=%d, max=%d, avg=%.2f%n",
+                hold, events[0], events[events.length / 2], events[events.length - 1],
+                (double) total / events.length);
+
+        client.closeAll();
+        context.close();
+        upstream.disposeNow();
+        System.exit(0);
+    }
+
+    private static long usedHeapAfterGc() throws InterruptedException {
+        for (int i = 0; i < 2; i++) {
+            System.gc();
+            Thread.sleep(500);
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    private static long arg(String[] args, int index, long defaultValue) {
+        return args.length > index && !args[index].startsWith("--") ? Long.parseLong(args[index]) : defaultValue;
+    }
+
+    /**
+     * 只读的价格流客户端：阻塞建连并发送请求，之后由一个选择器线程读取全部连接并统计 price 事件
+     */
+    private static final class Client {
+
+        private final InetSocketAddress address;
+        private final byte[] request;
+        private final byte[] event;
+        private final Selector selector;
+        private final List<SocketChannel> channels = new ArrayList<>();
+        private final List<int[]> counters = new ArrayList<>();
+        private volatile int closed;
+
+        Client(InetSocketAddress address, boolean ndjson) throws Exception {
+            this.address = address;
+            this.request = (ndjson
+                    ? "GET /gold/stream/ndjson HTTP/1.1\r\nHost: 127.0.0.1\r\nAccept: application/x-ndjson\r\n\r\n"
+                    : "GET /gold/stream HTTP/1.1\r\nHost: 127.0.0.1\r\nAccept: text/event-stream\r\n\r\n")
+                    .getBytes(StandardCharsets.US_ASCII);
+            this.event = ndjson ? NDJSON_EVENT : SSE_EVENT;
+            this.selector = Selector.open();
+            Thread reader = new Thread(this::readLoop, "sse-load-client");
+            reader.setDaemon(true);
+            reader.start();
+        }
+
+        void open(int count) throws Exception {
+            for (int i = 0; i < count; i++) {
+                SocketChannel channel = SocketChannel.open(address);
+                channel.write(ByteBuffer.wrap(request));
+                channel.configureBlocking(false);
+                // 计数器：[0] price 事件数，[1] 跨读取边界的匹配进度
+                int[] counter = new int[2];
+                synchronized (this) {
+                    channels.add(channel);
+                    counters.add(counter);
+                }
+                selector.wakeup();
+                synchronized (selector) {
+                    channel.register(selector, SelectionKey.OP_READ, counter);
+                }
+            }
+        }
+
+        private void readLoop() {
+            ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+            while (true) {
+                try {
+                    synchronized (selector) {
+                        // 让 open() 中的 register 有机会获得锁
+                    }
+                    selector.select(100);
+                    for (SelectionKey key : selector.selectedKeys()) {
+                        SocketChannel channel = (SocketChannel) key.channel();
+                        buffer.clear();
+                        int read;
+                        try {
+                            read = channel.read(buffer);
+                        } catch (Exception e) {
+                            read = -1;
+                        }
+                        if (read < 0) {
+                            key.cancel();
+                            closed++;
+                            continue;
+                        }
+                        count((int[]) key.attachment(), buffer.array(), read);
+                    }
+                    selector.selectedKeys().clear();
+                } catch (Exception e) {
+                    return;
+                }
+            }
+        }
+
+        private void count(int[] counter, byte[] data, int length) {
+            int matched = counter[1];
+            for (int i = 0; i < length; i++) {
+                if (data[i] == event[matched]) {
+                    if (++matched == event.length) {
+                        counter[0]++;
+                        matched = 0;
+                    }
+                } else {
+                    matched = data[i] == event[0] ? 1 : 0;
+                }
+            }
+            counter[1] = matched;
+        }
+
+        synchronized void resetEvents() {
+            for (int[] counter : counters) {
+                counter[0] = 0;
+            }
+        }
+
+        synchronized int[] events() {
+            int[] events = new int[counters.size()];
+            for (int i = 0; i < events.length; i++) {
+                events[i] = counters.get(i)[0];
+            }
+            return events;
+        }
+
+        int closed() {
+            return closed;
+        }
+
+        synchronized void closeAll() throws Exception {
+            for (SocketChannel channel : channels) {
+                channel.close();
+            }
+            channels.clear();
+            counters.clear();
+            closed = 0;
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.goldmonitor.benchmarks;
+
+import com.goldmonitor.analytics.IndicatorEngine;
+import com.goldmonitor.model.FixedPrice;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 技术指标每个 tick 的更新耗时
+ *
+ * incrementalTick 为 {@link IndicatorEngine}：三个窗口（window / 10、window / 4、window）的 SMA + 标准差 + 布林带，
+ * EMA 12 / 26 和 RSI 14，耗时应与窗口大小无关且不分配对象；
+ * rescanTick 为对照，每个 tick 重新扫描同样三个窗口计算均值和标准差
+ *
+ * 运行：java -jar target/benchmarks.jar IndicatorEngineBenchmark -prof gc
+ *
+ * @author Gold Monitor Team
+ * @version 1.0.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class IndicatorEngineBenchmark {
+
+    private static final int PRICES = 4096;
+
+    @Param({"200", "20000"})
+    private int window;
+
+    private final long[] prices = new long[PRICES];
+    private IndicatorEngine engine;
+    private int[] windows;
+    private long[] history;
+    private int next;
+    private int cursor;
+    private long timestamp;
+
+    @Setup
+    public void setUp() {
+        // 随机游走，每步 ±50 美分以内
+        SplittableRandom random = new SplittableRandom(42);
+        long price = FixedPrice.toMicros(2000.0);
+        for (int i = 0; i < PRICES; i++) {
+            price += random.nextLong(-500_000, 500_001);
+            prices[i] = price;
+        }
+
+        windows = new int[]{window / 10, window / 4, window};
+        engine = new IndicatorEngine(windows, new int[]{12, 26}, new int[]{14}, 2);
+        history = new long[window];
+        for (int i = 0; i < window; i++) {
+            tick();
+        }
+    }
+
+    private void tick() {
+        long price = prices[cursor];
+        cursor = (cursor + 1) & (PRICES - 1);
+        engine.update(++timestamp, price);
+        history[next] = price;
+        next = next + 1 == history.length ? 0 : next + 1;
+    }
+
+    @Benchmark
+    public long incrementalTick() {
+        engine.update(++timestamp, prices[cursor]);
+        cursor = (cursor + 1) & (PRICES - 1);
+        return engine.sma(0) + engine.upperBand(1) + engine.lowerBand(2) + engine.ema(1) + engine.rsi(0);
+    }
+
+    @Benchmark
+    public double rescanTick() {
+        history[next] = prices[cursor];
+        next = next + 1 == history.length ? 0 : next + 1;
+        cursor = (cursor + 1) & (PRICES - 1);
+        double result = 0;
+        for (int length : windows) {
+            long sum = 0;
+            for (int i = 1; i <= length; i++) {
+                sum += history[(next - i + history.length) % history.length];
+            }
+            double mean = (double) sum / length;
+            double squares = 0;
+            for (int i = 1; i <= length; i++) {
+                double deviation = history[(next - i + history.length) % history.length] - mean;
+                squares += deviation * deviation;
+            }
+            result += mean + Math.sqrt(squares / length);
+        }
+        return result;
+    }
+}
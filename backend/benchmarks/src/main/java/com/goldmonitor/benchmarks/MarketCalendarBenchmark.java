@@ -0,0 +1,61 @@
+package com.goldmonitor.benchmarks;
+
+import com.goldmonitor.market.MarketCalendar;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 市场状态判断：原 LocalDateTime.now() 计算 vs 预先计算的交易日历二分查找
+ *
+ * 运行：java -jar target/benchmarks.jar MarketCalendarBenchmark -prof gc
+ *
+ * @author Gold Monitor Team
+ * @version 1.0.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class MarketCalendarBenchmark {
+
+    private MarketCalendar calendar;
+
+    @Setup
+    public void setUp() {
+        calendar = BenchmarkFixtures.marketCalendar();
+    }
+
+    /**
+     * 原实现：默认时区的 LocalDateTime，周一至周五 8~20 点
+     */
+    @Benchmark
+    public boolean localDateTimeCheck() {
+        LocalDateTime now = LocalDateTime.now();
+        int hour = now.getHour();
+        int dayOfWeek = now.getDayOfWeek().getValue();
+        return dayOfWeek >= 1 && dayOfWeek <= 5 && hour >= 8 && hour <= 20;
+    }
+
+    @Benchmark
+    public boolean calendarIsOpen() {
+        return calendar.isOpen(System.currentTimeMillis());
+    }
+
+    @Benchmark
+    public long calendarNextTransition() {
+        return calendar.nextTransition(System.currentTimeMillis());
+    }
+}
@@ -0,0 +1,75 @@
+package com.goldmonitor.benchmarks;
+
+import com.goldmonitor.config.MetricsConfig;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.prometheus.PrometheusConfig;
+import io.micrometer.prometheus.PrometheusMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 热路径指标的记录开销：与应用相同的 Prometheus 注册表和分位数配置（HdrHistogram + 直方图桶），
+ * gc.alloc.rate.norm 应为 0
+ *
+ * 运行：java -jar target/benchmarks.jar MetricsRecordingBenchmark -prof gc
+ *
+ * @author Gold Monitor Team
+ * @version 1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class MetricsRecordingBenchmark {
+
+    private PrometheusMeterRegistry registry;
+    private Timer timer;
+    private Counter counter;
+
+    @Setup
+    public void setUp() {
+        registry = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+        registry.config().meterFilter(MetricsConfig.latencyHistograms(new double[] {0.5, 0.9, 0.99, 0.999},
+                Duration.ofNanos(100_000), Duration.ofSeconds(30)));
+        timer = Timer.builder("gold.tick.latency").register(registry);
+        counter = registry.counter("gold.upstream.fallback", "type", "stale");
+    }
+
+    /**
+     * 记录一次计时：与应用中一样，取 System.nanoTime() 差值后直接记录
+     */
+    @Benchmark
+    public void recordTimer() {
+        long start = System.nanoTime();
+        timer.record(System.nanoTime() - start + ThreadLocalRandom.current().nextInt(1_000_000),
+                TimeUnit.NANOSECONDS);
+    }
+
+    @Benchmark
+    public void incrementCounter() {
+        counter.increment();
+    }
+
+    /**
+     * 对照：一次 Prometheus 抓取的序列化开销（不在热路径上）
+     */
+    @Benchmark
+    public String scrape() {
+        return registry.scrape();
+    }
+}
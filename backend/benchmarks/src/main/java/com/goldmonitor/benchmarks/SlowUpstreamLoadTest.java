@@ -0,0 +1,192 @@
+package com.goldmonitor.benchmarks;
+
+import com.goldmonitor.GoldPriceMonitorApplication;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 慢上游负载测试
+ * 启动完整的后端应用，上游换成每个请求都延迟 upstream-delay 毫秒的桩服务，价格快照为空（冷启动）。
+ * 预热 /gold/health 之后开始测量：窗口内 current-clients 个并发客户端循环请求 /gold/current，
+ * 同时 health-clients 个客户端循环请求 /gold/health，统计各自的完成数、吞吐量和延迟分位数，
+ * 以及窗口内 JVM 线程数峰值
+ *
+ * 运行：java -cp target/benchmarks.jar com.goldmonitor.benchmarks.SlowUpstreamLoadTest
+ *       [upstream-delay=8000] [window=6000] [current-clients=400] [health-clients=16] [--应用配置 ...]
+ * 例如在 JDK 21 上追加 --gold.threads.virtual=true 测试虚拟线程模式
+ *
+ * @author Gold Monitor Team
+ * @version 1.0.0
+ */
+public final class SlowUpstreamLoadTest {
+
+    private SlowUpstreamLoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        long upstreamDelay = arg(args, 0, 8000);
+        long window = arg(args, 1, 6000);
+        int currentClients = (int) arg(args, 2, 400);
+        int healthClients = (int) arg(args, 3, 16);
+
+        DisposableServer upstream = HttpServer.create()
+                .host("127.0.0.1")
+                .port(0)
+                .route(routes -> routes.get("/dbXRates/USD", (request, response) -> response
+                        .header("Content-Type", "application/json")
+                        .sendByteArray(Mono.just(BenchmarkFixtures.GOLDPRICE_ORG)
+                                .delayElement(Duration.ofMillis(upstreamDelay)))))
+                .bindNow();
+
+        List<String> appArgs = new ArrayList<>(Arrays.asList(
+                "--server.port=0",
+                "--gold.api.key=load-test",
+                "--gold.api.url=http://127.0.0.1:" + upstream.port() + "/dbXRates/USD",
+                "--gold.api.sources=STUB=${gold.api.url}",
+                "--gold.api.currencies=USD",
+                "--gold.api.timeout=" + (upstreamDelay + 5000),
+                "--gold.journal.enabled=false",
+                "--gold.scheduler.initial-delay=3600",
+                "--logging.level.root=WARN"));
+        for (String arg : args) {
+            if (arg.startsWith("--")) {
+                appArgs.add(arg);
+            }
+        }
+        ConfigurableApplicationContext context = SpringApplication.run(GoldPriceMonitorApplication.class,
+                appArgs.toArray(new String[0]));
+        String base = "http://127.0.0.1:" + context.getEnvironment().getProperty("local.server.port");
+
+        HttpClient client = HttpClient.newBuilder()
+                .executor(Executors.newFixedThreadPool(8))
+                .connectTimeout(Duration.ofSeconds(30))
+                .build();
+        // 预热 Servlet 请求路径（不触发上游请求）
+        for (int i = 0; i < 500; i++) {
+            client.send(HttpRequest.newBuilder(URI.create(base + "/gold/health")).build(),
+                    HttpResponse.BodyHandlers.discarding());
+        }
+
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        threads.resetPeakThreadCount();
+        int threadsBefore = threads.getThreadCount();
+
+        long start = System.nanoTime();
+        long deadline = start + window * 1_000_000;
+        Stats current = new Stats();
+        Stats health = new Stats();
+        CompletableFuture<?>[] loops = new CompletableFuture<?>[currentClients + healthClients];
+        for (int i = 0; i < healthClients; i++) {
+            loops[i] = loop(client, URI.create(base + "/gold/health"), deadline, health);
+        }
+        // 新连接按每毫秒一个逐步建立，避免一次性连接超出 Tomcat 的 accept 队列触发 SYN 重传
+        for (int i = 0; i < currentClients; i++) {
+            loops[healthClients + i] = CompletableFuture.supplyAsync(() -> null,
+                            CompletableFuture.delayedExecutor(i, TimeUnit.MILLISECONDS))
+                    .thenCompose(ignored -> loop(client, URI.create(base + "/gold/current"), deadline, current));
+        }
+        long heapAtDeadline = sampleHeapAt(deadline);
+        CompletableFuture.allOf(loops).get();
+        long elapsed = (System.nanoTime() - start) / 1_000_000;
+
+        System.out.printf("upstream-delay=%d ms, window=%d ms, elapsed=%d ms, current-clients=%d, health-clients=%d%n",
+                upstreamDelay, window, elapsed, currentClients, healthClients);
+        System.out.printf("java=%s, threads: before=%d, peak=%d, heap used at window end=%d MB%n",
+                System.getProperty("java.version"), threadsBefore, threads.getPeakThreadCount(),
+                heapAtDeadline / (1024 * 1024));
+        current.print("/gold/current", window);
+        health.print("/gold/health", window);
+
+        context.close();
+        upstream.disposeNow();
+        System.exit(0);
+    }
+
+    /**
+     * 一个客户端：上一个请求完成后立即发出下一个，直到窗口结束；窗口内发出的请求等待其完成
+     */
+    private static CompletableFuture<Void> loop(HttpClient client, URI uri, long deadline, Stats stats) {
+        if (System.nanoTime() >= deadline) {
+            return CompletableFuture.completedFuture(null);
+        }
+        long sent = System.nanoTime();
+        HttpRequest request = HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(60)).GET().build();
+        return client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .handle((response, error) -> {
+                    long latency = (System.nanoTime() - sent) / 1_000;
+                    boolean inWindow = System.nanoTime() < deadline;
+                    stats.record(latency, error == null && response.statusCode() == 200, inWindow);
+                    return null;
+                })
+                .thenCompose(ignored -> loop(client, uri, deadline, stats));
+    }
+
+    /**
+     * 等到窗口结束时读取堆使用量（平台线程栈不在堆内，只反映请求和连接占用的对象）
+     */
+    private static long sampleHeapAt(long deadline) throws InterruptedException {
+        long remaining = (deadline - System.nanoTime()) / 1_000_000;
+        if (remaining > 0) {
+            Thread.sleep(remaining);
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    private static long arg(String[] args, int index, long defaultValue) {
+        return args.length > index && !args[index].startsWith("--") ? Long.parseLong(args[index]) : defaultValue;
+    }
+
+    private static final class Stats {
+
+        private final ConcurrentLinkedQueue<Long> latencies = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger completedInWindow = new AtomicInteger();
+        private final AtomicInteger failed = new AtomicInteger();
+
+        void record(long latencyMicros, boolean ok, boolean inWindow) {
+            latencies.add(latencyMicros);
+            if (!ok) {
+                failed.incrementAndGet();
+            }
+            if (inWindow) {
+                completedInWindow.incrementAndGet();
+            }
+        }
+
+        void print(String name, long window) {
+            long[] sorted = latencies.stream().mapToLong(Long::longValue).toArray();
+            Arrays.sort(sorted);
+            System.out.printf("%-14s completed=%d (in window %d, %.1f req/s), failed=%d, "
+                            + "p50=%.1f ms, p99=%.1f ms, max=%.1f ms%n",
+                    name, sorted.length, completedInWindow.get(), completedInWindow.get() * 1000.0 / window,
+                    failed.get(), quantile(sorted, 0.50), quantile(sorted, 0.99),
+                    sorted.length == 0 ? 0 : sorted[sorted.length - 1] / 1000.0);
+        }
+
+        private static double quantile(long[] sorted, double q) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(q * sorted.length) - 1;
+            return sorted[Math.max(0, Math.min(index, sorted.length - 1))] / 1000.0;
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.goldmonitor.benchmarks;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.OutputStreamAppender;
+import com.goldmonitor.logging.RingBufferAppender;
+import com.goldmonitor.model.FixedPrice;
+import com.goldmonitor.scheduler.TickLogSummary;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 每个 tick 在业务线程上的日志开销
+ * 三个基准都模拟一次 tick 中 GoldPriceService 和 GoldPriceScheduler 的日志调用，输出写入空输出流（不计 I/O）：
+ * 原配置为 DEBUG 级别 + 同步追加器，每个 tick 四行；异步为同样四行经过环形缓冲区追加器；
+ * 当前配置为 INFO 级别，明细被级别检查跳过，只更新 {@link TickLogSummary}
+ *
+ * 运行：java -jar target/benchmarks.jar TickLoggingBenchmark -prof gc
+ *
+ * @author Gold Monitor Team
+ * @version 1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class TickLoggingBenchmark {
+
+    private static final String PATTERN = "%d{yyyy-MM-dd HH:mm:ss} [%thread] %-5level %logger{36} - %msg%n";
+
+    private LoggerContext context;
+    private Logger syncDebugLogger;
+    private Logger asyncDebugLogger;
+    private Logger infoLogger;
+    private RingBufferAppender ringBuffer;
+    private TickLogSummary summary;
+
+    private final long price = 2_050_300_000L;
+    private final long changePercent = 250_000L;
+
+    @Setup
+    public void setUp() {
+        context = new LoggerContext();
+
+        syncDebugLogger = context.getLogger("com.goldmonitor.scheduler.GoldPriceScheduler");
+        syncDebugLogger.setAdditive(false);
+        syncDebugLogger.setLevel(Level.DEBUG);
+        syncDebugLogger.addAppender(sink("SYNC"));
+
+        ringBuffer = new RingBufferAppender();
+        ringBuffer.setContext(context);
+        ringBuffer.setName("ASYNC");
+        ringBuffer.addAppender(sink("ASYNC_SINK"));
+        ringBuffer.start();
+        asyncDebugLogger = context.getLogger("com.goldmonitor.service.GoldPriceService");
+        asyncDebugLogger.setAdditive(false);
+        asyncDebugLogger.setLevel(Level.DEBUG);
+        asyncDebugLogger.addAppender(ringBuffer);
+
+        infoLogger = context.getLogger("com.goldmonitor.service.PriceAlertService");
+        infoLogger.setAdditive(false);
+        infoLogger.setLevel(Level.INFO);
+        infoLogger.addAppender(sink("INFO"));
+
+        // 测量期间不会到达汇总间隔
+        summary = new TickLogSummary(TimeUnit.HOURS.toMillis(1));
+    }
+
+    private OutputStreamAppender<ILoggingEvent> sink(String name) {
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern(PATTERN);
+        encoder.start();
+        OutputStreamAppender<ILoggingEvent> appender = new OutputStreamAppender<>();
+        appender.setContext(context);
+        appender.setName(name);
+        appender.setEncoder(encoder);
+        appender.setOutputStream(OutputStream.nullOutputStream());
+        appender.start();
+        return appender;
+    }
+
+    @TearDown
+    public void tearDown() {
+        System.out.println("ring buffer dropped events: " + ringBuffer.getDroppedCount());
+        context.stop();
+    }
+
+    /**
+     * 原配置：DEBUG 级别，同步追加器在调用线程上格式化并写出
+     */
+    @Benchmark
+    public void syncDebugTick() {
+        logTick(syncDebugLogger);
+    }
+
+    /**
+     * 同样的四行经过环形缓冲区异步追加器，调用线程只构建事件并放入缓冲区
+     */
+    @Benchmark
+    public void asyncDebugTick() {
+        logTick(asyncDebugLogger);
+    }
+
+    /**
+     * 当前配置：INFO 级别，明细被级别检查跳过，tick 计入定期汇总
+     */
+    @Benchmark
+    public void summarizedInfoTick() {
+        Logger log = infoLogger;
+        log.debug("开始执行定时任务：获取黄金价格");
+        log.debug("开始获取黄金价格数据...");
+        if (log.isDebugEnabled()) {
+            log.debug("成功获取黄金价格: ${}", FixedPrice.format(price));
+        }
+        if (log.isDebugEnabled()) {
+            log.debug("成功广播黄金价格: ${}/oz (变化: {}%)", FixedPrice.format(price),
+                    FixedPrice.format(changePercent));
+        }
+        summary.onTick(System.currentTimeMillis(), price);
+    }
+
+    private void logTick(Logger log) {
+        log.debug("开始执行定时任务：获取黄金价格");
+        log.debug("开始获取黄金价格数据...");
+        log.info("成功获取黄金价格: ${}", FixedPrice.format(price));
+        log.info("成功广播黄金价格: ${}/oz (变化: {}%)", FixedPrice.format(price), FixedPrice.format(changePercent));
+    }
+}
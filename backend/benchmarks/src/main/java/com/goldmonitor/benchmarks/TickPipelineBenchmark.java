@@ -0,0 +1,87 @@
+package com.goldmonitor.benchmarks;
+
+import com.goldmonitor.codec.GoldBinaryCodec;
+import com.goldmonitor.model.GoldPrice;
+import com.goldmonitor.service.GoldPriceService;
+import com.goldmonitor.service.PriceMatrixService;
+import com.goldmonitor.source.PriceSourceAggregator;
+import com.goldmonitor.websocket.GoldPriceBroadcaster;
+import com.goldmonitor.websocket.PriceFanout;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 完整 tick 周期：请求进程内的上游桩服务 → 解析 → 广播
+ *
+ * 运行：java -jar target/benchmarks.jar TickPipelineBenchmark -prof gc
+ *
+ * @author Gold Monitor Team
+ * @version 1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class TickPipelineBenchmark {
+
+    private DisposableServer upstream;
+    private GoldPriceService goldPriceService;
+    private GoldPriceBroadcaster broadcaster;
+    private PriceMatrixService priceMatrixService;
+    private final AtomicLong publishedBytes = new AtomicLong();
+
+    @Setup
+    public void setUp() {
+        upstream = HttpServer.create()
+                .host("127.0.0.1")
+                .port(0)
+                .route(routes -> routes.get("/dbXRates/USD", (request, response) -> response
+                        .header("Content-Type", "application/json")
+                        .sendByteArray(Mono.just(BenchmarkFixtures.GOLDPRICE_ORG))))
+                .bindNow();
+
+        String url = "http://127.0.0.1:" + upstream.port() + "/dbXRates/USD";
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        PriceSourceAggregator aggregator = new PriceSourceAggregator(WebClient.builder(), meterRegistry,
+                new String[] {"STUB=" + url}, new String[] {"USD"}, "hedged", 10000, 100, 3000, 1000,
+                Integer.MAX_VALUE, Integer.MAX_VALUE);
+        PriceFanout fanout = (destination, payload, contentType) -> publishedBytes.addAndGet(payload.length);
+        priceMatrixService = new PriceMatrixService(fanout);
+        goldPriceService = new GoldPriceService(aggregator, priceMatrixService,
+                BenchmarkFixtures.marketCalendar(), BenchmarkFixtures.circuitBreaker(), meterRegistry, "benchmark");
+        broadcaster = new GoldPriceBroadcaster(fanout, BenchmarkFixtures.objectMapper(), new GoldBinaryCodec(),
+                meterRegistry, true, 30, true);
+    }
+
+    @TearDown
+    public void tearDown() {
+        upstream.disposeNow();
+    }
+
+    @Benchmark
+    public GoldPrice fetchParseBroadcast() throws Exception {
+        GoldPrice goldPrice = goldPriceService.getCurrentGoldPrice().block();
+        broadcaster.broadcast(goldPrice, System.currentTimeMillis(), goldPrice.getPrice());
+        priceMatrixService.publishChanges();
+        return goldPrice;
+    }
+}
@@ -0,0 +1,88 @@
+package com.goldmonitor.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.goldmonitor.model.GoldPrice;
+import com.goldmonitor.model.MetalQuote;
+import com.goldmonitor.source.GoldPriceOrgDecoder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 上游响应解码：Map 树 vs 流式 JsonParser
+ *
+ * 运行：java -jar target/benchmarks.jar UpstreamDecodeBenchmark -prof gc
+ *
+ * @author Gold Monitor Team
+ * @version 1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class UpstreamDecodeBenchmark {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final DefaultDataBufferFactory bufferFactory = DefaultDataBufferFactory.sharedInstance;
+
+    /**
+     * 原实现：bodyToMono(Map.class) 后逐层取值，数字经 toString() 再转 BigDecimal
+     */
+    @Benchmark
+    @SuppressWarnings("unchecked")
+    public BigDecimal[] mapTree() throws IOException {
+        Map<String, Object> response = objectMapper.readValue(BenchmarkFixtures.GOLDPRICE_ORG, Map.class);
+        List<Map<String, Object>> items = (List<Map<String, Object>>) response.get("items");
+        Map<String, Object> priceData = items.get(0);
+        priceData.getOrDefault("curr", "USD").toString();
+        return new BigDecimal[] {
+                new BigDecimal(priceData.get("xauPrice").toString()),
+                new BigDecimal(priceData.getOrDefault("chgXau", "0").toString()),
+                new BigDecimal(priceData.getOrDefault("pcXau", "0").toString())
+        };
+    }
+
+    /**
+     * 流式解码字节数组
+     */
+    @Benchmark
+    public List<MetalQuote> streaming() throws IOException {
+        return GoldPriceOrgDecoder.decode(BenchmarkFixtures.GOLDPRICE_ORG);
+    }
+
+    /**
+     * 与 GoldPriceOrgSource 相同的路径：从 DataBuffer 流式解码
+     */
+    @Benchmark
+    public List<MetalQuote> streamingDataBuffer() throws IOException {
+        DataBuffer buffer = bufferFactory.wrap(BenchmarkFixtures.GOLDPRICE_ORG);
+        try (InputStream content = buffer.asInputStream(true)) {
+            return GoldPriceOrgDecoder.decode(content);
+        }
+    }
+
+    /**
+     * 完整解析：流式解码并由主报价构建 GoldPrice（原 parseGoldApiResponse 的职责）
+     */
+    @Benchmark
+    public GoldPrice parseGoldApiResponse() throws IOException {
+        return GoldPriceOrgDecoder.decode(BenchmarkFixtures.GOLDPRICE_ORG).get(0).toGoldPrice();
+    }
+}
@@ -0,0 +1,205 @@
+package com.goldmonitor.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.goldmonitor.codec.GoldBinaryCodec;
+import com.goldmonitor.codec.GoldBinaryDecoder;
+import com.goldmonitor.history.PriceHistorySlice;
+import com.goldmonitor.model.Candle;
+import com.goldmonitor.model.GoldPrice;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON 与二进制线格式的编解码耗时
+ * 三种消息：单个 tick（与 /topic/gold-price 的帧相同）、200 根 1 分钟K线、1000 个 tick 的历史数据页
+ * （JSON 与 /gold/history 的 data 相同）。JSON 解码为 Jackson 反序列化 / 树模型，
+ * 二进制解码为 flyweight 读取全部字段。每种消息的字节数在 setUp 中输出
+ *
+ * 运行：java -jar target/benchmarks.jar WireFormatBenchmark -prof gc
+ *
+ * @author Gold Monitor Team
+ * @version 1.0.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class WireFormatBenchmark {
+
+    private static final int CANDLES = 200;
+    private static final int HISTORY = 1000;
+
+    private ObjectMapper objectMapper;
+    private GoldBinaryCodec codec;
+    private final GoldBinaryDecoder decoder = new GoldBinaryDecoder();
+
+    private GoldPrice goldPrice;
+    private final long timestamp = 1_698_765_431_000L;
+    private List<Candle> candles;
+    private PriceHistorySlice history;
+
+    private byte[] jsonTick;
+    private byte[] binaryTick;
+    private byte[] jsonCandles;
+    private byte[] binaryCandles;
+    private byte[] jsonHistory;
+    private byte[] binaryHistory;
+
+    @Setup
+    public void setUp() throws Exception {
+        objectMapper = BenchmarkFixtures.objectMapper();
+        codec = new GoldBinaryCodec();
+        goldPrice = BenchmarkFixtures.goldPrice();
+
+        candles = new ArrayList<>(CANDLES);
+        long price = 2_050_300_000L;
+        for (int i = 0; i < CANDLES; i++) {
+            long open = price + (i % 7) * 100_000L;
+            long close = open + ((i & 1) == 0 ? 350_000L : -250_000L);
+            candles.add(Candle.builder()
+                    .resolution("1m")
+                    .openTime(timestamp + i * 60_000L)
+                    .closeTime(timestamp + (i + 1) * 60_000L)
+                    .open(open)
+                    .high(Math.max(open, close) + 120_000L)
+                    .low(Math.min(open, close) - 80_000L)
+                    .close(close)
+                    .count(2)
+                    .closed(i < CANDLES - 1)
+                    .build());
+        }
+
+        long[] timestamps = new long[HISTORY];
+        long[] prices = new long[HISTORY];
+        for (int i = 0; i < HISTORY; i++) {
+            timestamps[i] = timestamp + i * 30_000L;
+            prices[i] = price + (i % 13) * 10_000L;
+        }
+        history = new PriceHistorySlice(timestamps, prices);
+
+        jsonTick = encodeJsonTick();
+        binaryTick = encodeBinaryTick();
+        jsonCandles = encodeJsonCandles();
+        binaryCandles = encodeBinaryCandles();
+        jsonHistory = encodeJsonHistory();
+        binaryHistory = encodeBinaryHistory();
+        System.out.printf("%nbytes per message: tick json=%d binary=%d, %d candles json=%d binary=%d, "
+                        + "%d history ticks json=%d binary=%d%n",
+                jsonTick.length, binaryTick.length, CANDLES, jsonCandles.length, binaryCandles.length,
+                HISTORY, jsonHistory.length, binaryHistory.length);
+    }
+
+    // ---- tick ----
+
+    @Benchmark
+    public byte[] encodeJsonTick() throws Exception {
+        return objectMapper.writeValueAsBytes(goldPrice);
+    }
+
+    @Benchmark
+    public byte[] encodeBinaryTick() {
+        return codec.encodeTick(goldPrice, timestamp);
+    }
+
+    @Benchmark
+    public long decodeJsonTick() throws Exception {
+        GoldPrice decoded = objectMapper.readValue(jsonTick, GoldPrice.class);
+        return decoded.getPrice() + decoded.getChange() + decoded.getChangePercent() + decoded.getAgeMillis()
+                + decoded.getCurrency().ordinal() + decoded.getMarketStatus().length();
+    }
+
+    @Benchmark
+    public long decodeBinaryTick() {
+        GoldBinaryDecoder tick = decoder.wrap(binaryTick);
+        return tick.timestamp() + tick.price() + tick.change() + tick.changePercent() + tick.ageMillis()
+                + tick.currencyChar(0) + tick.marketStatus() + (tick.stale() ? 1 : 0);
+    }
+
+    // ---- 200 根K线 ----
+
+    @Benchmark
+    public byte[] encodeJsonCandles() throws Exception {
+        return objectMapper.writeValueAsBytes(candles);
+    }
+
+    @Benchmark
+    public byte[] encodeBinaryCandles() {
+        return codec.encodeCandles(candles);
+    }
+
+    @Benchmark
+    public long decodeJsonCandles() throws Exception {
+        Candle[] decoded = objectMapper.readValue(jsonCandles, Candle[].class);
+        long sum = 0;
+        for (Candle candle : decoded) {
+            sum += candle.getOpenTime() + candle.getClose() + candle.getHigh() + candle.getLow() + candle.getCount();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long decodeBinaryCandles() {
+        GoldBinaryDecoder page = decoder.wrap(binaryCandles);
+        long sum = 0;
+        for (int i = 0; i < page.count(); i++) {
+            sum += page.candleOpenTime(i) + page.candleClose(i) + page.candleHigh(i) + page.candleLow(i)
+                    + page.candleCount(i);
+        }
+        return sum;
+    }
+
+    // ---- 1000 个 tick 的历史数据页 ----
+
+    @Benchmark
+    public byte[] encodeJsonHistory() throws Exception {
+        Map<String, Object> data = new HashMap<>();
+        data.put("count", history.size());
+        data.put("timestamps", history.getTimestamps());
+        data.put("prices", history.getPriceValues());
+        return objectMapper.writeValueAsBytes(data);
+    }
+
+    @Benchmark
+    public byte[] encodeBinaryHistory() {
+        return codec.encodeHistory(history);
+    }
+
+    @Benchmark
+    public double decodeJsonHistory() throws Exception {
+        JsonNode data = objectMapper.readTree(jsonHistory);
+        JsonNode timestamps = data.get("timestamps");
+        JsonNode prices = data.get("prices");
+        double sum = 0;
+        for (int i = 0; i < timestamps.size(); i++) {
+            sum += timestamps.get(i).longValue() + prices.get(i).doubleValue();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long decodeBinaryHistory() {
+        GoldBinaryDecoder page = decoder.wrap(binaryHistory);
+        long sum = 0;
+        for (int i = 0; i < page.count(); i++) {
+            sum += page.historyTimestamp(i) + page.historyPrice(i);
+        }
+        return sum;
+    }
+}
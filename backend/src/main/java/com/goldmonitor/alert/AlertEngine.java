@@ -0,0 +1,215 @@
+package com.goldmonitor.alert;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 价格提醒引擎
+ * 向上和向下阈值各保存在一个有序索引中。每个 tick 只查询上一价格与当前价格之间的区间：
+ * 价格上涨时查询向上索引中 (上一价格, 当前价格]，下跌时查询向下索引中 [当前价格, 上一价格)，
+ * 因此一次评估的代价是一次二分查找加上实际触发的规则数，与注册的规则总数无关
+ *
+ * 规则触发一次后失效；所有方法在引擎上加锁
+ *
+ * @author Gold Monitor Team
+ * @version 1.0.0
+ */
+public class AlertEngine {
+
+    private final ThresholdIndex upIndex = new ThresholdIndex();
+    private final ThresholdIndex downIndex = new ThresholdIndex();
+
+    private final Map<Long, AlertRule> rulesById = new HashMap<>();
+    private final Map<String, Map<Long, AlertRule>> rulesByUser = new HashMap<>();
+
+    private final int maxRulesPerUser;
+    private final int maxRules;
+
+    private long nextId = 1;
+
+    /**
+     * 上一次评估的价格（微单位），0 表示尚未评估
+     */
+    private long lastPrice;
+
+    /**
+     * @param maxRulesPerUser 每个用户最多的规则数
+     * @param maxRules 全部用户合计最多的规则数
+     */
+    public AlertEngine(int maxRulesPerUser, int maxRules) {
+        this.maxRulesPerUser = maxRulesPerUser;
+        this.maxRules = maxRules;
+    }
+
+    /**
+     * 注册提醒规则
+     *
+     * @param userId 接收提醒的用户
+     * @param type 提醒类型
+     * @param value ABOVE / BELOW 为阈值价格，PERCENT 为百分比，均为微单位
+     * @param referencePrice 当前价格（微单位），PERCENT 类型据此换算阈值
+     * @param timestamp 注册时间（epoch 毫秒）
+     * @return 注册的规则
+     * @throws IllegalArgumentException 参数无效
+     * @throws IllegalStateException 用户或全局规则数已达上限，或 PERCENT 类型缺少当前价格
+     */
+    public synchronized AlertRule register(String userId, AlertType type, long value, long referencePrice,
+                                           long timestamp) {
+        if (userId == null || userId.isEmpty()) {
+            throw new IllegalArgumentException("用户不能为空");
+        }
+        if (value <= 0) {
+            throw new IllegalArgumentException("阈值必须大于 0");
+        }
+        Map<Long, AlertRule> userRules = rulesByUser.get(userId);
+        if (userRules != null && userRules.size() >= maxRulesPerUser) {
+            throw new IllegalStateException("提醒规则数已达上限: " + maxRulesPerUser);
+        }
+        if (rulesById.size() >= maxRules) {
+            throw new IllegalStateException("服务端提醒规则总数已达上限: " + maxRules);
+        }
+
+        long up = AlertRule.NONE;
+        long down = AlertRule.NONE;
+        long percent = 0;
+        switch (type) {
+            case ABOVE:
+                up = value;
+                break;
+            case BELOW:
+                down = value;
+                break;
+            case PERCENT:
+                if (referencePrice <= 0) {
+                    throw new IllegalStateException("暂无当前价格，无法注册百分比提醒");
+                }
+                percent = value;
+                long delta = Math.round((double) referencePrice * value / (100.0 * 1_000_000L));
+                up = referencePrice + Math.max(delta, 1);
+                down = Math.max(referencePrice - Math.max(delta, 1), 1);
+                break;
+            default:
+                throw new IllegalArgumentException("不支持的提醒类型: " + type);
+        }
+
+        AlertRule rule = new AlertRule(nextId++, userId, type, up, down, percent, timestamp);
+        if (up != AlertRule.NONE) {
+            upIndex.add(up, rule);
+        }
+        if (down != AlertRule.NONE) {
+            downIndex.add(down, rule);
+        }
+        rulesById.put(rule.getId(), rule);
+        if (userRules == null) {
+            userRules = new LinkedHashMap<>();
+            rulesByUser.put(userId, userRules);
+        }
+        userRules.put(rule.getId(), rule);
+        return rule;
+    }
+
+    /**
+     * 按当前价格评估所有规则
+     *
+     * @param price 当前价格（微单位）
+     * @param triggered 输出，本次触发的规则
+     * @return 触发的规则数
+     */
+    public synchronized int evaluate(long price, List<AlertRule> triggered) {
+        long previous = lastPrice;
+        lastPrice = price;
+        if (previous <= 0 || price <= 0 || price == previous) {
+            return 0;
+        }
+        int start = triggered.size();
+        int count = price > previous
+                ? upIndex.collect(previous + 1, price, triggered)
+                : downIndex.collect(price, previous - 1, triggered);
+        for (int i = start; i < start + count; i++) {
+            forget(triggered.get(i));
+        }
+        return count;
+    }
+
+    /**
+     * 删除规则
+     *
+     * @param userId 规则所属用户，为 null 时不校验
+     * @return 是否删除
+     */
+    public synchronized boolean remove(long ruleId, String userId) {
+        AlertRule rule = rulesById.get(ruleId);
+        if (rule == null || (userId != null && !userId.equals(rule.getUserId()))) {
+            return false;
+        }
+        if (rule.deactivate()) {
+            forget(rule);
+        }
+        maintain();
+        return true;
+    }
+
+    /**
+     * 删除用户的全部规则
+     *
+     * @return 删除的规则数
+     */
+    public synchronized int removeUser(String userId) {
+        Map<Long, AlertRule> userRules = rulesByUser.get(userId);
+        if (userRules == null) {
+            return 0;
+        }
+        List<AlertRule> removed = new ArrayList<>(userRules.values());
+        for (AlertRule rule : removed) {
+            if (rule.deactivate()) {
+                forget(rule);
+            }
+        }
+        maintain();
+        return removed.size();
+    }
+
+    /**
+     * 用户当前有效的规则
+     */
+    public synchronized List<AlertRule> rulesOf(String userId) {
+        Map<Long, AlertRule> userRules = rulesByUser.get(userId);
+        return userRules == null ? Collections.emptyList() : new ArrayList<>(userRules.values());
+    }
+
+    /**
+     * 有效规则总数
+     */
+    public synchronized int size() {
+        return rulesById.size();
+    }
+
+    /**
+     * 整理索引中的失效条目；评估路径不做整理，由注册、删除和定期维护调用
+     */
+    public synchronized void maintain() {
+        upIndex.maintain();
+        downIndex.maintain();
+    }
+
+    private void forget(AlertRule rule) {
+        rulesById.remove(rule.getId());
+        Map<Long, AlertRule> userRules = rulesByUser.get(rule.getUserId());
+        if (userRules != null) {
+            userRules.remove(rule.getId());
+            if (userRules.isEmpty()) {
+                rulesByUser.remove(rule.getUserId());
+            }
+        }
+        if (rule.getUpThreshold() != AlertRule.NONE) {
+            upIndex.markStale();
+        }
+        if (rule.getDownThreshold() != AlertRule.NONE) {
+            downIndex.markStale();
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.goldmonitor.alert;
+
+import lombok.Getter;
+
+/**
+ * 价格提醒规则
+ * 阈值在注册时换算为绝对价格（微单位）：ABOVE 只有向上阈值，BELOW 只有向下阈值，
+ * PERCENT 按注册时价格同时生成向上和向下两个阈值；规则触发一次后失效
+ *
+ * @author Gold Monitor Team
+ * @version 1.0.0
+ */
+@Getter
+public class AlertRule {
+
+    /**
+     * 无阈值
+     */
+    public static final long NONE = -1;
+
+    private final long id;
+    private final String userId;
+    private final AlertType type;
+
+    /**
+     * 向上穿越阈值（微单位），NONE 表示没有
+     */
+    private final long upThreshold;
+
+    /**
+     * 向下穿越阈值（微单位），NONE 表示没有
+     */
+    private final long downThreshold;
+
+    /**
+     * 百分比（微单位），仅 PERCENT 类型
+     */
+    private final long percent;
+
+    private final long createdAt;
+
+    private volatile boolean active = true;
+
+    AlertRule(long id, String userId, AlertType type, long upThreshold, long downThreshold, long percent,
+              long createdAt) {
+        this.id = id;
+        this.userId = userId;
+        this.type = type;
+        this.upThreshold = upThreshold;
+        this.downThreshold = downThreshold;
+        this.percent = percent;
+        this.createdAt = createdAt;
+    }
+
+    /**
+     * 使规则失效
+     *
+     * @return 调用前是否有效
+     */
+    boolean deactivate() {
+        boolean wasActive = active;
+        active = false;
+        return wasActive;
+    }
+}
@@ -0,0 +1,41 @@
+package com.goldmonitor.alert;
+
+/**
+ * 价格提醒类型
+ *
+ * @author Gold Monitor Team
+ * @version 1.0.0
+ */
+public enum AlertType {
+
+    /**
+     * 价格向上穿越阈值
+     */
+    ABOVE,
+
+    /**
+     * 价格向下穿越阈值
+     */
+    BELOW,
+
+    /**
+     * 相对注册时价格的涨跌幅达到指定百分比（任一方向）
+     */
+    PERCENT;
+
+    private static final AlertType[] VALUES = values();
+
+    /**
+     * 按名称查找，不区分大小写
+     *
+     * @throws IllegalArgumentException 不支持的类型
+     */
+    public static AlertType fromName(String name) {
+        for (AlertType type : VALUES) {
+            if (type.name().equalsIgnoreCase(name)) {
+                return type;
+            }
+        }
+        throw new IllegalArgumentException("不支持的提醒类型: " + name);
+    }
+}
@@ -0,0 +1,145 @@
+package com.goldmonitor.alert;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 单方向的阈值索引
+ * 阈值（微单位）按升序保存在 long 数组中，对应规则保存在平行数组中；
+ * 查询一个价格区间只需二分查找区间起点，再顺序扫描到终点，与规则总数无关
+ *
+ * 新规则先按序插入一个较小的待合并区，待合并区满后与主数组做一次线性归并，
+ * 避免每次注册都移动整个主数组；失效的规则在归并或整理时丢弃
+ *
+ * 非线程安全，由 {@link AlertEngine} 加锁访问
+ *
+ * @author Gold Monitor Team
+ * @version 1.0.0
+ */
+class ThresholdIndex {
+
+    /**
+     * 待合并区容量
+     */
+    static final int PENDING_CAPACITY = 4096;
+
+    private long[] thresholds = new long[64];
+    private AlertRule[] rules = new AlertRule[64];
+    private int size;
+
+    private final long[] pendingThresholds = new long[PENDING_CAPACITY];
+    private final AlertRule[] pendingRules = new AlertRule[PENDING_CAPACITY];
+    private int pendingSize;
+
+    /**
+     * 已失效但仍留在数组中的条目数
+     */
+    private int stale;
+
+    void add(long threshold, AlertRule rule) {
+        if (pendingSize == PENDING_CAPACITY) {
+            merge();
+        }
+        int index = lowerBound(pendingThresholds, pendingSize, threshold);
+        System.arraycopy(pendingThresholds, index, pendingThresholds, index + 1, pendingSize - index);
+        System.arraycopy(pendingRules, index, pendingRules, index + 1, pendingSize - index);
+        pendingThresholds[index] = threshold;
+        pendingRules[index] = rule;
+        pendingSize++;
+    }
+
+    /**
+     * 收集阈值落在闭区间 [low, high] 内的有效规则，并使其失效
+     *
+     * @param out 输出
+     * @return 收集到的规则数
+     */
+    int collect(long low, long high, List<AlertRule> out) {
+        return collect(thresholds, rules, size, low, high, out)
+                + collect(pendingThresholds, pendingRules, pendingSize, low, high, out);
+    }
+
+    private static int collect(long[] keys, AlertRule[] values, int length, long low, long high,
+                               List<AlertRule> out) {
+        int count = 0;
+        for (int i = lowerBound(keys, length, low); i < length && keys[i] <= high; i++) {
+            AlertRule rule = values[i];
+            if (rule.deactivate()) {
+                out.add(rule);
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * 记录一个条目已在外部失效
+     */
+    void markStale() {
+        stale++;
+    }
+
+    /**
+     * 失效条目超过一半时整理主数组
+     */
+    void maintain() {
+        if (stale > 0 && stale * 2 >= size + pendingSize) {
+            merge();
+        }
+    }
+
+    /**
+     * 把待合并区归并进主数组，同时丢弃失效条目
+     */
+    void merge() {
+        int capacity = thresholds.length;
+        while (capacity < size + pendingSize) {
+            capacity <<= 1;
+        }
+        long[] mergedThresholds = new long[capacity];
+        AlertRule[] mergedRules = new AlertRule[capacity];
+        int i = 0;
+        int j = 0;
+        int n = 0;
+        while (i < size || j < pendingSize) {
+            boolean takeMain = j == pendingSize || (i < size && thresholds[i] <= pendingThresholds[j]);
+            long threshold = takeMain ? thresholds[i] : pendingThresholds[j];
+            AlertRule rule = takeMain ? rules[i++] : pendingRules[j++];
+            if (rule.isActive()) {
+                mergedThresholds[n] = threshold;
+                mergedRules[n] = rule;
+                n++;
+            }
+        }
+        thresholds = mergedThresholds;
+        rules = mergedRules;
+        size = n;
+        Arrays.fill(pendingRules, 0, pendingSize, null);
+        pendingSize = 0;
+        stale = 0;
+    }
+
+    /**
+     * 索引中的条目数（含尚未清理的失效条目）
+     */
+    int size() {
+        return size + pendingSize;
+    }
+
+    /**
+     * 第一个不小于 key 的位置
+     */
+    private static int lowerBound(long[] keys, int length, long key) {
+        int low = 0;
+        int high = length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (keys[mid] < key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
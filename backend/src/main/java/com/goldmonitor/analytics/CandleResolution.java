@@ -0,0 +1,54 @@
+package com.goldmonitor.analytics;
+
+/**
+ * K线周期
+ *
+ * @author Gold Monitor Team
+ * @version 1.0.0
+ */
+public enum CandleResolution {
+
+    M1("1m", 60_000L),
+    M5("5m", 5 * 60_000L),
+    M15("15m", 15 * 60_000L),
+    H1("1h", 60 * 60_000L),
+    D1("1d", 24 * 60 * 60_000L);
+
+    private final String key;
+    private final long millis;
+
+    CandleResolution(String key, long millis) {
+        this.key = key;
+        this.millis = millis;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public long getMillis() {
+        return millis;
+    }
+
+    /**
+     * 计算时间戳所在周期的起始时间（按 UTC 对齐）
+     */
+    public long bucketStart(long timestamp) {
+        return timestamp - Math.floorMod(timestamp, millis);
+    }
+
+    /**
+     * 根据周期标识查找，例如 "1m"、"1h"
+     *
+     * @param key 周期标识
+     * @return K线周期，不存在时返回 null
+     */
+    public static CandleResolution fromKey(String key) {
+        for (CandleResolution resolution : values()) {
+            if (resolution.key.equalsIgnoreCase(key)) {
+                return resolution;
+            }
+        }
+        return null;
+    }
+}
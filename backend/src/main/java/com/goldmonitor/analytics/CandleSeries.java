@@ -0,0 +1,146 @@
+package com.goldmonitor.analytics;
+
+import com.goldmonitor.model.Candle;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 单一周期的K线序列
+ * 当前K线和已完成K线都以原始类型数组保存，每个 tick 的更新为 O(1) 且不分配对象
+ *
+ * @author Gold Monitor Team
+ * @version 1.0.0
+ */
+public class CandleSeries {
+
+    private final CandleResolution resolution;
+    private final int capacity;
+
+    // 已完成K线（环形存储）
+    private final long[] openTimes;
+    private final long[] opens;
+    private final long[] highs;
+    private final long[] lows;
+    private final long[] closes;
+    private final int[] counts;
+    private long completed;
+
+    // 当前K线
+    private long currentOpenTime = Long.MIN_VALUE;
+    private long currentOpen;
+    private long currentHigh;
+    private long currentLow;
+    private long currentClose;
+    private int currentCount;
+
+    public CandleSeries(CandleResolution resolution, int capacity) {
+        this.resolution = resolution;
+        this.capacity = capacity;
+        this.openTimes = new long[capacity];
+        this.opens = new long[capacity];
+        this.highs = new long[capacity];
+        this.lows = new long[capacity];
+        this.closes = new long[capacity];
+        this.counts = new int[capacity];
+    }
+
+    public CandleResolution getResolution() {
+        return resolution;
+    }
+
+    /**
+     * 用一个 tick 更新K线
+     * 早于当前K线周期的 tick 计入当前K线
+     *
+     * @param timestamp epoch 毫秒
+     * @param price 定点价格
+     * @return 该 tick 是否使上一根K线完成
+     */
+    public synchronized boolean update(long timestamp, long price) {
+        long bucket = resolution.bucketStart(timestamp);
+        boolean closed = false;
+        if (bucket > currentOpenTime) {
+            if (currentCount > 0) {
+                int index = (int) (completed % capacity);
+                openTimes[index] = currentOpenTime;
+                opens[index] = currentOpen;
+                highs[index] = currentHigh;
+                lows[index] = currentLow;
+                closes[index] = currentClose;
+                counts[index] = currentCount;
+                completed++;
+                closed = true;
+            }
+            currentOpenTime = bucket;
+            currentOpen = price;
+            currentHigh = price;
+            currentLow = price;
+            currentCount = 0;
+        }
+        if (price > currentHigh) {
+            currentHigh = price;
+        }
+        if (price < currentLow) {
+            currentLow = price;
+        }
+        currentClose = price;
+        currentCount++;
+        return closed;
+    }
+
+    /**
+     * 获取最近完成的一根K线
+     *
+     * @return K线，尚无完成的K线时返回 null
+     */
+    public synchronized Candle getLastCompleted() {
+        if (completed == 0) {
+            return null;
+        }
+        return completedAt((int) ((completed - 1) % capacity));
+    }
+
+    /**
+     * 获取最近的K线，按时间升序排列，最后一根为尚未完成的当前K线
+     *
+     * @param limit 最大返回数量
+     * @return K线列表
+     */
+    public synchronized List<Candle> getCandles(int limit) {
+        int available = (int) Math.min(completed, capacity);
+        int includeCurrent = currentCount > 0 ? 1 : 0;
+        int total = Math.min(limit, available + includeCurrent);
+        int fromCompleted = total - includeCurrent;
+
+        List<Candle> candles = new ArrayList<>(total);
+        for (long i = completed - fromCompleted; i < completed; i++) {
+            candles.add(completedAt((int) (i % capacity)));
+        }
+        if (includeCurrent > 0 && total > 0) {
+            candles.add(toCandle(currentOpenTime, currentOpen, currentHigh, currentLow, currentClose,
+                    currentCount, false));
+        }
+        return candles;
+    }
+
+    private Candle completedAt(int index) {
+        return toCandle(openTimes[index], opens[index], highs[index], lows[index], closes[index],
+                counts[index], true);
+    }
+
+    private Candle toCandle(long openTime, long open, long high, long low, long close, int count,
+                            boolean closed) {
+        return Candle.builder()
+                .resolution(resolution.getKey())
+                .openTime(openTime)
+                .closeTime(openTime + resolution.getMillis())
+                .open(open)
+                .high(high)
+                .low(low)
+                .close(close)
+                .count(count)
+                .closed(closed)
+                .build();
+    }
+}
@@ -0,0 +1,307 @@
+package com.goldmonitor.analytics;
+
+/**
+ * 增量技术指标引擎
+ * 每个 tick 对每个指标做常数次运算，不回扫历史数据、不分配对象：
+ * <ul>
+ *     <li>SMA / 标准差 / 布林带：每个窗口一个 long 环形数组，维护精确的滑动和；方差用滑动 Welford 算法（总体标准差）</li>
+ *     <li>EMA：以前 n 个 tick 的 SMA 为初值，之后按 2/(n+1) 平滑</li>
+ *     <li>RSI：Wilder 平滑的平均涨幅 / 跌幅，以前 n 次变化的简单平均为初值</li>
+ * </ul>
+ * 输入和输出都是微单位定点值；窗口尚未填满（预热中）的指标返回 {@link #NONE}
+ *
+ * 非线程安全，由调用方同步
+ *
+ * @author Gold Monitor Team
+ * @version 1.0.0
+ */
+public class IndicatorEngine {
+
+    /**
+     * 指标尚未就绪
+     */
+    public static final long NONE = Long.MIN_VALUE;
+
+    private static final double RSI_SCALE = 100.0 * 1_000_000;
+
+    private final int[] windows;
+    private final int[] emaPeriods;
+    private final int[] rsiPeriods;
+    private final double bandWidth;
+
+    private final RollingWindow[] rollingWindows;
+    private final ExponentialAverage[] averages;
+    private final RelativeStrength[] strengths;
+
+    private long ticks;
+    private long lastTimestamp;
+    private long lastPrice;
+
+    /**
+     * @param windows SMA / 标准差 / 布林带的窗口（tick 数）
+     * @param emaPeriods EMA 周期（tick 数）
+     * @param rsiPeriods RSI 周期（tick 数）
+     * @param bandWidth 布林带宽度（标准差的倍数）
+     */
+    public IndicatorEngine(int[] windows, int[] emaPeriods, int[] rsiPeriods, double bandWidth) {
+        this.windows = windows.clone();
+        this.emaPeriods = emaPeriods.clone();
+        this.rsiPeriods = rsiPeriods.clone();
+        this.bandWidth = bandWidth;
+
+        this.rollingWindows = new RollingWindow[windows.length];
+        for (int i = 0; i < windows.length; i++) {
+            rollingWindows[i] = new RollingWindow(requirePositive(windows[i]));
+        }
+        this.averages = new ExponentialAverage[emaPeriods.length];
+        for (int i = 0; i < emaPeriods.length; i++) {
+            averages[i] = new ExponentialAverage(requirePositive(emaPeriods[i]));
+        }
+        this.strengths = new RelativeStrength[rsiPeriods.length];
+        for (int i = 0; i < rsiPeriods.length; i++) {
+            strengths[i] = new RelativeStrength(requirePositive(rsiPeriods[i]));
+        }
+    }
+
+    private static int requirePositive(int period) {
+        if (period <= 0) {
+            throw new IllegalArgumentException("指标周期必须大于0: " + period);
+        }
+        return period;
+    }
+
+    /**
+     * 输入一个 tick
+     *
+     * @param timestamp epoch 毫秒
+     * @param price 定点价格
+     */
+    public void update(long timestamp, long price) {
+        for (RollingWindow window : rollingWindows) {
+            window.add(price);
+        }
+        for (ExponentialAverage average : averages) {
+            average.add(price);
+        }
+        for (RelativeStrength strength : strengths) {
+            strength.add(price);
+        }
+        ticks++;
+        lastTimestamp = timestamp;
+        lastPrice = price;
+    }
+
+    public long getTicks() {
+        return ticks;
+    }
+
+    public long getLastTimestamp() {
+        return lastTimestamp;
+    }
+
+    public long getLastPrice() {
+        return lastPrice;
+    }
+
+    public int windowCount() {
+        return windows.length;
+    }
+
+    public int window(int index) {
+        return windows[index];
+    }
+
+    public int emaCount() {
+        return emaPeriods.length;
+    }
+
+    public int emaPeriod(int index) {
+        return emaPeriods[index];
+    }
+
+    public int rsiCount() {
+        return rsiPeriods.length;
+    }
+
+    public int rsiPeriod(int index) {
+        return rsiPeriods[index];
+    }
+
+    /**
+     * 第 index 个窗口的简单移动平均
+     */
+    public long sma(int index) {
+        RollingWindow window = rollingWindows[index];
+        return window.isFull() ? Math.round(window.mean()) : NONE;
+    }
+
+    /**
+     * 第 index 个窗口的总体标准差
+     */
+    public long stddev(int index) {
+        RollingWindow window = rollingWindows[index];
+        return window.isFull() ? Math.round(window.stddev()) : NONE;
+    }
+
+    /**
+     * 第 index 个窗口的布林带上轨
+     */
+    public long upperBand(int index) {
+        RollingWindow window = rollingWindows[index];
+        return window.isFull() ? Math.round(window.mean() + bandWidth * window.stddev()) : NONE;
+    }
+
+    /**
+     * 第 index 个窗口的布林带下轨
+     */
+    public long lowerBand(int index) {
+        RollingWindow window = rollingWindows[index];
+        return window.isFull() ? Math.round(window.mean() - bandWidth * window.stddev()) : NONE;
+    }
+
+    /**
+     * 第 index 个周期的指数移动平均
+     */
+    public long ema(int index) {
+        ExponentialAverage average = averages[index];
+        return average.isReady() ? Math.round(average.value) : NONE;
+    }
+
+    /**
+     * 第 index 个周期的 RSI（0~100，微单位）
+     */
+    public long rsi(int index) {
+        RelativeStrength strength = strengths[index];
+        return strength.isReady() ? Math.round(strength.value() * RSI_SCALE) : NONE;
+    }
+
+    /**
+     * 最近 n 个 tick 的滑动窗口
+     * 价格和为精确的 long；平方偏差和（M2）用滑动 Welford 更新，避免对大数求平方和相减带来的精度损失
+     */
+    private static final class RollingWindow {
+
+        private final long[] values;
+        private int size;
+        private int next;
+        private long sum;
+        private double m2;
+
+        RollingWindow(int length) {
+            this.values = new long[length];
+        }
+
+        void add(long price) {
+            double oldMean = mean();
+            if (size < values.length) {
+                values[next] = price;
+                size++;
+                sum += price;
+                m2 += (price - oldMean) * (price - mean());
+            } else {
+                long removed = values[next];
+                values[next] = price;
+                sum += price - removed;
+                m2 += (double) (price - removed) * (price - mean() + removed - oldMean);
+            }
+            if (m2 < 0) {
+                m2 = 0;
+            }
+            next = next + 1 == values.length ? 0 : next + 1;
+        }
+
+        boolean isFull() {
+            return size == values.length;
+        }
+
+        double mean() {
+            return size == 0 ? 0 : (double) sum / size;
+        }
+
+        double stddev() {
+            return size == 0 ? 0 : Math.sqrt(m2 / size);
+        }
+    }
+
+    /**
+     * 指数移动平均，以前 n 个 tick 的 SMA 为初值
+     */
+    private static final class ExponentialAverage {
+
+        private final int period;
+        private final double alpha;
+        private int count;
+        private long seedSum;
+        private double value;
+
+        ExponentialAverage(int period) {
+            this.period = period;
+            this.alpha = 2.0 / (period + 1);
+        }
+
+        void add(long price) {
+            if (count < period) {
+                seedSum += price;
+                count++;
+                if (count == period) {
+                    value = (double) seedSum / period;
+                }
+            } else {
+                value += alpha * (price - value);
+            }
+        }
+
+        boolean isReady() {
+            return count >= period;
+        }
+    }
+
+    /**
+     * Wilder RSI：平均涨幅 / 平均跌幅，以前 n 次变化的简单平均为初值
+     */
+    private static final class RelativeStrength {
+
+        private final int period;
+        private boolean hasPrevious;
+        private long previous;
+        private int changes;
+        private double averageGain;
+        private double averageLoss;
+
+        RelativeStrength(int period) {
+            this.period = period;
+        }
+
+        void add(long price) {
+            if (!hasPrevious) {
+                hasPrevious = true;
+                previous = price;
+                return;
+            }
+            long change = price - previous;
+            previous = price;
+            double gain = change > 0 ? change : 0;
+            double loss = change < 0 ? -change : 0;
+            if (changes < period) {
+                changes++;
+                averageGain += (gain - averageGain) / changes;
+                averageLoss += (loss - averageLoss) / changes;
+            } else {
+                averageGain = (averageGain * (period - 1) + gain) / period;
+                averageLoss = (averageLoss * (period - 1) + loss) / period;
+            }
+        }
+
+        boolean isReady() {
+            return changes >= period;
+        }
+
+        /**
+         * @return RSI / 100（0~1）；价格没有变化时为 0.5
+         */
+        double value() {
+            double total = averageGain + averageLoss;
+            return total == 0 ? 0.5 : averageGain / total;
+        }
+    }
+}
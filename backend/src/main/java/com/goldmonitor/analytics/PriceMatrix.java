@@ -0,0 +1,198 @@
+package com.goldmonitor.analytics;
+
+import com.goldmonitor.model.CurrencyCode;
+import com.goldmonitor.model.FixedPrice;
+import com.goldmonitor.model.Metal;
+import com.goldmonitor.model.MetalQuote;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 贵金属 × 货币价格矩阵
+ * 每个单元格（例如 XAG/EUR）的价格、变化、前收盘价保存在按 金属 × 货币 下标排列的平行 long 数组中，
+ * 数组在创建时按全部金属和货币一次分配，之后更新不再分配内存
+ *
+ * 上游没有直接给出的单元格通过交叉汇率在本地推导：
+ * 货币 C 只有黄金报价时，XAG/C = XAG/P × XAU/C ÷ XAU/P，其中 P 为同一批次中金银报价都有的货币
+ *
+ * @author Gold Monitor Team
+ * @version 1.0.0
+ */
+public class PriceMatrix {
+
+    private static final Metal[] METALS = Metal.values();
+    private static final CurrencyCode[] CURRENCIES = CurrencyCode.values();
+
+    /**
+     * 单元格状态：无数据
+     */
+    public static final byte EMPTY = 0;
+
+    /**
+     * 单元格状态：上游直接报价
+     */
+    public static final byte DIRECT = 1;
+
+    /**
+     * 单元格状态：本地交叉推导
+     */
+    public static final byte DERIVED = 2;
+
+    private final long[] prices = new long[METALS.length * CURRENCIES.length];
+    private final long[] changes = new long[prices.length];
+    private final long[] changePercents = new long[prices.length];
+    private final long[] closes = new long[prices.length];
+    private final long[] updatedAt = new long[prices.length];
+    private final long[] versions = new long[prices.length];
+    private final byte[] states = new byte[prices.length];
+
+    /**
+     * 本批次是否直接报价（更新时复用）
+     */
+    private final boolean[] quoted = new boolean[prices.length];
+
+    private long version;
+
+    /**
+     * 单元格下标
+     */
+    public static int cell(Metal metal, CurrencyCode currency) {
+        return metal.ordinal() * CURRENCIES.length + currency.ordinal();
+    }
+
+    public static int cellCount() {
+        return METALS.length * CURRENCIES.length;
+    }
+
+    public static Metal metalOf(int cell) {
+        return METALS[cell / CURRENCIES.length];
+    }
+
+    public static CurrencyCode currencyOf(int cell) {
+        return CURRENCIES[cell % CURRENCIES.length];
+    }
+
+    /**
+     * 用一次上游请求返回的报价更新矩阵，并推导缺失的单元格
+     *
+     * @param quotes 各货币报价
+     * @param timestamp 更新时间（epoch 毫秒）
+     */
+    public synchronized void update(List<MetalQuote> quotes, long timestamp) {
+        Arrays.fill(quoted, false);
+        MetalQuote pivot = null;
+        for (MetalQuote quote : quotes) {
+            if (quote.getCurrency() == null) {
+                continue;
+            }
+            if (quote.getXauPrice() > 0) {
+                set(cell(Metal.XAU, quote.getCurrency()), quote.getXauPrice(), quote.getXauChange(),
+                        quote.getXauChangePercent(), quote.getXauClose(), DIRECT, timestamp);
+            }
+            if (quote.getXagPrice() > 0) {
+                set(cell(Metal.XAG, quote.getCurrency()), quote.getXagPrice(), quote.getXagChange(),
+                        quote.getXagChangePercent(), quote.getXagClose(), DIRECT, timestamp);
+            }
+            if (pivot == null && quote.getXauPrice() > 0 && quote.getXagPrice() > 0) {
+                pivot = quote;
+            }
+        }
+        if (pivot != null) {
+            deriveMissing(pivot, timestamp);
+        }
+    }
+
+    private void deriveMissing(MetalQuote pivot, long timestamp) {
+        for (CurrencyCode currency : CURRENCIES) {
+            int gold = cell(Metal.XAU, currency);
+            int silver = cell(Metal.XAG, currency);
+            if (quoted[gold] && !quoted[silver]) {
+                deriveCell(silver, pivot.getXagPrice(), pivot.getXagClose(),
+                        prices[gold], closes[gold], pivot.getXauPrice(), pivot.getXauClose(), timestamp);
+            } else if (quoted[silver] && !quoted[gold]) {
+                deriveCell(gold, pivot.getXauPrice(), pivot.getXauClose(),
+                        prices[silver], closes[silver], pivot.getXagPrice(), pivot.getXagClose(), timestamp);
+            }
+        }
+    }
+
+    /**
+     * target = pivotPrice × quotedPrice ÷ pivotReference，前收盘价同理，变化由价格和前收盘价重新计算
+     */
+    private void deriveCell(int target, long pivotPrice, long pivotClose,
+                            long quotedPrice, long quotedClose, long pivotReference, long pivotReferenceClose,
+                            long timestamp) {
+        long price = cross(pivotPrice, quotedPrice, pivotReference);
+        long close = cross(pivotClose, quotedClose, pivotReferenceClose);
+        long change = close > 0 ? price - close : 0;
+        set(target, price, change, FixedPrice.percentOf(change, close), close, DERIVED, timestamp);
+    }
+
+    private static long cross(long a, long b, long c) {
+        if (a <= 0 || b <= 0 || c <= 0) {
+            return 0;
+        }
+        return Math.round((double) a * b / c);
+    }
+
+    private void set(int cell, long price, long change, long changePercent, long close, byte state,
+                     long timestamp) {
+        if (state == DIRECT) {
+            quoted[cell] = true;
+        }
+        if (price != prices[cell] || change != changes[cell] || changePercent != changePercents[cell]
+                || close != closes[cell] || state != states[cell]) {
+            versions[cell] = ++version;
+        }
+        prices[cell] = price;
+        changes[cell] = change;
+        changePercents[cell] = changePercent;
+        closes[cell] = close;
+        states[cell] = state;
+        updatedAt[cell] = timestamp;
+    }
+
+    /**
+     * 两种货币之间的汇率（1 单位 from 兑换多少 to，微单位），由同一时刻的金价推导
+     *
+     * @return 汇率，缺少金价时返回 0
+     */
+    public synchronized long crossRate(CurrencyCode from, CurrencyCode to) {
+        long fromPrice = prices[cell(Metal.XAU, from)];
+        long toPrice = prices[cell(Metal.XAU, to)];
+        return cross(FixedPrice.MICROS_PER_UNIT, toPrice, fromPrice);
+    }
+
+    /**
+     * 金银比（多少盎司白银等于一盎司黄金，微单位）
+     */
+    public synchronized long goldSilverRatio(CurrencyCode currency) {
+        return cross(FixedPrice.MICROS_PER_UNIT, prices[cell(Metal.XAU, currency)],
+                prices[cell(Metal.XAG, currency)]);
+    }
+
+    /**
+     * 读取一个单元格
+     *
+     * @param cell 单元格下标
+     * @param target 输出，长度至少为 6：价格、变化、变化百分比、前收盘价、更新时间、版本
+     * @return 单元格状态
+     */
+    public synchronized byte read(int cell, long[] target) {
+        target[0] = prices[cell];
+        target[1] = changes[cell];
+        target[2] = changePercents[cell];
+        target[3] = closes[cell];
+        target[4] = updatedAt[cell];
+        target[5] = versions[cell];
+        return states[cell];
+    }
+
+    /**
+     * 单元格最近一次发生变化时的版本号
+     */
+    public synchronized long versionOf(int cell) {
+        return versions[cell];
+    }
+}
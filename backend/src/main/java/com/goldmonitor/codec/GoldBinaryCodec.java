@@ -0,0 +1,217 @@
+package com.goldmonitor.codec;
+
+import com.goldmonitor.analytics.CandleResolution;
+import com.goldmonitor.history.PriceHistorySlice;
+import com.goldmonitor.model.Candle;
+import com.goldmonitor.model.CurrencyCode;
+import com.goldmonitor.model.GoldPrice;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.time.ZoneId;
+import java.util.List;
+
+/**
+ * 二进制线格式编码器
+ * 面向高频内部消费者的定长小端序格式（参照 SBE）：每条消息以 8 字节消息头开始
+ * （blockLength、templateId、schemaId、version，均为 uint16），随后是定长的根块；
+ * K线和历史数据的根块之后是一个重复组（8 字节组头：blockLength uint16、2 字节填充、numInGroup int32）。
+ * 价格均为微单位定点 int64，时间为 epoch 毫秒 int64；
+ * 解码方应按消息头和组头中的 blockLength 跳过未知字段，以便之后的版本在块末尾追加字段
+ *
+ * <pre>
+ * TICK (1)      根块 48 字节：timestamp, price, change, changePercent, ageMillis (int64),
+ *                              currency (char[3] ASCII), marketStatus (uint8: 0 未知 / 1 OPEN / 2 CLOSED),
+ *                              flags (uint8: bit0 stale), 3 字节填充
+ * CANDLES (2)   根块 8 字节：resolutionMillis (int64)
+ *               组成员 56 字节：openTime, closeTime, open, high, low, close (int64), count (int32),
+ *                              closed (uint8), 3 字节填充
+ * HISTORY (3)   根块 0 字节
+ *               组成员 16 字节：timestamp, price (int64)
+ * </pre>
+ *
+ * 消息长度在编码前就能算出，直接写入刚好大小的数组并返回，不经过临时缓冲区和复制；
+ * 推送和 HTTP 缓存会在多个读者之间共享结果
+ *
+ * @author Gold Monitor Team
+ * @version 1.0.0
+ */
+@Component
+public class GoldBinaryCodec {
+
+    public static final String MEDIA_TYPE_VALUE = "application/x-gold-binary";
+    public static final MediaType MEDIA_TYPE = MediaType.parseMediaType(MEDIA_TYPE_VALUE);
+
+    public static final int SCHEMA_ID = 0x4744;
+    public static final int VERSION = 1;
+
+    public static final int TICK_TEMPLATE = 1;
+    public static final int CANDLES_TEMPLATE = 2;
+    public static final int HISTORY_TEMPLATE = 3;
+
+    public static final int HEADER_LENGTH = 8;
+    public static final int GROUP_HEADER_LENGTH = 8;
+    public static final int TICK_BLOCK_LENGTH = 48;
+    public static final int CANDLES_BLOCK_LENGTH = 8;
+    public static final int CANDLE_ENTRY_LENGTH = 56;
+    public static final int HISTORY_BLOCK_LENGTH = 0;
+    public static final int HISTORY_ENTRY_LENGTH = 16;
+
+    public static final int MARKET_UNKNOWN = 0;
+    public static final int MARKET_OPEN = 1;
+    public static final int MARKET_CLOSED = 2;
+
+    public static final int FLAG_STALE = 1;
+
+    private static final ZoneId ZONE = ZoneId.systemDefault();
+
+    /**
+     * 编码一个 tick
+     *
+     * @param goldPrice 黄金价格对象
+     * @param timestamp tick 时间（epoch 毫秒）
+     * @return TICK 消息
+     */
+    public byte[] encodeTick(GoldPrice goldPrice, long timestamp) {
+        ByteBuffer buffer = allocate(HEADER_LENGTH + TICK_BLOCK_LENGTH);
+        writeHeader(buffer, TICK_BLOCK_LENGTH, TICK_TEMPLATE);
+        buffer.putLong(8, timestamp);
+        buffer.putLong(16, goldPrice.getPrice());
+        buffer.putLong(24, goldPrice.getChange());
+        buffer.putLong(32, goldPrice.getChangePercent());
+        buffer.putLong(40, goldPrice.getAgeMillis());
+        CurrencyCode currency = goldPrice.getCurrency();
+        String code = currency != null ? currency.name() : null;
+        for (int i = 0; i < 3; i++) {
+            buffer.put(48 + i, code != null && i < code.length() ? (byte) code.charAt(i) : 0);
+        }
+        buffer.put(51, (byte) marketStatusCode(goldPrice.getMarketStatus()));
+        buffer.put(52, (byte) (goldPrice.isStale() ? FLAG_STALE : 0));
+        buffer.put(53, (byte) 0);
+        buffer.putShort(54, (short) 0);
+        return buffer.array();
+    }
+
+    /**
+     * 编码当前价格快照，tick 时间取价格对象的时间戳
+     *
+     * @param goldPrice 黄金价格对象
+     * @return TICK 消息
+     */
+    public byte[] encodeTick(GoldPrice goldPrice) {
+        long timestamp = goldPrice.getTimestamp() != null
+                ? goldPrice.getTimestamp().atZone(ZONE).toInstant().toEpochMilli() : 0;
+        return encodeTick(goldPrice, timestamp);
+    }
+
+    /**
+     * 编码一组K线
+     *
+     * @param candles 同一周期的K线
+     * @return CANDLES 消息
+     */
+    public byte[] encodeCandles(List<Candle> candles) {
+        int count = candles.size();
+        int length = HEADER_LENGTH + CANDLES_BLOCK_LENGTH + GROUP_HEADER_LENGTH + count * CANDLE_ENTRY_LENGTH;
+        ByteBuffer buffer = allocate(length);
+        writeHeader(buffer, CANDLES_BLOCK_LENGTH, CANDLES_TEMPLATE);
+        buffer.putLong(8, count == 0 ? 0 : resolutionMillis(candles.get(0).getResolution()));
+        int offset = writeGroupHeader(buffer, 16, CANDLE_ENTRY_LENGTH, count);
+        for (int i = 0; i < count; i++) {
+            Candle candle = candles.get(i);
+            buffer.putLong(offset, candle.getOpenTime());
+            buffer.putLong(offset + 8, candle.getCloseTime());
+            buffer.putLong(offset + 16, candle.getOpen());
+            buffer.putLong(offset + 24, candle.getHigh());
+            buffer.putLong(offset + 32, candle.getLow());
+            buffer.putLong(offset + 40, candle.getClose());
+            buffer.putInt(offset + 48, candle.getCount());
+            buffer.putInt(offset + 52, candle.isClosed() ? 1 : 0);
+            offset += CANDLE_ENTRY_LENGTH;
+        }
+        return buffer.array();
+    }
+
+    /**
+     * 编码一个历史数据页
+     *
+     * @param slice 历史价格
+     * @return HISTORY 消息
+     */
+    public byte[] encodeHistory(PriceHistorySlice slice) {
+        int count = slice.size();
+        long[] timestamps = slice.getTimestamps();
+        long[] prices = slice.getPrices();
+        int length = HEADER_LENGTH + HISTORY_BLOCK_LENGTH + GROUP_HEADER_LENGTH + count * HISTORY_ENTRY_LENGTH;
+        ByteBuffer buffer = allocate(length);
+        writeHeader(buffer, HISTORY_BLOCK_LENGTH, HISTORY_TEMPLATE);
+        int offset = writeGroupHeader(buffer, HEADER_LENGTH, HISTORY_ENTRY_LENGTH, count);
+        for (int i = 0; i < count; i++) {
+            buffer.putLong(offset, timestamps[i]);
+            buffer.putLong(offset + 8, prices[i]);
+            offset += HISTORY_ENTRY_LENGTH;
+        }
+        return buffer.array();
+    }
+
+    /**
+     * 请求是否明确接受二进制线格式
+     * 只有 Accept 中显式列出 {@link #MEDIA_TYPE_VALUE}（q &gt; 0）时才返回 true，通配符仍然得到 JSON
+     *
+     * @param accept Accept 请求头，可以为 null
+     * @return 是否返回二进制线格式
+     */
+    public static boolean isAccepted(String accept) {
+        if (accept == null || !accept.contains(MEDIA_TYPE_VALUE)) {
+            return false;
+        }
+        try {
+            for (MediaType mediaType : MediaType.parseMediaTypes(accept)) {
+                if (mediaType.getQualityValue() > 0 && MEDIA_TYPE.equalsTypeAndSubtype(mediaType)) {
+                    return true;
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+        return false;
+    }
+
+    private static void writeHeader(ByteBuffer buffer, int blockLength, int templateId) {
+        buffer.putShort(0, (short) blockLength);
+        buffer.putShort(2, (short) templateId);
+        buffer.putShort(4, (short) SCHEMA_ID);
+        buffer.putShort(6, (short) VERSION);
+    }
+
+    /**
+     * @return 第一个组成员的偏移
+     */
+    private static int writeGroupHeader(ByteBuffer buffer, int offset, int blockLength, int count) {
+        buffer.putShort(offset, (short) blockLength);
+        buffer.putShort(offset + 2, (short) 0);
+        buffer.putInt(offset + 4, count);
+        return offset + GROUP_HEADER_LENGTH;
+    }
+
+    private static ByteBuffer allocate(int length) {
+        return ByteBuffer.wrap(new byte[length]).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    static int marketStatusCode(String marketStatus) {
+        if ("OPEN".equals(marketStatus)) {
+            return MARKET_OPEN;
+        }
+        if ("CLOSED".equals(marketStatus)) {
+            return MARKET_CLOSED;
+        }
+        return MARKET_UNKNOWN;
+    }
+
+    private static long resolutionMillis(String key) {
+        CandleResolution resolution = key != null ? CandleResolution.fromKey(key) : null;
+        return resolution != null ? resolution.getMillis() : 0;
+    }
+}
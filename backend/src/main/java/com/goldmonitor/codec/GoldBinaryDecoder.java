@@ -0,0 +1,172 @@
+package com.goldmonitor.codec;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+
+import static com.goldmonitor.codec.GoldBinaryCodec.GROUP_HEADER_LENGTH;
+import static com.goldmonitor.codec.GoldBinaryCodec.HEADER_LENGTH;
+
+/**
+ * 二进制线格式解码器（flyweight）
+ * {@link #wrap} 只校验消息头并记录偏移，字段访问直接从数组中读取，不创建对象；
+ * 同一个实例可以反复 wrap 不同的消息，非线程安全。格式见 {@link GoldBinaryCodec}
+ *
+ * @author Gold Monitor Team
+ * @version 1.0.0
+ */
+public class GoldBinaryDecoder {
+
+    private static final VarHandle LONG = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+    private static final VarHandle INT = MethodHandles.byteArrayViewVarHandle(int[].class, ByteOrder.LITTLE_ENDIAN);
+    private static final VarHandle SHORT = MethodHandles.byteArrayViewVarHandle(short[].class, ByteOrder.LITTLE_ENDIAN);
+
+    private byte[] buffer;
+    private int offset;
+    private int templateId;
+    private int blockLength;
+    private int entryLength;
+    private int count;
+    private int entriesOffset;
+
+    /**
+     * 包装一条消息
+     *
+     * @param buffer 消息所在数组
+     * @param offset 消息起始偏移
+     * @return this
+     * @throws IllegalArgumentException schemaId 或版本不匹配
+     */
+    public GoldBinaryDecoder wrap(byte[] buffer, int offset) {
+        int schemaId = uint16(buffer, offset + 4);
+        int version = uint16(buffer, offset + 6);
+        if (schemaId != GoldBinaryCodec.SCHEMA_ID || version > GoldBinaryCodec.VERSION) {
+            throw new IllegalArgumentException("不支持的二进制消息: schema=" + schemaId + ", version=" + version);
+        }
+        this.buffer = buffer;
+        this.offset = offset;
+        this.blockLength = uint16(buffer, offset);
+        this.templateId = uint16(buffer, offset + 2);
+        if (templateId == GoldBinaryCodec.TICK_TEMPLATE) {
+            this.entryLength = 0;
+            this.count = 0;
+            this.entriesOffset = 0;
+        } else {
+            int group = offset + HEADER_LENGTH + blockLength;
+            this.entryLength = uint16(buffer, group);
+            this.count = (int) INT.get(buffer, group + 4);
+            this.entriesOffset = group + GROUP_HEADER_LENGTH;
+        }
+        return this;
+    }
+
+    public GoldBinaryDecoder wrap(byte[] buffer) {
+        return wrap(buffer, 0);
+    }
+
+    public int templateId() {
+        return templateId;
+    }
+
+    // ---- TICK ----
+
+    public long timestamp() {
+        return field(0);
+    }
+
+    public long price() {
+        return field(8);
+    }
+
+    public long change() {
+        return field(16);
+    }
+
+    public long changePercent() {
+        return field(24);
+    }
+
+    public long ageMillis() {
+        return field(32);
+    }
+
+    /**
+     * 货币代码的第 index 个 ASCII 字符（0~2）
+     */
+    public char currencyChar(int index) {
+        return (char) buffer[offset + HEADER_LENGTH + 40 + index];
+    }
+
+    public int marketStatus() {
+        return buffer[offset + HEADER_LENGTH + 43] & 0xFF;
+    }
+
+    public boolean stale() {
+        return (buffer[offset + HEADER_LENGTH + 44] & GoldBinaryCodec.FLAG_STALE) != 0;
+    }
+
+    // ---- CANDLES / HISTORY ----
+
+    /**
+     * 组成员数量
+     */
+    public int count() {
+        return count;
+    }
+
+    public long resolutionMillis() {
+        return field(0);
+    }
+
+    public long candleOpenTime(int index) {
+        return entry(index, 0);
+    }
+
+    public long candleCloseTime(int index) {
+        return entry(index, 8);
+    }
+
+    public long candleOpen(int index) {
+        return entry(index, 16);
+    }
+
+    public long candleHigh(int index) {
+        return entry(index, 24);
+    }
+
+    public long candleLow(int index) {
+        return entry(index, 32);
+    }
+
+    public long candleClose(int index) {
+        return entry(index, 40);
+    }
+
+    public int candleCount(int index) {
+        return (int) INT.get(buffer, entriesOffset + index * entryLength + 48);
+    }
+
+    public boolean candleClosed(int index) {
+        return buffer[entriesOffset + index * entryLength + 52] != 0;
+    }
+
+    public long historyTimestamp(int index) {
+        return entry(index, 0);
+    }
+
+    public long historyPrice(int index) {
+        return entry(index, 8);
+    }
+
+    private long field(int fieldOffset) {
+        return (long) LONG.get(buffer, offset + HEADER_LENGTH + fieldOffset);
+    }
+
+    private long entry(int index, int fieldOffset) {
+        return (long) LONG.get(buffer, entriesOffset + index * entryLength + fieldOffset);
+    }
+
+    private static int uint16(byte[] buffer, int index) {
+        return (short) SHORT.get(buffer, index) & 0xFFFF;
+    }
+}
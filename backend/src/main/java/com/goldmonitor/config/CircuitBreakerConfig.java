@@ -0,0 +1,34 @@
+package com.goldmonitor.config;
+
+import com.goldmonitor.source.CircuitBreaker;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 上游熔断器配置类
+ *
+ * @author Gold Monitor Team
+ * @version 1.0.0
+ */
+@Configuration
+public class CircuitBreakerConfig {
+
+    /**
+     * 包裹上游价格请求的熔断器，阈值以百分比配置
+     *
+     * @return 熔断器
+     */
+    @Bean
+    public CircuitBreaker upstreamCircuitBreaker(
+            @Value("${gold.api.circuit-breaker.window-size:20}") int windowSize,
+            @Value("${gold.api.circuit-breaker.minimum-calls:5}") int minimumCalls,
+            @Value("${gold.api.circuit-breaker.failure-rate-threshold:50}") double failureRateThreshold,
+            @Value("${gold.api.circuit-breaker.slow-call-duration:3000}") long slowCallMillis,
+            @Value("${gold.api.circuit-breaker.slow-call-rate-threshold:80}") double slowCallRateThreshold,
+            @Value("${gold.api.circuit-breaker.open-duration:30000}") long openMillis,
+            @Value("${gold.api.circuit-breaker.half-open-calls:1}") int halfOpenCalls) {
+        return new CircuitBreaker(windowSize, minimumCalls, failureRateThreshold / 100,
+                slowCallMillis, slowCallRateThreshold / 100, openMillis, halfOpenCalls);
+    }
+}
@@ -29,6 +29,7 @@ public class CorsConfig implements WebMvcConfigurer {
                 .allowedOriginPatterns("*")
                 .allowedMethods("GET", "POST", "PUT", "DELETE", "OPTIONS")
                 .allowedHeaders("*")
+                .exposedHeaders("X-Price-Age")
                 .allowCredentials(true)
                 .maxAge(3600);
     }
@@ -51,6 +52,9 @@ public class CorsConfig implements WebMvcConfigurer {
         // 允许的头部
         configuration.addAllowedHeader("*");
         
+        // 允许浏览器读取的响应头
+        configuration.addExposedHeader("X-Price-Age");
+        
         // 允许凭证
         configuration.setAllowCredentials(true);
         
@@ -0,0 +1,121 @@
+package com.goldmonitor.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 线程执行模式
+ * gold.threads.virtual=true 且运行在 JDK 21 及以上时，Tomcat 请求处理、价格轮询任务和
+ * STOMP 入站 / 出站通道改用虚拟线程；否则（默认）使用平台线程池
+ *
+ * 项目以 Java 11 为编译目标，虚拟线程 API 通过反射获取，低版本 JDK 上开启时回退为平台线程
+ *
+ * @author Gold Monitor Team
+ * @version 1.0.0
+ */
+@Slf4j
+@Component
+public class ExecutionMode {
+
+    private final boolean virtual;
+    private final Method ofVirtual;
+    private final Method builderName;
+    private final Method builderFactory;
+
+    public ExecutionMode(@Value("${gold.threads.virtual:false}") boolean requested) {
+        Method ofVirtualMethod = null;
+        Method nameMethod = null;
+        Method factoryMethod = null;
+        if (requested) {
+            try {
+                ofVirtualMethod = Thread.class.getMethod("ofVirtual");
+                Class<?> builder = Class.forName("java.lang.Thread$Builder");
+                nameMethod = builder.getMethod("name", String.class, long.class);
+                factoryMethod = builder.getMethod("factory");
+                // 预览版 JDK 上 ofVirtual 存在但调用会失败，提前验证
+                ofVirtualMethod.invoke(null);
+            } catch (ReflectiveOperationException | RuntimeException e) {
+                log.warn("当前 JDK ({}) 不支持虚拟线程，继续使用平台线程", System.getProperty("java.version"));
+                ofVirtualMethod = null;
+            }
+        }
+        this.virtual = ofVirtualMethod != null;
+        this.ofVirtual = ofVirtualMethod;
+        this.builderName = nameMethod;
+        this.builderFactory = factoryMethod;
+        log.info("线程执行模式: {}", virtual ? "虚拟线程" : "平台线程");
+    }
+
+    /**
+     * 是否使用虚拟线程
+     */
+    public boolean isVirtual() {
+        return virtual;
+    }
+
+    /**
+     * 线程工厂：虚拟线程模式下创建虚拟线程，否则创建守护平台线程
+     *
+     * @param prefix 线程名前缀
+     */
+    public ThreadFactory threadFactory(String prefix) {
+        if (virtual) {
+            try {
+                Object builder = builderName.invoke(ofVirtual.invoke(null), prefix, 1L);
+                return (ThreadFactory) builderFactory.invoke(builder);
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("创建虚拟线程工厂失败", e);
+            }
+        }
+        AtomicInteger threadCount = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * 每个任务一个虚拟线程的执行器，仅在虚拟线程模式下可用
+     *
+     * @param prefix 线程名前缀
+     */
+    public Executor threadPerTaskExecutor(String prefix) {
+        if (!virtual) {
+            throw new IllegalStateException("未启用虚拟线程");
+        }
+        ThreadFactory factory = threadFactory(prefix);
+        return runnable -> factory.newThread(runnable).start();
+    }
+
+    /**
+     * STOMP 通道执行器
+     * 虚拟线程模式下线程由虚拟线程工厂创建，池大小只限制并发、不再对应平台线程数
+     *
+     * @param prefix 线程名前缀
+     * @param poolSize 平台线程模式下的线程数
+     * @param virtualPoolSize 虚拟线程模式下的并发上限
+     * @param queueCapacity 队列长度
+     */
+    public ThreadPoolTaskExecutor channelExecutor(String prefix, int poolSize, int virtualPoolSize,
+                                                  int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        int size = virtual ? virtualPoolSize : poolSize;
+        executor.setCorePoolSize(size);
+        executor.setMaxPoolSize(size);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setAllowCoreThreadTimeOut(virtual);
+        executor.setThreadNamePrefix(prefix);
+        if (virtual) {
+            executor.setThreadFactory(threadFactory(prefix));
+        }
+        return executor;
+    }
+}
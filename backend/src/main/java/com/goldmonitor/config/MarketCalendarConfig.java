@@ -0,0 +1,55 @@
+package com.goldmonitor.config;
+
+import com.goldmonitor.market.ExchangeHolidays;
+import com.goldmonitor.market.MarketCalendar;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.Set;
+
+/**
+ * 市场交易日历配置类
+ * 默认按 COMEX 黄金：纽约时间周日至周四 18:00 开盘、次日 17:00 收盘，节日休市
+ * 
+ * @author Gold Monitor Team
+ * @version 1.0.0
+ */
+@Slf4j
+@Configuration
+public class MarketCalendarConfig {
+
+    /**
+     * 预先计算去年、今年和之后 years 年的交易时段
+     * 
+     * @return 交易日历
+     */
+    @Bean
+    public MarketCalendar marketCalendar(@Value("${gold.market.zone:America/New_York}") String zone,
+                                         @Value("${gold.market.open-time:18:00}") String openTime,
+                                         @Value("${gold.market.close-time:17:00}") String closeTime,
+                                         @Value("${gold.market.years:10}") int years,
+                                         @Value("${gold.market.holidays:}") String[] extraHolidays) {
+        ZoneId zoneId = ZoneId.of(zone);
+        LocalDate from = LocalDate.now(zoneId).withDayOfYear(1).minusYears(1);
+        LocalDate to = from.plusYears(years + 2L).minusDays(1);
+
+        Set<LocalDate> holidays = ExchangeHolidays.between(from.getYear(), to.getYear());
+        for (String holiday : extraHolidays) {
+            if (!holiday.trim().isEmpty()) {
+                holidays.add(LocalDate.parse(holiday.trim()));
+            }
+        }
+
+        MarketCalendar calendar = MarketCalendar.build(zoneId, LocalTime.parse(openTime),
+                LocalTime.parse(closeTime), holidays, from, to);
+        log.info("市场交易日历 ({}): {} 个交易时段，覆盖至 {}", zoneId, calendar.sessionCount(),
+                Instant.ofEpochMilli(calendar.coveredUntil()));
+        return calendar;
+    }
+}
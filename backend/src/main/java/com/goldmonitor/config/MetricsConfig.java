@@ -0,0 +1,64 @@
+package com.goldmonitor.config;
+
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * 指标配置类
+ * gold.* 计时器统一发布基于 HdrHistogram 的客户端分位数（p50 / p90 / p99 / p999）和 Prometheus 直方图桶；
+ * 记录时只更新预先分配好的计数数组，不产生对象
+ *
+ * @author Gold Monitor Team
+ * @version 1.0.0
+ */
+@Configuration
+public class MetricsConfig {
+
+    private static final String PREFIX = "gold.";
+
+    /**
+     * gold.* 计时器的分位数和直方图配置
+     *
+     * @return 指标过滤器，Spring Boot 会应用到自动配置的全部注册表
+     */
+    @Bean
+    public MeterFilter latencyHistogramFilter(
+            @Value("${gold.metrics.percentiles:0.5,0.9,0.99,0.999}") double[] percentiles,
+            @Value("${gold.metrics.minimum-expected-latency:100us}") Duration minimumExpected,
+            @Value("${gold.metrics.maximum-expected-latency:30s}") Duration maximumExpected) {
+        return latencyHistograms(percentiles, minimumExpected, maximumExpected);
+    }
+
+    /**
+     * 创建计时器分位数过滤器，基准测试中的注册表使用同一配置
+     *
+     * @param percentiles 客户端计算的分位数
+     * @param minimumExpected 直方图桶的下限
+     * @param maximumExpected 直方图桶的上限，也是 HdrHistogram 的量程
+     * @return 指标过滤器
+     */
+    public static MeterFilter latencyHistograms(double[] percentiles, Duration minimumExpected,
+                                                Duration maximumExpected) {
+        return new MeterFilter() {
+            @Override
+            public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+                if (id.getType() != Meter.Type.TIMER || !id.getName().startsWith(PREFIX)) {
+                    return config;
+                }
+                return DistributionStatisticConfig.builder()
+                        .percentiles(percentiles)
+                        .percentilesHistogram(true)
+                        .minimumExpectedValue((double) minimumExpected.toNanos())
+                        .maximumExpectedValue((double) maximumExpected.toNanos())
+                        .build()
+                        .merge(config);
+            }
+        };
+    }
+}
@@ -0,0 +1,65 @@
+package com.goldmonitor.config;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.context.request.async.DeferredResultProcessingInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * 流式响应配置类
+ * Spring MVC 把 Flux 写入 SSE / NDJSON 响应时需要一个执行器；
+ * WebSocket 配置中已有执行器 Bean，Spring Boot 不会再创建默认的 applicationTaskExecutor，
+ * 不配置时会退回为每次写入新建线程的 SimpleAsyncTaskExecutor。
+ * 价格流是长连接，异步请求不设超时；其余异步请求（例如等待上游的 /gold/current）保持默认超时
+ *
+ * @author Gold Monitor Team
+ * @version 1.0.0
+ */
+@Configuration
+@RequiredArgsConstructor
+public class StreamConfig implements WebMvcConfigurer {
+
+    private static final String STREAM_PATH = "/gold/stream";
+
+    private final ExecutionMode executionMode;
+
+    @Value("${gold.stream.writer-pool-size:4}")
+    private int writerPoolSize;
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(writerPoolSize);
+        executor.setMaxPoolSize(writerPoolSize);
+        executor.setThreadFactory(executionMode.threadFactory("gold-stream-writer-"));
+        executor.initialize();
+        configurer.setTaskExecutor(executor);
+        configurer.registerDeferredResultInterceptors(new StreamTimeoutInterceptor());
+    }
+
+    /**
+     * 价格流请求关闭异步超时
+     * Tomcat 的异步超时从 startAsync 开始计算，写出数据不会重置，默认 30 秒后关闭连接，心跳也无法保持；
+     * 在开始异步处理之前按映射路径把超时设为 -1（不超时），不依赖 Spring 对流式返回值的默认值
+     */
+    private static final class StreamTimeoutInterceptor implements DeferredResultProcessingInterceptor {
+
+        @Override
+        public <T> void beforeConcurrentHandling(NativeWebRequest request, DeferredResult<T> deferredResult) {
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE,
+                    RequestAttributes.SCOPE_REQUEST);
+            if (request instanceof AsyncWebRequest && pattern instanceof String
+                    && ((String) pattern).startsWith(STREAM_PATH)) {
+                ((AsyncWebRequest) request).setTimeout(-1L);
+            }
+        }
+    }
+}
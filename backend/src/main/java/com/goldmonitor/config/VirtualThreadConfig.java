@@ -0,0 +1,33 @@
+package com.goldmonitor.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 虚拟线程配置类
+ * gold.threads.virtual=true 时 Tomcat 为每个请求创建一个虚拟线程，替代默认的 200 线程工作池
+ * 
+ * @author Gold Monitor Team
+ * @version 1.0.0
+ */
+@Configuration
+@ConditionalOnProperty(name = "gold.threads.virtual", havingValue = "true")
+public class VirtualThreadConfig {
+
+    /**
+     * 替换 Tomcat 连接器的请求执行器
+     * 
+     * @param executionMode 线程执行模式，JDK 不支持虚拟线程时不做修改
+     * @return Tomcat 协议处理器定制器
+     */
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer(ExecutionMode executionMode) {
+        return protocolHandler -> {
+            if (executionMode.isVirtual()) {
+                protocolHandler.setExecutor(executionMode.threadPerTaskExecutor("tomcat-handler-"));
+            }
+        };
+    }
+}
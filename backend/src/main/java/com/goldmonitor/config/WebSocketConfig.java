@@ -1,10 +1,16 @@
 package com.goldmonitor.config;
 
+import com.goldmonitor.websocket.FanoutSessionRegistry;
+import com.goldmonitor.websocket.SessionPrincipalHandshakeHandler;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
 
 /**
  * WebSocket 配置类
@@ -17,8 +23,36 @@ import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerCo
 @EnableWebSocketMessageBroker
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
+    private final ObjectProvider<FanoutSessionRegistry> fanoutSessionRegistry;
+    private final ExecutionMode executionMode;
+
+    @Value("${gold.websocket.inbound-pool-size:8}")
+    private int inboundPoolSize;
+
+    @Value("${gold.websocket.outbound-pool-size:16}")
+    private int outboundPoolSize;
+
+    @Value("${gold.websocket.channel-queue-capacity:10000}")
+    private int channelQueueCapacity;
+
+    @Value("${gold.websocket.send-time-limit:10000}")
+    private int sendTimeLimit;
+
+    @Value("${gold.websocket.send-buffer-size-limit:524288}")
+    private int sendBufferSizeLimit;
+
+    @Value("${gold.websocket.virtual-pool-size:1024}")
+    private int virtualPoolSize;
+
+    public WebSocketConfig(ObjectProvider<FanoutSessionRegistry> fanoutSessionRegistry,
+                           ExecutionMode executionMode) {
+        this.fanoutSessionRegistry = fanoutSessionRegistry;
+        this.executionMode = executionMode;
+    }
+
     /**
      * 配置消息代理
+     * 价格主题由扇出引擎直接推送，其余目的地仍由简单消息代理处理
      * 
      * @param config 消息代理注册器
      */
@@ -41,13 +75,53 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
      */
     @Override
     public void registerStompEndpoints(StompEndpointRegistry registry) {
+        // 未登录的连接分配会话用户，用于 /user/queue/alerts
+        SessionPrincipalHandshakeHandler handshakeHandler = new SessionPrincipalHandshakeHandler();
+
         // 注册 WebSocket 端点
         registry.addEndpoint("/ws/gold-price")
+                .setHandshakeHandler(handshakeHandler)
                 .setAllowedOriginPatterns("*")  // 允许跨域
                 .withSockJS();  // 启用 SockJS 支持
         
         // 注册原生 WebSocket 端点（不使用 SockJS）
         registry.addEndpoint("/ws/gold-price")
+                .setHandshakeHandler(handshakeHandler)
                 .setAllowedOriginPatterns("*");
     }
-}
\ No newline at end of file
+
+    /**
+     * 配置入站通道线程池（虚拟线程模式下由虚拟线程执行），并让扇出引擎跟踪订阅
+     *
+     * @param registration 通道注册器
+     */
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        registration.taskExecutor(executionMode.channelExecutor("clientInboundChannel-",
+                inboundPoolSize, virtualPoolSize, channelQueueCapacity));
+        fanoutSessionRegistry.ifAvailable(registration::interceptors);
+    }
+
+    /**
+     * 配置出站通道线程池（虚拟线程模式下由虚拟线程执行）
+     *
+     * @param registration 通道注册器
+     */
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        registration.taskExecutor(executionMode.channelExecutor("clientOutboundChannel-",
+                outboundPoolSize, virtualPoolSize, channelQueueCapacity));
+    }
+
+    /**
+     * 配置会话发送限制，超过限制的慢客户端会被断开；并让扇出引擎跟踪会话
+     *
+     * @param registration 传输层注册器
+     */
+    @Override
+    public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+        registration.setSendTimeLimit(sendTimeLimit)
+                .setSendBufferSizeLimit(sendBufferSizeLimit);
+        fanoutSessionRegistry.ifAvailable(registration::addDecoratorFactory);
+    }
+}
@@ -1,14 +1,39 @@
 package com.goldmonitor.controller;
 
-import com.goldmonitor.model.GoldPrice;
+import com.goldmonitor.analytics.CandleResolution;
+import com.goldmonitor.codec.GoldBinaryCodec;
+import com.goldmonitor.history.PriceHistorySlice;
 import com.goldmonitor.scheduler.GoldPriceScheduler;
+import com.goldmonitor.model.Candle;
+import com.goldmonitor.model.CurrencyCode;
+import com.goldmonitor.model.Metal;
+import com.goldmonitor.service.CandleAggregationService;
 import com.goldmonitor.service.GoldPriceService;
+import com.goldmonitor.service.GoldPriceSnapshotCache;
+import com.goldmonitor.service.IndicatorService;
+import com.goldmonitor.service.PriceAlertService;
+import com.goldmonitor.service.PriceHistoryService;
+import com.goldmonitor.service.PriceMatrixService;
+import com.goldmonitor.service.PriceResponseCache;
+import com.goldmonitor.source.PriceSourceAggregator;
+import com.goldmonitor.stream.PriceStreamService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 /**
  * 黄金价格控制器
@@ -21,38 +46,340 @@ import java.util.Map;
 @RequestMapping("/gold")
 public class GoldPriceController {
 
+    /**
+     * /current 响应中快照的年龄（毫秒），响应体被所有请求共享，年龄只能逐个请求写在响应头里
+     */
+    private static final String PRICE_AGE_HEADER = "X-Price-Age";
+
+    /**
+     * 带 X-Price-Age 的响应不能由共享缓存保存，否则缓存命中时返回的是写入缓存时的年龄；
+     * 浏览器每次用 ETag 重新验证，304 带着新的 X-Price-Age 更新本地缓存的响应头
+     */
+    private static final CacheControl PER_REQUEST_CACHE_CONTROL = CacheControl.noCache().cachePrivate();
+
     @Autowired
     private GoldPriceService goldPriceService;
     
     @Autowired
     private GoldPriceScheduler goldPriceScheduler;
 
+    @Autowired
+    private GoldPriceSnapshotCache snapshotCache;
+
+    @Autowired
+    private PriceHistoryService priceHistoryService;
+
+    @Autowired
+    private CandleAggregationService candleAggregationService;
+
+    @Autowired
+    private PriceSourceAggregator priceSourceAggregator;
+
+    @Autowired
+    private PriceMatrixService priceMatrixService;
+
+    @Autowired
+    private IndicatorService indicatorService;
+
+    @Autowired
+    private PriceAlertService priceAlertService;
+
+    @Autowired
+    private PriceStreamService priceStreamService;
+
+    @Autowired
+    private PriceResponseCache responseCache;
+
+    @Autowired
+    private GoldBinaryCodec binaryCodec;
+
+    @Value("${gold.cache.max-staleness:60}")
+    private long maxStalenessSeconds;
+
     /**
      * 获取当前黄金价格
+     * 缓存为空时等待上游返回，请求在等待期间不占用 Servlet 线程；
+     * 响应体每个快照只序列化一次，If-None-Match 命中当前 ETag 时直接返回 304；
+     * Accept 中显式列出 application/x-gold-binary 时返回二进制线格式的 TICK 消息；
+     * 快照年龄不在共享的响应体中，每个请求单独写入 X-Price-Age 响应头
      * 
+     * @param ifNoneMatch 条件请求头
+     * @param accept 内容协商请求头
      * @return 当前黄金价格
      */
     @GetMapping("/current")
-    public ResponseEntity<Map<String, Object>> getCurrentPrice() {
+    public Mono<ResponseEntity<?>> getCurrentPrice(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        boolean binary = GoldBinaryCodec.isAccepted(accept);
+        return snapshotCache.get()
+                .<ResponseEntity<?>>map(snapshot -> {
+                    String etag = responseCache.currentETag(snapshot, binary);
+                    HttpHeaders headers = new HttpHeaders();
+                    headers.set(PRICE_AGE_HEADER, Long.toString(snapshot.getAgeMillis()));
+                    if (responseCache.notModified(ifNoneMatch, etag)) {
+                        return notModified(etag, headers, PER_REQUEST_CACHE_CONTROL);
+                    }
+                    try {
+                        return cached(responseCache.current(snapshot, binary), headers, PER_REQUEST_CACHE_CONTROL);
+                    } catch (Exception e) {
+                        throw Exceptions.propagate(e);
+                    }
+                })
+                .switchIfEmpty(Mono.fromSupplier(() -> {
+                    Map<String, Object> response = new HashMap<>();
+                    response.put("success", false);
+                    response.put("message", "无法获取黄金价格数据");
+                    response.put("timestamp", System.currentTimeMillis());
+                    return ResponseEntity.ok(response);
+                }))
+                .onErrorResume(e -> {
+                    Map<String, Object> response = new HashMap<>();
+                    response.put("success", false);
+                    response.put("message", "获取当前价格失败: " + e.getMessage());
+                    response.put("timestamp", System.currentTimeMillis());
+                    return Mono.just(ResponseEntity.ok(response));
+                });
+    }
+
+    /**
+     * 获取历史价格
+     * 同一个 tick 内相同参数的查询只序列化一次；Accept 中显式列出 application/x-gold-binary 时返回 HISTORY 消息
+     * 
+     * @param from 起始时间（epoch 毫秒，含）
+     * @param to 结束时间（epoch 毫秒，含）
+     * @param limit 最大返回数量，超过时返回最近的数据
+     * @param ifNoneMatch 条件请求头
+     * @param accept 内容协商请求头
+     * @return 按时间升序排列的历史价格
+     */
+    @GetMapping("/history")
+    public ResponseEntity<?> getHistory(
+            @RequestParam(defaultValue = "0") long from,
+            @RequestParam(defaultValue = "" + Long.MAX_VALUE) long to,
+            @RequestParam(defaultValue = "1000") int limit,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
         try {
-            GoldPrice goldPrice = goldPriceService.getCurrentGoldPrice().block();
+            boolean binary = GoldBinaryCodec.isAccepted(accept);
+            String etag = responseCache.tickETag(binary);
+            if (responseCache.notModified(ifNoneMatch, etag)) {
+                return notModified(etag);
+            }
             
+            String key = "history:" + from + ":" + to + ":" + limit;
+            if (binary) {
+                return cached(responseCache.queryBinary(key,
+                        () -> binaryCodec.encodeHistory(priceHistoryService.query(from, to, limit))));
+            }
+            return cached(responseCache.query(key, () -> {
+                PriceHistorySlice slice = priceHistoryService.query(from, to, limit);
+                
+                Map<String, Object> data = new HashMap<>();
+                data.put("count", slice.size());
+                data.put("timestamps", slice.getTimestamps());
+                data.put("prices", slice.getPriceValues());
+                
+                Map<String, Object> response = new HashMap<>();
+                response.put("success", true);
+                response.put("data", data);
+                response.put("timestamp", System.currentTimeMillis());
+                return response;
+            }));
+            
+        } catch (Exception e) {
             Map<String, Object> response = new HashMap<>();
-            if (goldPrice != null) {
+            response.put("success", false);
+            response.put("message", "获取历史价格失败: " + e.getMessage());
+            response.put("timestamp", System.currentTimeMillis());
+            
+            return ResponseEntity.ok(response);
+        }
+    }
+
+    /**
+     * 获取K线数据
+     * 同一个 tick 内相同参数的查询只序列化一次；Accept 中显式列出 application/x-gold-binary 时返回 CANDLES 消息
+     * 
+     * @param res K线周期（1m/5m/15m/1h/1d）
+     * @param limit 最大返回数量
+     * @param ifNoneMatch 条件请求头
+     * @param accept 内容协商请求头
+     * @return 按时间升序排列的K线，最后一根为当前未完成的K线
+     */
+    @GetMapping("/candles")
+    public ResponseEntity<?> getCandles(
+            @RequestParam(defaultValue = "1m") String res,
+            @RequestParam(defaultValue = "200") int limit,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        Map<String, Object> response = new HashMap<>();
+        CandleResolution resolution = CandleResolution.fromKey(res);
+        if (resolution == null) {
+            response.put("success", false);
+            response.put("message", "不支持的K线周期: " + res);
+            response.put("timestamp", System.currentTimeMillis());
+            return ResponseEntity.badRequest().body(response);
+        }
+        
+        try {
+            boolean binary = GoldBinaryCodec.isAccepted(accept);
+            String etag = responseCache.tickETag(binary);
+            if (responseCache.notModified(ifNoneMatch, etag)) {
+                return notModified(etag);
+            }
+            
+            int count = Math.max(limit, 0);
+            String key = "candles:" + resolution.getKey() + ":" + count;
+            if (binary) {
+                return cached(responseCache.queryBinary(key,
+                        () -> binaryCodec.encodeCandles(candleAggregationService.getCandles(resolution, count))));
+            }
+            return cached(responseCache.query(key, () -> {
+                List<Candle> candles = candleAggregationService.getCandles(resolution, count);
                 response.put("success", true);
-                response.put("data", goldPrice);
+                response.put("data", candles);
+                response.put("timestamp", System.currentTimeMillis());
+                return response;
+            }));
+            
+        } catch (Exception e) {
+            response.clear();
+            response.put("success", false);
+            response.put("message", "获取K线数据失败: " + e.getMessage());
+            response.put("timestamp", System.currentTimeMillis());
+            
+            return ResponseEntity.ok(response);
+        }
+    }
+
+    /**
+     * 预序列化响应，带 ETag 和 Cache-Control；同一个 URL 按 Accept 返回不同格式，缓存需要区分
+     */
+    private ResponseEntity<byte[]> cached(PriceResponseCache.CachedResponse cached) {
+        return cached(cached, HttpHeaders.EMPTY, cacheControl());
+    }
+
+    private ResponseEntity<byte[]> cached(PriceResponseCache.CachedResponse cached, HttpHeaders headers,
+                                          CacheControl cacheControl) {
+        return ResponseEntity.ok()
+                .headers(headers)
+                .eTag(cached.getEtag())
+                .cacheControl(cacheControl)
+                .varyBy(HttpHeaders.ACCEPT)
+                .contentType(cached.getContentType())
+                .body(cached.getBody());
+    }
+
+    private ResponseEntity<byte[]> notModified(String etag) {
+        return notModified(etag, HttpHeaders.EMPTY, cacheControl());
+    }
+
+    private ResponseEntity<byte[]> notModified(String etag, HttpHeaders headers, CacheControl cacheControl) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .headers(headers)
+                .eTag(etag)
+                .cacheControl(cacheControl)
+                .varyBy(HttpHeaders.ACCEPT)
+                .build();
+    }
+
+    /**
+     * 缓存到下一次定时轮询为止，最长不超过快照的最大陈旧时间；轮询即将发生时要求每次重新验证
+     */
+    private CacheControl cacheControl() {
+        long untilNextPoll = goldPriceScheduler.getNextPollAt() - System.currentTimeMillis();
+        long maxAge = Math.min(untilNextPoll / 1000, maxStalenessSeconds);
+        if (maxAge <= 0) {
+            return CacheControl.noCache().cachePublic();
+        }
+        return CacheControl.maxAge(maxAge, TimeUnit.SECONDS).cachePublic();
+    }
+
+    /**
+     * 获取金属 × 货币价格矩阵
+     * 
+     * @return 所有有数据的单元格、由金价推导的兑美元汇率和金银比
+     */
+    @GetMapping("/matrix")
+    public ResponseEntity<Map<String, Object>> getMatrix() {
+        Map<String, Object> response = new HashMap<>();
+        try {
+            response.put("success", true);
+            response.put("data", priceMatrixService.getSnapshot());
+            response.put("timestamp", System.currentTimeMillis());
+            
+            return ResponseEntity.ok(response);
+            
+        } catch (Exception e) {
+            response.put("success", false);
+            response.put("message", "获取价格矩阵失败: " + e.getMessage());
+            response.put("timestamp", System.currentTimeMillis());
+            
+            return ResponseEntity.ok(response);
+        }
+    }
+
+    /**
+     * 获取单个金属/货币的价格
+     * 
+     * @param metal 金属代码（XAU/XAG）
+     * @param currency 货币代码（USD/EUR/...）
+     * @return 单元格数据
+     */
+    @GetMapping("/matrix/{metal}/{currency}")
+    public ResponseEntity<Map<String, Object>> getMatrixCell(@PathVariable String metal,
+                                                            @PathVariable String currency) {
+        Map<String, Object> response = new HashMap<>();
+        Metal parsedMetal;
+        CurrencyCode parsedCurrency;
+        try {
+            parsedMetal = Metal.fromCode(metal);
+            parsedCurrency = CurrencyCode.fromCode(currency);
+        } catch (IllegalArgumentException e) {
+            response.put("success", false);
+            response.put("message", e.getMessage());
+            response.put("timestamp", System.currentTimeMillis());
+            return ResponseEntity.badRequest().body(response);
+        }
+        
+        Map<String, Object> cell = priceMatrixService.getCell(parsedMetal, parsedCurrency);
+        if (cell != null) {
+            response.put("success", true);
+            response.put("data", cell);
+        } else {
+            response.put("success", false);
+            response.put("message", "暂无 " + parsedMetal + "/" + parsedCurrency + " 价格数据");
+        }
+        response.put("timestamp", System.currentTimeMillis());
+        
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * 获取最新技术指标
+     * 
+     * @return 每个窗口 / 周期的 SMA、标准差、布林带、EMA 和 RSI
+     */
+    @GetMapping("/indicators")
+    public ResponseEntity<Map<String, Object>> getIndicators() {
+        Map<String, Object> response = new HashMap<>();
+        try {
+            Map<String, Object> indicators = indicatorService.getSnapshot();
+            if (indicators != null) {
+                response.put("success", true);
+                response.put("data", indicators);
             } else {
                 response.put("success", false);
-                response.put("message", "无法获取黄金价格数据");
+                response.put("message", "暂无技术指标数据");
             }
             response.put("timestamp", System.currentTimeMillis());
             
             return ResponseEntity.ok(response);
             
         } catch (Exception e) {
-            Map<String, Object> response = new HashMap<>();
             response.put("success", false);
-            response.put("message", "获取当前价格失败: " + e.getMessage());
+            response.put("message", "获取技术指标失败: " + e.getMessage());
             response.put("timestamp", System.currentTimeMillis());
             
             return ResponseEntity.ok(response);
@@ -60,32 +387,135 @@ public class GoldPriceController {
     }
 
     /**
-     * 手动刷新黄金价格
+     * 注册价格提醒
+     * 请求体：{"userId": "...", "type": "ABOVE|BELOW|PERCENT", "value": 2100}，
+     * userId 为 STOMP 连接的用户名（CONNECTED 帧的 user-name 头），必须有在线的会话，触发时发送到该用户的 /user/queue/alerts
      * 
-     * @return 刷新结果
+     * @param request 提醒规则
+     * @return 注册的规则
      */
-    @PostMapping("/refresh")
-    public ResponseEntity<Map<String, Object>> refreshPrice() {
+    @PostMapping("/alerts")
+    public ResponseEntity<Map<String, Object>> registerAlert(@RequestBody Map<String, Object> request) {
+        Map<String, Object> response = new HashMap<>();
         try {
-            goldPriceScheduler.manualUpdate();
+            Object userId = request.get("userId");
+            Object type = request.get("type");
+            Map<String, Object> rule = priceAlertService.register(userId == null ? null : userId.toString(),
+                    type == null ? null : type.toString(), request.get("value"));
+            response.put("success", true);
+            response.put("data", rule);
+            response.put("timestamp", System.currentTimeMillis());
             
-            Map<String, Object> response = new HashMap<>();
+            return ResponseEntity.ok(response);
+            
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            response.put("success", false);
+            response.put("message", e.getMessage());
+            response.put("timestamp", System.currentTimeMillis());
+            return ResponseEntity.badRequest().body(response);
+        }
+    }
+
+    /**
+     * 获取用户的价格提醒
+     * 
+     * @param userId 用户
+     * @return 有效的规则
+     */
+    @GetMapping("/alerts")
+    public ResponseEntity<Map<String, Object>> getAlerts(@RequestParam String userId) {
+        Map<String, Object> response = new HashMap<>();
+        try {
             response.put("success", true);
-            response.put("message", "价格刷新成功");
+            response.put("data", priceAlertService.getRules(userId));
             response.put("timestamp", System.currentTimeMillis());
             
             return ResponseEntity.ok(response);
             
         } catch (Exception e) {
-            Map<String, Object> response = new HashMap<>();
             response.put("success", false);
-            response.put("message", "手动刷新价格失败: " + e.getMessage());
+            response.put("message", "获取价格提醒失败: " + e.getMessage());
             response.put("timestamp", System.currentTimeMillis());
             
             return ResponseEntity.ok(response);
         }
     }
 
+    /**
+     * 删除价格提醒
+     * 
+     * @param id 规则编号
+     * @param userId 规则所属用户
+     * @return 删除结果
+     */
+    @DeleteMapping("/alerts/{id}")
+    public ResponseEntity<Map<String, Object>> deleteAlert(@PathVariable long id,
+                                                           @RequestParam String userId) {
+        Map<String, Object> response = new HashMap<>();
+        boolean removed = priceAlertService.remove(id, userId);
+        response.put("success", removed);
+        if (!removed) {
+            response.put("message", "提醒规则不存在: " + id);
+        }
+        response.put("timestamp", System.currentTimeMillis());
+        
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * SSE 价格流
+     * 每个 tick 推送一个 price 事件（data 与 /topic/gold-price 相同），空闲时定期发送心跳注释；
+     * 断线重连时浏览器 EventSource 自动带上 Last-Event-ID，从最近 tick 的缓冲中补发
+     * 
+     * @param lastEventIdHeader 最后收到的事件 ID（Last-Event-ID 请求头）
+     * @param lastEventId 最后收到的事件 ID（查询参数，供无法设置请求头的客户端使用）
+     * @return 事件流
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<String>> streamEvents(
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventIdHeader,
+            @RequestParam(required = false) Long lastEventId) {
+        return priceStreamService.sse(lastEventIdHeader != null ? lastEventIdHeader : lastEventId);
+    }
+
+    /**
+     * NDJSON 价格流，与 SSE 价格流共享同一个事件源
+     * 每行一个 {"id":..., "data":{价格}}，心跳为空行
+     * 
+     * @param lastEventId 最后收到的事件 ID
+     * @return 行流
+     */
+    @GetMapping(value = "/stream/ndjson", produces = PriceStreamService.NDJSON_VALUE)
+    public Flux<String> streamLines(@RequestParam(required = false) Long lastEventId) {
+        return priceStreamService.ndjson(lastEventId);
+    }
+
+    /**
+     * 手动刷新黄金价格
+     * 上游返回并广播后完成，等待期间不占用 Servlet 线程
+     * 
+     * @return 刷新结果
+     */
+    @PostMapping("/refresh")
+    public Mono<ResponseEntity<Map<String, Object>>> refreshPrice() {
+        return goldPriceScheduler.manualUpdate()
+                .map(goldPrice -> {
+                    Map<String, Object> response = new HashMap<>();
+                    response.put("success", true);
+                    response.put("message", "价格刷新成功");
+                    response.put("data", goldPrice);
+                    response.put("timestamp", System.currentTimeMillis());
+                    return ResponseEntity.ok(response);
+                })
+                .onErrorResume(e -> {
+                    Map<String, Object> response = new HashMap<>();
+                    response.put("success", false);
+                    response.put("message", "手动刷新价格失败: " + e.getMessage());
+                    response.put("timestamp", System.currentTimeMillis());
+                    return Mono.just(ResponseEntity.ok(response));
+                });
+    }
+
     /**
      * 获取系统状态
      * 
@@ -100,7 +530,14 @@ public class GoldPriceController {
             status.put("version", "1.0.0");
             status.put("status", "running");
             status.put("marketOpen", goldPriceService.isMarketOpen());
-            status.put("updateInterval", goldPriceScheduler.getUpdateInterval() + " seconds");
+            status.put("nextMarketTransition", goldPriceService.nextMarketTransition());
+            // 保持原有的秒数格式，精确的毫秒间隔见 polling.intervalMillis
+            status.put("updateInterval", Math.round(goldPriceScheduler.getUpdateInterval() / 1000.0) + " seconds");
+            status.put("polling", goldPriceScheduler.getPollingStatus());
+            status.put("sources", priceSourceAggregator.describeSources());
+            status.put("circuitBreaker", goldPriceService.getCircuitBreakerStatus());
+            status.put("alertRules", priceAlertService.getRuleCount());
+            status.put("streamConnections", priceStreamService.getConnectionCount());
             status.put("timestamp", System.currentTimeMillis());
             
             return ResponseEntity.ok(status);
@@ -0,0 +1,47 @@
+package com.goldmonitor.history;
+
+import com.goldmonitor.model.FixedPrice;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 历史价格查询结果
+ * 按列存储：时间戳数组与定点价格数组一一对应，按时间升序排列
+ *
+ * @author Gold Monitor Team
+ * @version 1.0.0
+ */
+@Getter
+@RequiredArgsConstructor
+public class PriceHistorySlice {
+
+    /**
+     * 空结果
+     */
+    public static final PriceHistorySlice EMPTY = new PriceHistorySlice(new long[0], new long[0]);
+
+    /**
+     * 时间戳（epoch 毫秒）
+     */
+    private final long[] timestamps;
+
+    /**
+     * 定点价格（微单位，见 {@link FixedPrice}）
+     */
+    private final long[] prices;
+
+    public int size() {
+        return timestamps.length;
+    }
+
+    /**
+     * 将定点价格转换为浮点数组，用于 JSON 输出
+     */
+    public double[] getPriceValues() {
+        double[] values = new double[prices.length];
+        for (int i = 0; i < prices.length; i++) {
+            values[i] = FixedPrice.toDouble(prices[i]);
+        }
+        return values;
+    }
+}
@@ -0,0 +1,383 @@
+package com.goldmonitor.history;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 价格 tick 日志
+ * 只追加、定长记录的内存映射文件，按段滚动存储全部历史 tick，重启时无需解析 JSON 即可恢复
+ *
+ * 段文件格式（大端序）：
+ * <pre>
+ * 0   int   魔数 'GPTJ'
+ * 4   int   版本号
+ * 8   int   记录长度（16）
+ * 12  int   段容量（记录数）
+ * 16  int   已写入记录数（在记录写入之后更新）
+ * 24  long  首条记录时间戳
+ * 32  long  末条记录时间戳
+ * 64  ...   记录：long 时间戳 + long 定点价格
+ * </pre>
+ *
+ * 单写多读：已写入记录数为 volatile，读取方先读记录数再读记录
+ *
+ * @author Gold Monitor Team
+ * @version 1.0.0
+ */
+@Slf4j
+public class PriceTickJournal implements Closeable {
+
+    private static final int MAGIC = 0x4750544A;
+    private static final int VERSION = 1;
+    private static final int RECORD_SIZE = 16;
+    private static final int HEADER_SIZE = 64;
+
+    private static final int OFFSET_MAGIC = 0;
+    private static final int OFFSET_VERSION = 4;
+    private static final int OFFSET_RECORD_SIZE = 8;
+    private static final int OFFSET_CAPACITY = 12;
+    private static final int OFFSET_COUNT = 16;
+    private static final int OFFSET_FIRST_TIMESTAMP = 24;
+    private static final int OFFSET_LAST_TIMESTAMP = 32;
+
+    private static final String SEGMENT_PREFIX = "ticks-";
+    private static final String SEGMENT_SUFFIX = ".seg";
+
+    private final Path directory;
+    private final int segmentCapacity;
+
+    /**
+     * 按序号升序排列的段，写入时整体替换（写时复制），读取方无需加锁
+     */
+    private volatile Segment[] segments = new Segment[0];
+
+    /**
+     * 下一个新建段的序号，大于目录中所有段文件（包括无法识别而跳过的）的序号
+     */
+    private long nextSequence;
+
+    private PriceTickJournal(Path directory, int segmentCapacity) {
+        this.directory = directory;
+        this.segmentCapacity = segmentCapacity;
+    }
+
+    /**
+     * 打开（或创建）日志目录并映射已有的段文件
+     *
+     * @param directory 日志目录
+     * @param segmentCapacity 新建段的容量（记录数）
+     * @return 日志实例
+     * @throws IOException 目录或文件无法访问
+     */
+    public static PriceTickJournal open(Path directory, int segmentCapacity) throws IOException {
+        if (segmentCapacity <= 0 || segmentCapacity > (Integer.MAX_VALUE - HEADER_SIZE) / RECORD_SIZE) {
+            throw new IllegalArgumentException("段容量超出范围: " + segmentCapacity);
+        }
+        Files.createDirectories(directory);
+        PriceTickJournal journal = new PriceTickJournal(directory, segmentCapacity);
+
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            for (Path file : stream) {
+                files.add(file);
+            }
+        }
+        files.sort(null);
+
+        List<Segment> loaded = new ArrayList<>();
+        for (Path file : files) {
+            long sequence = parseSequence(file);
+            if (sequence < 0) {
+                log.warn("跳过无法识别的日志段: {}", file);
+                continue;
+            }
+            // 跳过的段文件保留在磁盘上，新段不能与其重名
+            journal.nextSequence = Math.max(journal.nextSequence, sequence + 1);
+            Segment segment = Segment.map(file);
+            if (segment == null) {
+                log.warn("跳过无法识别的日志段: {}", file);
+                continue;
+            }
+            loaded.add(segment);
+        }
+        journal.segments = loaded.toArray(new Segment[0]);
+        return journal;
+    }
+
+    /**
+     * 从文件名解析段序号，无法解析时返回 -1
+     */
+    private static long parseSequence(Path file) {
+        String name = file.getFileName().toString();
+        try {
+            long sequence = Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+            return sequence >= 0 ? sequence : -1;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * 追加一个 tick，当前段写满时滚动到新段
+     * 时间戳早于最新 tick 时按最新 tick 的时间戳记录，保证可以二分查找
+     *
+     * @param timestamp epoch 毫秒
+     * @param price 定点价格
+     */
+    public synchronized void append(long timestamp, long price) {
+        Segment[] current = segments;
+        Segment active = current.length == 0 ? null : current[current.length - 1];
+        if (active != null && active.count > 0 && timestamp < active.lastTimestamp) {
+            timestamp = active.lastTimestamp;
+        }
+        if (active == null || active.count >= active.capacity) {
+            active = roll(current, active);
+        }
+        active.append(timestamp, price);
+    }
+
+    /**
+     * 按时间顺序回放最近的 maxTicks 个 tick
+     *
+     * @param maxTicks 最多回放的 tick 数
+     * @param consumer 接收回放数据的回调
+     * @return 实际回放的 tick 数
+     */
+    public long replay(long maxTicks, TickConsumer consumer) {
+        Segment[] current = segments;
+        long skip = Math.max(0, size() - maxTicks);
+        long replayed = 0;
+        for (Segment segment : current) {
+            int count = segment.count;
+            if (skip >= count) {
+                skip -= count;
+                continue;
+            }
+            for (int i = (int) skip; i < count; i++) {
+                consumer.accept(segment.timestampAt(i), segment.priceAt(i));
+            }
+            replayed += count - skip;
+            skip = 0;
+        }
+        return replayed;
+    }
+
+    /**
+     * 查询时间范围 [from, to] 内的 tick，直接从映射内存中读取
+     * 命中数量超过 limit 时返回最近的 limit 个
+     *
+     * @param from 起始时间（含）
+     * @param to 结束时间（含）
+     * @param limit 最大返回数量，小于等于0表示不限制
+     * @return 查询结果
+     */
+    public PriceHistorySlice query(long from, long to, int limit) {
+        if (from > to) {
+            return PriceHistorySlice.EMPTY;
+        }
+        Segment[] current = segments;
+        int[] lows = new int[current.length];
+        int[] highs = new int[current.length];
+
+        // 从最新的段往回统计，够 limit 条即停止
+        long total = 0;
+        int firstSegment = current.length;
+        for (int s = current.length - 1; s >= 0; s--) {
+            Segment segment = current[s];
+            int count = segment.count;
+            if (count == 0 || segment.firstTimestamp > to) {
+                continue;
+            }
+            if (segment.lastTimestamp < from) {
+                break;
+            }
+            int lo = segment.lowerBound(from, count);
+            int hi = to == Long.MAX_VALUE ? count : segment.lowerBound(to + 1, count);
+            if (limit > 0 && total + (hi - lo) > limit) {
+                lo = (int) (hi - (limit - total));
+            }
+            lows[s] = lo;
+            highs[s] = hi;
+            total += hi - lo;
+            firstSegment = s;
+            if (limit > 0 && total >= limit) {
+                break;
+            }
+        }
+        if (total == 0) {
+            return PriceHistorySlice.EMPTY;
+        }
+
+        long[] timestamps = new long[(int) total];
+        long[] prices = new long[(int) total];
+        int offset = 0;
+        for (int s = firstSegment; s < current.length; s++) {
+            Segment segment = current[s];
+            for (int i = lows[s]; i < highs[s]; i++) {
+                timestamps[offset] = segment.timestampAt(i);
+                prices[offset] = segment.priceAt(i);
+                offset++;
+            }
+        }
+        return new PriceHistorySlice(timestamps, prices);
+    }
+
+    /**
+     * 日志中的 tick 总数
+     */
+    public long size() {
+        long total = 0;
+        for (Segment segment : segments) {
+            total += segment.count;
+        }
+        return total;
+    }
+
+    public int getSegmentCount() {
+        return segments.length;
+    }
+
+    /**
+     * 将当前段刷到磁盘
+     */
+    public synchronized void flush() {
+        Segment[] current = segments;
+        if (current.length > 0) {
+            current[current.length - 1].buffer.force();
+        }
+    }
+
+    @Override
+    public void close() {
+        flush();
+    }
+
+    private Segment roll(Segment[] current, Segment active) {
+        if (active != null) {
+            active.buffer.force();
+        }
+        long sequence = nextSequence;
+        Path file = directory.resolve(String.format("%s%010d%s", SEGMENT_PREFIX, sequence, SEGMENT_SUFFIX));
+        try {
+            Segment created = Segment.create(file, segmentCapacity);
+            Segment[] next = new Segment[current.length + 1];
+            System.arraycopy(current, 0, next, 0, current.length);
+            next[current.length] = created;
+            segments = next;
+            nextSequence = sequence + 1;
+            log.info("创建新的日志段: {}", file);
+            return created;
+        } catch (IOException e) {
+            throw new UncheckedIOException("创建日志段失败: " + file, e);
+        }
+    }
+
+    /**
+     * 单个段文件
+     */
+    private static final class Segment {
+
+        private final MappedByteBuffer buffer;
+        private final int capacity;
+        private volatile int count;
+        private volatile long firstTimestamp;
+        private volatile long lastTimestamp;
+
+        private Segment(MappedByteBuffer buffer, int capacity, int count) {
+            this.buffer = buffer;
+            this.capacity = capacity;
+            this.count = count;
+            this.firstTimestamp = buffer.getLong(OFFSET_FIRST_TIMESTAMP);
+            this.lastTimestamp = buffer.getLong(OFFSET_LAST_TIMESTAMP);
+        }
+
+        static Segment create(Path file, int capacity) throws IOException {
+            long size = HEADER_SIZE + (long) capacity * RECORD_SIZE;
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+                buffer.putInt(OFFSET_MAGIC, MAGIC);
+                buffer.putInt(OFFSET_VERSION, VERSION);
+                buffer.putInt(OFFSET_RECORD_SIZE, RECORD_SIZE);
+                buffer.putInt(OFFSET_CAPACITY, capacity);
+                buffer.putInt(OFFSET_COUNT, 0);
+                return new Segment(buffer, capacity, 0);
+            }
+        }
+
+        static Segment map(Path file) throws IOException {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                long fileSize = channel.size();
+                if (fileSize < HEADER_SIZE) {
+                    return null;
+                }
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, fileSize);
+                if (buffer.getInt(OFFSET_MAGIC) != MAGIC
+                        || buffer.getInt(OFFSET_VERSION) != VERSION
+                        || buffer.getInt(OFFSET_RECORD_SIZE) != RECORD_SIZE) {
+                    return null;
+                }
+                int capacity = buffer.getInt(OFFSET_CAPACITY);
+                if (HEADER_SIZE + (long) capacity * RECORD_SIZE > fileSize) {
+                    return null;
+                }
+                int count = Math.min(Math.max(buffer.getInt(OFFSET_COUNT), 0), capacity);
+                return new Segment(buffer, capacity, count);
+            }
+        }
+
+        /**
+         * 先写记录再更新记录数，崩溃时最多丢失最后一条未提交的记录
+         */
+        void append(long timestamp, long price) {
+            int index = count;
+            int offset = HEADER_SIZE + index * RECORD_SIZE;
+            buffer.putLong(offset, timestamp);
+            buffer.putLong(offset + 8, price);
+            if (index == 0) {
+                buffer.putLong(OFFSET_FIRST_TIMESTAMP, timestamp);
+                firstTimestamp = timestamp;
+            }
+            buffer.putLong(OFFSET_LAST_TIMESTAMP, timestamp);
+            lastTimestamp = timestamp;
+            buffer.putInt(OFFSET_COUNT, index + 1);
+            count = index + 1;
+        }
+
+        long timestampAt(int index) {
+            return buffer.getLong(HEADER_SIZE + index * RECORD_SIZE);
+        }
+
+        long priceAt(int index) {
+            return buffer.getLong(HEADER_SIZE + index * RECORD_SIZE + 8);
+        }
+
+        /**
+         * 二分查找第一个时间戳 >= key 的记录下标
+         */
+        int lowerBound(long key, int size) {
+            int lo = 0;
+            int hi = size;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (timestampAt(mid) < key) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            return lo;
+        }
+    }
+}
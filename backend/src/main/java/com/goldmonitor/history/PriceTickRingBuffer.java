@@ -0,0 +1,177 @@
+package com.goldmonitor.history;
+
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * 价格 tick 环形缓冲区
+ * 使用两个并行的 long 数组（epoch 毫秒时间戳 + 定点价格）保存最近 N 个 tick，
+ * 每个 tick 只占 16 字节；时间戳单调不减，范围查询通过二分查找完成
+ *
+ * 单写多读：写入方为定时任务，读取方为 REST 请求
+ *
+ * @author Gold Monitor Team
+ * @version 1.0.0
+ */
+public class PriceTickRingBuffer {
+
+    private final int capacity;
+    private final long[] timestamps;
+    private final long[] prices;
+    private final StampedLock lock = new StampedLock();
+
+    /**
+     * 累计写入的 tick 数
+     */
+    private long written;
+
+    public PriceTickRingBuffer(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("环形缓冲区容量必须大于0: " + capacity);
+        }
+        this.capacity = capacity;
+        this.timestamps = new long[capacity];
+        this.prices = new long[capacity];
+    }
+
+    /**
+     * 追加一个 tick，缓冲区满时覆盖最旧的数据
+     * 时间戳早于最新 tick 时按最新 tick 的时间戳记录，保证数组有序
+     *
+     * @param timestamp epoch 毫秒
+     * @param price 定点价格
+     */
+    public void append(long timestamp, long price) {
+        long stamp = lock.writeLock();
+        try {
+            int size = size0();
+            if (size > 0) {
+                long last = timestamps[physical(size - 1)];
+                if (timestamp < last) {
+                    timestamp = last;
+                }
+            }
+            int index = (int) (written % capacity);
+            timestamps[index] = timestamp;
+            prices[index] = price;
+            written++;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * 查询时间范围 [from, to] 内的 tick
+     * 命中数量超过 limit 时返回最近的 limit 个
+     *
+     * @param from 起始时间（含）
+     * @param to 结束时间（含）
+     * @param limit 最大返回数量，小于等于0表示不限制
+     * @return 查询结果
+     */
+    public PriceHistorySlice query(long from, long to, int limit) {
+        if (from > to) {
+            return PriceHistorySlice.EMPTY;
+        }
+        long stamp = lock.readLock();
+        try {
+            int size = size0();
+            int lo = lowerBound(from, size);
+            int hi = to == Long.MAX_VALUE ? size : lowerBound(to + 1, size);
+            int count = hi - lo;
+            if (count <= 0) {
+                return PriceHistorySlice.EMPTY;
+            }
+            if (limit > 0 && count > limit) {
+                lo = hi - limit;
+                count = limit;
+            }
+
+            long[] resultTimestamps = new long[count];
+            long[] resultPrices = new long[count];
+            int start = physical(lo);
+            int firstChunk = Math.min(count, capacity - start);
+            System.arraycopy(timestamps, start, resultTimestamps, 0, firstChunk);
+            System.arraycopy(prices, start, resultPrices, 0, firstChunk);
+            if (firstChunk < count) {
+                System.arraycopy(timestamps, 0, resultTimestamps, firstChunk, count - firstChunk);
+                System.arraycopy(prices, 0, resultPrices, firstChunk, count - firstChunk);
+            }
+            return new PriceHistorySlice(resultTimestamps, resultPrices);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * 按时间顺序遍历缓冲区中的全部 tick
+     *
+     * @param consumer 回调
+     */
+    public void forEach(TickConsumer consumer) {
+        long stamp = lock.readLock();
+        try {
+            int size = size0();
+            for (int i = 0; i < size; i++) {
+                int index = physical(i);
+                consumer.accept(timestamps[index], prices[index]);
+            }
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * 最旧 tick 的时间戳，缓冲区为空时返回 Long.MAX_VALUE
+     */
+    public long getOldestTimestamp() {
+        long stamp = lock.readLock();
+        try {
+            return size0() == 0 ? Long.MAX_VALUE : timestamps[physical(0)];
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    public int size() {
+        long stamp = lock.readLock();
+        try {
+            return size0();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    private int size0() {
+        return (int) Math.min(written, capacity);
+    }
+
+    /**
+     * 逻辑下标（0 为最旧）转换为物理下标
+     */
+    private int physical(int logical) {
+        int start = written <= capacity ? 0 : (int) (written % capacity);
+        int index = start + logical;
+        return index >= capacity ? index - capacity : index;
+    }
+
+    /**
+     * 二分查找第一个时间戳 >= key 的逻辑下标
+     */
+    private int lowerBound(long key, int size) {
+        int lo = 0;
+        int hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (timestamps[physical(mid)] < key) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+}
@@ -0,0 +1,18 @@
+package com.goldmonitor.history;
+
+/**
+ * 价格 tick 回调
+ * 使用原始类型参数，遍历历史数据时不产生装箱对象
+ *
+ * @author Gold Monitor Team
+ * @version 1.0.0
+ */
+@FunctionalInterface
+public interface TickConsumer {
+
+    /**
+     * @param timestamp epoch 毫秒
+     * @param price 定点价格
+     */
+    void accept(long timestamp, long price);
+}
@@ -0,0 +1,211 @@
+package com.goldmonitor.logging;
+
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.UnsynchronizedAppenderBase;
+import ch.qos.logback.core.spi.AppenderAttachable;
+import ch.qos.logback.core.spi.AppenderAttachableImpl;
+
+import java.util.Iterator;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 环形缓冲区异步日志追加器
+ * 业务线程固定事件的消息文本、MDC 和线程名（{@code prepareForDeferredProcessing}，参数在之后可能被修改），
+ * 然后用一次 CAS 领取槽位并写入事件，不加锁、不做布局格式化和 I/O；
+ * 单个后台线程按顺序取出事件，由下游追加器（控制台等）按布局格式化并输出
+ *
+ * 缓冲区满时直接丢弃新事件，不阻塞业务线程，丢弃数量通过 logback 状态信息报告；
+ * 不采集调用者信息（类名、行号），日志格式中不要使用 %caller / %line
+ *
+ * 多写单读，容量向上取整为 2 的幂
+ *
+ * @author Gold Monitor Team
+ * @version 1.0.0
+ */
+public class RingBufferAppender extends UnsynchronizedAppenderBase<ILoggingEvent>
+        implements AppenderAttachable<ILoggingEvent> {
+
+    private static final long IDLE_PARK_NANOS = 100_000_000L;
+    private static final long SHUTDOWN_DRAIN_MILLIS = 1000;
+
+    private final AppenderAttachableImpl<ILoggingEvent> appenders = new AppenderAttachableImpl<>();
+
+    private int capacity = 8192;
+    private AtomicReferenceArray<ILoggingEvent> slots;
+    private int mask;
+
+    /**
+     * 已领取的槽位序号（写入方）
+     */
+    private final AtomicLong tail = new AtomicLong();
+
+    /**
+     * 下一个要读取的槽位序号（只由后台线程推进）
+     */
+    private final AtomicLong head = new AtomicLong();
+
+    private final AtomicLong dropped = new AtomicLong();
+    private long reportedDropped;
+
+    private volatile boolean sleeping;
+    private volatile boolean running;
+    private Thread worker;
+
+    public void setCapacity(int capacity) {
+        this.capacity = capacity;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * 因缓冲区已满被丢弃的事件数
+     */
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    @Override
+    public void start() {
+        if (isStarted()) {
+            return;
+        }
+        if (capacity <= 0) {
+            addError("日志环形缓冲区容量必须大于0: " + capacity);
+            return;
+        }
+        int size = Integer.highestOneBit(Math.max(2, capacity) - 1) << 1;
+        slots = new AtomicReferenceArray<>(size);
+        mask = size - 1;
+        running = true;
+        worker = new Thread(this::drainLoop, "log-ring-buffer-" + getName());
+        worker.setDaemon(true);
+        super.start();
+        worker.start();
+    }
+
+    @Override
+    public void stop() {
+        if (!isStarted()) {
+            return;
+        }
+        super.stop();
+        running = false;
+        LockSupport.unpark(worker);
+        try {
+            worker.join(SHUTDOWN_DRAIN_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (worker.isAlive()) {
+            addWarn("日志环形缓冲区在 " + SHUTDOWN_DRAIN_MILLIS + " ms 内未写完，剩余 "
+                    + (tail.get() - head.get()) + " 条被丢弃");
+        }
+        reportDropped();
+        appenders.detachAndStopAllAppenders();
+    }
+
+    @Override
+    protected void append(ILoggingEvent event) {
+        // 消息格式化、MDC 和线程名在业务线程上固定下来，之后事件只被后台线程读取
+        event.prepareForDeferredProcessing();
+        long sequence;
+        do {
+            sequence = tail.get();
+            if (sequence - head.get() >= slots.length()) {
+                dropped.incrementAndGet();
+                return;
+            }
+        } while (!tail.compareAndSet(sequence, sequence + 1));
+        slots.lazySet((int) sequence & mask, event);
+        if (sleeping) {
+            LockSupport.unpark(worker);
+        }
+    }
+
+    private void drainLoop() {
+        long next = head.get();
+        while (true) {
+            int index = (int) next & mask;
+            ILoggingEvent event = slots.get(index);
+            if (event != null) {
+                slots.lazySet(index, null);
+                head.lazySet(++next);
+                dispatch(event);
+                continue;
+            }
+            if (next == tail.get()) {
+                // 缓冲区为空
+                reportDropped();
+                if (!running) {
+                    return;
+                }
+                sleeping = true;
+                if (next == tail.get()) {
+                    LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                }
+                sleeping = false;
+            } else {
+                // 槽位已被领取，写入方还没写入事件
+                Thread.onSpinWait();
+            }
+        }
+    }
+
+    private void dispatch(ILoggingEvent event) {
+        try {
+            appenders.appendLoopOnAppenders(event);
+        } catch (RuntimeException e) {
+            addError("写入日志失败", e);
+        }
+    }
+
+    private void reportDropped() {
+        long total = dropped.get();
+        if (total != reportedDropped) {
+            addWarn("日志环形缓冲区已满，丢弃了 " + (total - reportedDropped) + " 条日志");
+            reportedDropped = total;
+        }
+    }
+
+    // ---- 下游追加器 ----
+
+    @Override
+    public void addAppender(Appender<ILoggingEvent> appender) {
+        appenders.addAppender(appender);
+    }
+
+    @Override
+    public Iterator<Appender<ILoggingEvent>> iteratorForAppenders() {
+        return appenders.iteratorForAppenders();
+    }
+
+    @Override
+    public Appender<ILoggingEvent> getAppender(String name) {
+        return appenders.getAppender(name);
+    }
+
+    @Override
+    public boolean isAttached(Appender<ILoggingEvent> appender) {
+        return appenders.isAttached(appender);
+    }
+
+    @Override
+    public void detachAndStopAllAppenders() {
+        appenders.detachAndStopAllAppenders();
+    }
+
+    @Override
+    public boolean detachAppender(Appender<ILoggingEvent> appender) {
+        return appenders.detachAppender(appender);
+    }
+
+    @Override
+    public boolean detachAppender(String name) {
+        return appenders.detachAppender(name);
+    }
+}
@@ -0,0 +1,69 @@
+package com.goldmonitor.market;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * 交易所全天休市日
+ * COMEX 黄金期货全天休市的节日：元旦、耶稣受难日、圣诞节；
+ * 元旦和圣诞节逢周六提前到周五、逢周日顺延到周一
+ *
+ * @author Gold Monitor Team
+ * @version 1.0.0
+ */
+public final class ExchangeHolidays {
+
+    private ExchangeHolidays() {
+    }
+
+    /**
+     * 计算指定年份范围内的休市日
+     *
+     * @param fromYear 起始年份（含）
+     * @param toYear 结束年份（含）
+     * @return 休市日（升序）
+     */
+    public static Set<LocalDate> between(int fromYear, int toYear) {
+        Set<LocalDate> holidays = new TreeSet<>();
+        for (int year = fromYear; year <= toYear; year++) {
+            holidays.add(observed(LocalDate.of(year, Month.JANUARY, 1)));
+            holidays.add(easterSunday(year).minusDays(2));
+            holidays.add(observed(LocalDate.of(year, Month.DECEMBER, 25)));
+        }
+        return holidays;
+    }
+
+    private static LocalDate observed(LocalDate date) {
+        if (date.getDayOfWeek() == DayOfWeek.SATURDAY) {
+            return date.minusDays(1);
+        }
+        if (date.getDayOfWeek() == DayOfWeek.SUNDAY) {
+            return date.plusDays(1);
+        }
+        return date;
+    }
+
+    /**
+     * 复活节（公历，Anonymous Gregorian 算法）
+     */
+    static LocalDate easterSunday(int year) {
+        int a = year % 19;
+        int b = year / 100;
+        int c = year % 100;
+        int d = b / 4;
+        int e = b % 4;
+        int f = (b + 8) / 25;
+        int g = (b - f + 1) / 3;
+        int h = (19 * a + b - d - g + 15) % 30;
+        int i = c / 4;
+        int k = c % 4;
+        int l = (32 + 2 * e + 2 * i - h - k) % 7;
+        int m = (a + 11 * h + 22 * l) / 451;
+        int month = (h + l - 7 * m + 114) / 31;
+        int day = (h + l - 7 * m + 114) % 31 + 1;
+        return LocalDate.of(year, month, day);
+    }
+}
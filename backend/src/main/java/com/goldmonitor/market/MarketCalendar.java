@@ -0,0 +1,142 @@
+package com.goldmonitor.market;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.Arrays;
+import java.util.Set;
+
+/**
+ * 市场交易日历
+ * 创建时按交易所时区、开收盘时间和休市日预先计算未来若干年每个交易时段的开盘 / 收盘时刻
+ * （UTC epoch 毫秒），按时间升序交替保存在一个 long 数组中：偶数下标为开盘，奇数下标为收盘
+ *
+ * 查询只做一次二分查找，不分配对象：不大于 t 的转换时刻个数为奇数时市场开放
+ *
+ * 开盘时间晚于收盘时间表示跨夜时段（例如 COMEX 黄金 18:00 开盘、次日 17:00 收盘），
+ * 时段按收盘日归属：收盘日为周一至周五且不是休市日时才有该时段；夏令时由时区规则处理
+ *
+ * @author Gold Monitor Team
+ * @version 1.0.0
+ */
+public final class MarketCalendar {
+
+    /**
+     * 表中没有后续转换时刻
+     */
+    public static final long NONE = Long.MAX_VALUE;
+
+    private final long[] transitions;
+    private final ZoneId zone;
+
+    private MarketCalendar(long[] transitions, ZoneId zone) {
+        this.transitions = transitions;
+        this.zone = zone;
+    }
+
+    /**
+     * 生成交易日历
+     *
+     * @param zone 交易所时区
+     * @param open 开盘时间
+     * @param close 收盘时间，早于开盘时间表示次日收盘
+     * @param holidays 休市日（按收盘日）
+     * @param from 起始日期（含）
+     * @param to 结束日期（含）
+     * @return 交易日历
+     */
+    public static MarketCalendar build(ZoneId zone, LocalTime open, LocalTime close, Set<LocalDate> holidays,
+                                       LocalDate from, LocalDate to) {
+        boolean overnight = !open.isBefore(close);
+        long[] table = new long[(int) (to.toEpochDay() - from.toEpochDay() + 1) * 2];
+        int size = 0;
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+            DayOfWeek dayOfWeek = day.getDayOfWeek();
+            if (dayOfWeek == DayOfWeek.SATURDAY || dayOfWeek == DayOfWeek.SUNDAY || holidays.contains(day)) {
+                continue;
+            }
+            LocalDate openDay = overnight ? day.minusDays(1) : day;
+            long openAt = ZonedDateTime.of(openDay, open, zone).toInstant().toEpochMilli();
+            long closeAt = ZonedDateTime.of(day, close, zone).toInstant().toEpochMilli();
+            if (size > 0 && openAt <= table[size - 1]) {
+                // 与上一时段相接时合并
+                table[size - 1] = closeAt;
+            } else {
+                table[size++] = openAt;
+                table[size++] = closeAt;
+            }
+        }
+        return new MarketCalendar(Arrays.copyOf(table, size), zone);
+    }
+
+    /**
+     * 市场是否开放
+     *
+     * @param epochMillis 时刻
+     */
+    public boolean isOpen(long epochMillis) {
+        return (countUpTo(epochMillis) & 1) == 1;
+    }
+
+    /**
+     * 下一个转换时刻（开盘或收盘）
+     *
+     * @param epochMillis 时刻
+     * @return 严格晚于该时刻的第一个转换时刻，超出表范围时返回 {@link #NONE}
+     */
+    public long nextTransition(long epochMillis) {
+        int index = countUpTo(epochMillis);
+        return index < transitions.length ? transitions[index] : NONE;
+    }
+
+    /**
+     * 下一次开盘时刻
+     *
+     * @param epochMillis 时刻
+     * @return 市场开放时返回该时刻本身，超出表范围时返回 {@link #NONE}
+     */
+    public long nextOpen(long epochMillis) {
+        int index = countUpTo(epochMillis);
+        if ((index & 1) == 1) {
+            return epochMillis;
+        }
+        return index < transitions.length ? transitions[index] : NONE;
+    }
+
+    /**
+     * 表覆盖的最后时刻
+     */
+    public long coveredUntil() {
+        return transitions.length == 0 ? Long.MIN_VALUE : transitions[transitions.length - 1];
+    }
+
+    /**
+     * 交易时段数
+     */
+    public int sessionCount() {
+        return transitions.length / 2;
+    }
+
+    public ZoneId getZone() {
+        return zone;
+    }
+
+    /**
+     * 不大于 t 的转换时刻个数
+     */
+    private int countUpTo(long t) {
+        int low = 0;
+        int high = transitions.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (transitions[mid] <= t) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
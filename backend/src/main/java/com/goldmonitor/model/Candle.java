@@ -0,0 +1,74 @@
+package com.goldmonitor.model;
+
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * K线（OHLC）数据模型
+ * 
+ * @author Gold Monitor Team
+ * @version 1.0.0
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class Candle {
+
+    /**
+     * K线周期（1m/5m/15m/1h/1d）
+     */
+    private String resolution;
+
+    /**
+     * 开盘时间（epoch 毫秒）
+     */
+    private long openTime;
+
+    /**
+     * 收盘时间（epoch 毫秒，不含）
+     */
+    private long closeTime;
+
+    /**
+     * 开盘价（微单位）
+     */
+    @JsonSerialize(using = FixedPriceJson.Serializer.class)
+    @JsonDeserialize(using = FixedPriceJson.Deserializer.class)
+    private long open;
+
+    /**
+     * 最高价（微单位）
+     */
+    @JsonSerialize(using = FixedPriceJson.Serializer.class)
+    @JsonDeserialize(using = FixedPriceJson.Deserializer.class)
+    private long high;
+
+    /**
+     * 最低价（微单位）
+     */
+    @JsonSerialize(using = FixedPriceJson.Serializer.class)
+    @JsonDeserialize(using = FixedPriceJson.Deserializer.class)
+    private long low;
+
+    /**
+     * 收盘价（微单位）
+     */
+    @JsonSerialize(using = FixedPriceJson.Serializer.class)
+    @JsonDeserialize(using = FixedPriceJson.Deserializer.class)
+    private long close;
+
+    /**
+     * tick 数
+     */
+    private int count;
+
+    /**
+     * 是否已完成
+     */
+    private boolean closed;
+}
@@ -0,0 +1,40 @@
+package com.goldmonitor.model;
+
+/**
+ * 货币代码（ISO 4217）
+ *
+ * @author Gold Monitor Team
+ * @version 1.0.0
+ */
+public enum CurrencyCode {
+
+    USD,
+    EUR,
+    GBP,
+    CNY,
+    JPY,
+    CHF,
+    AUD,
+    CAD,
+    HKD,
+    SGD,
+    INR;
+
+    private static final CurrencyCode[] VALUES = values();
+
+    /**
+     * 按代码查找货币，不区分大小写
+     *
+     * @param code 货币代码，例如 USD
+     * @return 货币
+     * @throws IllegalArgumentException 不支持的货币代码
+     */
+    public static CurrencyCode fromCode(String code) {
+        for (CurrencyCode currency : VALUES) {
+            if (currency.name().equalsIgnoreCase(code)) {
+                return currency;
+            }
+        }
+        throw new IllegalArgumentException("不支持的货币代码: " + code);
+    }
+}
@@ -0,0 +1,239 @@
+package com.goldmonitor.model;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * 定点价格
+ * 以 long 保存的微单位（放大 10^6 倍）金额加货币代码，不可变；
+ * 在服务和存储的边界传递，取出微单位时校验货币，避免把不同货币的价格当作同一种使用。
+ * 边界之内的热路径（K线、指标、提醒索引、环形缓冲区和日志）直接处理 long 微单位，
+ * 由静态方法完成换算，不为每次计算创建对象；BigDecimal 只出现在 JSON 边界
+ *
+ * @author Gold Monitor Team
+ * @version 1.0.0
+ */
+public final class FixedPrice implements Comparable<FixedPrice> {
+
+    /**
+     * 小数位数
+     */
+    public static final int SCALE = 6;
+
+    /**
+     * 每单位对应的微单位数
+     */
+    public static final long MICROS_PER_UNIT = 1_000_000L;
+
+    private final long micros;
+    private final CurrencyCode currency;
+
+    private FixedPrice(long micros, CurrencyCode currency) {
+        if (currency == null) {
+            throw new IllegalArgumentException("货币代码不能为空");
+        }
+        this.micros = micros;
+        this.currency = currency;
+    }
+
+    public static FixedPrice of(long micros, CurrencyCode currency) {
+        return new FixedPrice(micros, currency);
+    }
+
+    public static FixedPrice of(BigDecimal amount, CurrencyCode currency) {
+        return new FixedPrice(toMicros(amount), currency);
+    }
+
+    public long getMicros() {
+        return micros;
+    }
+
+    /**
+     * 取出指定货币下的微单位值
+     *
+     * @param expected 调用方使用的货币
+     * @return 微单位
+     * @throws IllegalArgumentException 货币不一致
+     */
+    public long getMicros(CurrencyCode expected) {
+        if (currency != expected) {
+            throw new IllegalArgumentException("价格货币为 " + currency + "，需要 " + expected);
+        }
+        return micros;
+    }
+
+    public CurrencyCode getCurrency() {
+        return currency;
+    }
+
+    public BigDecimal toBigDecimal() {
+        return toBigDecimal(micros);
+    }
+
+    @Override
+    public int compareTo(FixedPrice other) {
+        if (currency != other.currency) {
+            throw new IllegalArgumentException("不能比较不同货币的价格: " + currency + " / " + other.currency);
+        }
+        return Long.compare(micros, other.micros);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof FixedPrice)) {
+            return false;
+        }
+        FixedPrice other = (FixedPrice) o;
+        return micros == other.micros && currency == other.currency;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Long.hashCode(micros) + currency.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return format(micros) + " " + currency;
+    }
+
+    // ---- 微单位 long 的工具方法 ----
+
+    /**
+     * BigDecimal 转微单位，超出精度的部分四舍五入
+     */
+    public static long toMicros(BigDecimal amount) {
+        return amount.movePointRight(SCALE).setScale(0, RoundingMode.HALF_UP).longValueExact();
+    }
+
+    /**
+     * double 转微单位，四舍五入
+     */
+    public static long toMicros(double amount) {
+        return Math.round(amount * MICROS_PER_UNIT);
+    }
+
+    /**
+     * 微单位转 BigDecimal（去掉末尾的 0），只应在 JSON 等对外边界使用
+     */
+    public static BigDecimal toBigDecimal(long micros) {
+        BigDecimal amount = BigDecimal.valueOf(micros, SCALE).stripTrailingZeros();
+        return amount.scale() < 0 ? amount.setScale(0) : amount;
+    }
+
+    /**
+     * 微单位转 double，用于图表等只需要近似值的场景
+     */
+    public static double toDouble(long micros) {
+        return (double) micros / MICROS_PER_UNIT;
+    }
+
+    /**
+     * 四舍五入到指定小数位数（不超过 {@link #SCALE}）
+     */
+    public static long round(long micros, int decimals) {
+        long unit = 1;
+        for (int i = decimals; i < SCALE; i++) {
+            unit *= 10;
+        }
+        long half = unit / 2;
+        return micros >= 0 ? (micros + half) / unit * unit : -((-micros + half) / unit * unit);
+    }
+
+    /**
+     * 变化百分比：change / base * 100，结果为微单位，四舍五入
+     *
+     * @param change 变化量（微单位）
+     * @param base 基准价格（微单位）
+     * @return 百分比（微单位），base 为 0 时返回 0
+     */
+    public static long percentOf(long change, long base) {
+        if (base == 0) {
+            return 0;
+        }
+        return Math.round(change * 100.0 * MICROS_PER_UNIT / base);
+    }
+
+    /**
+     * 解析十进制文本（JSON 数字的字符）为微单位，不创建中间对象；
+     * 含指数的写法交给 BigDecimal 处理
+     *
+     * @param text 字符缓冲
+     * @param offset 起始位置
+     * @param length 长度
+     * @return 微单位
+     * @throws NumberFormatException 文本不是十进制数字
+     */
+    public static long parseMicros(char[] text, int offset, int length) {
+        int end = offset + length;
+        int i = offset;
+        boolean negative = false;
+        if (i < end && (text[i] == '-' || text[i] == '+')) {
+            negative = text[i] == '-';
+            i++;
+        }
+        if (i == end) {
+            throw new NumberFormatException("空数字");
+        }
+        long integer = 0;
+        long fraction = 0;
+        int fractionDigits = 0;
+        boolean roundUp = false;
+        boolean inFraction = false;
+        for (; i < end; i++) {
+            char ch = text[i];
+            if (ch >= '0' && ch <= '9') {
+                if (!inFraction) {
+                    integer = Math.addExact(Math.multiplyExact(integer, 10), ch - '0');
+                } else if (fractionDigits < SCALE) {
+                    fraction = fraction * 10 + (ch - '0');
+                    fractionDigits++;
+                } else if (fractionDigits == SCALE) {
+                    roundUp = ch >= '5';
+                    fractionDigits++;
+                }
+            } else if (ch == '.' && !inFraction) {
+                inFraction = true;
+            } else if (ch == 'e' || ch == 'E') {
+                return toMicros(new BigDecimal(text, offset, length));
+            } else {
+                throw new NumberFormatException("无效数字: " + new String(text, offset, length));
+            }
+        }
+        for (int digits = Math.min(fractionDigits, SCALE); digits < SCALE; digits++) {
+            fraction *= 10;
+        }
+        long micros = Math.addExact(Math.multiplyExact(integer, MICROS_PER_UNIT), fraction + (roundUp ? 1 : 0));
+        return negative ? -micros : micros;
+    }
+
+    /**
+     * 格式化微单位为十进制文本（去掉末尾的 0）
+     */
+    public static String format(long micros) {
+        StringBuilder text = new StringBuilder(24);
+        if (micros < 0) {
+            text.append('-');
+        }
+        long abs = Math.abs(micros);
+        text.append(abs / MICROS_PER_UNIT);
+        long fraction = abs % MICROS_PER_UNIT;
+        if (fraction != 0) {
+            int digits = SCALE;
+            while (fraction % 10 == 0) {
+                fraction /= 10;
+                digits--;
+            }
+            text.append('.');
+            String fractionText = Long.toString(fraction);
+            for (int i = fractionText.length(); i < digits; i++) {
+                text.append('0');
+            }
+            text.append(fractionText);
+        }
+        return text.toString();
+    }
+}
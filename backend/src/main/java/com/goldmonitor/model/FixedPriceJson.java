@@ -0,0 +1,50 @@
+package com.goldmonitor.model;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+
+import java.io.IOException;
+
+/**
+ * 微单位 long 字段的 JSON 转换
+ * 对外仍然是普通的十进制数字（例如 2045.67），与原来的 BigDecimal 字段格式兼容
+ *
+ * @author Gold Monitor Team
+ * @version 1.0.0
+ */
+public final class FixedPriceJson {
+
+    private FixedPriceJson() {
+    }
+
+    public static class Serializer extends JsonSerializer<Long> {
+
+        @Override
+        public void serialize(Long micros, JsonGenerator generator, SerializerProvider provider) throws IOException {
+            generator.writeNumber(FixedPrice.format(micros));
+        }
+    }
+
+    public static class Deserializer extends JsonDeserializer<Long> {
+
+        @Override
+        public Long deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+            JsonToken token = parser.currentToken();
+            if (token != JsonToken.VALUE_NUMBER_INT && token != JsonToken.VALUE_NUMBER_FLOAT
+                    && token != JsonToken.VALUE_STRING) {
+                return (Long) context.handleUnexpectedToken(Long.class, parser);
+            }
+            try {
+                return FixedPrice.parseMicros(parser.getTextCharacters(), parser.getTextOffset(),
+                        parser.getTextLength());
+            } catch (NumberFormatException | ArithmeticException e) {
+                return (Long) context.handleWeirdStringValue(Long.class, parser.getText(), e.getMessage());
+            }
+        }
+    }
+}
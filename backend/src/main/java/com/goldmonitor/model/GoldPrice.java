@@ -1,22 +1,24 @@
 package com.goldmonitor.model;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 /**
  * 黄金价格数据模型
+ * 价格相关字段以微单位 long 保存（见 {@link FixedPrice}），JSON 中仍是普通十进制数字
  * 
  * @author Gold Monitor Team
  * @version 1.0.0
  */
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class GoldPrice {
@@ -27,14 +29,16 @@ public class GoldPrice {
     private String id;
     
     /**
-     * 黄金价格（美元/盎司）
+     * 黄金价格（微单位）
      */
-    private BigDecimal price;
+    @JsonSerialize(using = FixedPriceJson.Serializer.class)
+    @JsonDeserialize(using = FixedPriceJson.Deserializer.class)
+    private long price;
     
     /**
      * 货币单位
      */
-    private String currency;
+    private CurrencyCode currency;
     
     /**
      * 重量单位
@@ -42,14 +46,18 @@ public class GoldPrice {
     private String unit;
     
     /**
-     * 价格变化
+     * 价格变化（微单位）
      */
-    private BigDecimal change;
+    @JsonSerialize(using = FixedPriceJson.Serializer.class)
+    @JsonDeserialize(using = FixedPriceJson.Deserializer.class)
+    private long change;
     
     /**
-     * 价格变化百分比
+     * 价格变化百分比（微单位）
      */
-    private BigDecimal changePercent;
+    @JsonSerialize(using = FixedPriceJson.Serializer.class)
+    @JsonDeserialize(using = FixedPriceJson.Deserializer.class)
+    private long changePercent;
     
     /**
      * 数据时间戳
@@ -66,11 +74,28 @@ public class GoldPrice {
      * 市场状态（开市/闭市）
      */
     private String marketStatus;
+
+    /**
+     * 是否为上游不可用时返回的最近一次有效价格
+     */
+    private boolean stale;
+
+    /**
+     * 陈旧价格的年龄（毫秒），仅 stale 为 true 时有意义
+     */
+    private long ageMillis;
+    
+    /**
+     * 价格的定点值对象
+     */
+    public FixedPrice toFixedPrice() {
+        return FixedPrice.of(price, currency);
+    }
     
     /**
      * 创建当前时间戳的黄金价格对象
      */
-    public static GoldPrice createWithCurrentTime(BigDecimal price, String currency, String unit) {
+    public static GoldPrice createWithCurrentTime(long price, CurrencyCode currency, String unit) {
         return GoldPrice.builder()
                 .price(price)
                 .currency(currency)
@@ -0,0 +1,38 @@
+package com.goldmonitor.model;
+
+/**
+ * 贵金属（ISO 4217 代码）
+ *
+ * @author Gold Monitor Team
+ * @version 1.0.0
+ */
+public enum Metal {
+
+    /**
+     * 黄金
+     */
+    XAU,
+
+    /**
+     * 白银
+     */
+    XAG;
+
+    private static final Metal[] VALUES = values();
+
+    /**
+     * 按代码查找贵金属，不区分大小写
+     *
+     * @param code 代码，例如 XAU
+     * @return 贵金属
+     * @throws IllegalArgumentException 不支持的代码
+     */
+    public static Metal fromCode(String code) {
+        for (Metal metal : VALUES) {
+            if (metal.name().equalsIgnoreCase(code)) {
+                return metal;
+            }
+        }
+        throw new IllegalArgumentException("不支持的贵金属代码: " + code);
+    }
+}
@@ -0,0 +1,84 @@
+package com.goldmonitor.model;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 上游返回的一种货币下的金银报价，价格均为微单位
+ * goldprice.org 每次请求可以返回多种货币，每种货币对应一条报价
+ *
+ * @author Gold Monitor Team
+ * @version 1.0.0
+ */
+@Data
+public class MetalQuote {
+
+    /**
+     * 数据来源
+     */
+    private String source;
+
+    /**
+     * 货币单位
+     */
+    private CurrencyCode currency;
+
+    /**
+     * 黄金价格
+     */
+    private long xauPrice;
+
+    /**
+     * 黄金价格变化
+     */
+    private long xauChange;
+
+    /**
+     * 黄金价格变化百分比
+     */
+    private long xauChangePercent;
+
+    /**
+     * 黄金前收盘价
+     */
+    private long xauClose;
+
+    /**
+     * 白银价格
+     */
+    private long xagPrice;
+
+    /**
+     * 白银价格变化
+     */
+    private long xagChange;
+
+    /**
+     * 白银价格变化百分比
+     */
+    private long xagChangePercent;
+
+    /**
+     * 白银前收盘价
+     */
+    private long xagClose;
+
+    /**
+     * 转换为黄金价格对象
+     *
+     * @return 黄金价格对象（不含市场状态）
+     */
+    public GoldPrice toGoldPrice() {
+        return GoldPrice.builder()
+                .id(String.valueOf(System.currentTimeMillis()))
+                .price(xauPrice)
+                .currency(currency)
+                .unit("oz")
+                .change(xauChange)
+                .changePercent(xauChangePercent)
+                .timestamp(LocalDateTime.now())
+                .source(source)
+                .build();
+    }
+}
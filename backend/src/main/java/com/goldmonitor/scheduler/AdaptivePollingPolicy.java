@@ -0,0 +1,181 @@
+package com.goldmonitor.scheduler;
+
+import com.goldmonitor.market.MarketCalendar;
+import com.goldmonitor.source.PriceSourceAggregator;
+import com.goldmonitor.source.UpstreamQuota;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 自适应轮询策略
+ * 根据近期波动、市场状态和上游配额决定下一次轮询的间隔：
+ * <ul>
+ *   <li>波动：相邻 tick 价格变化的绝对值（基点，按 1 分钟归一化）的 EWMA，
+ *       低于 quiet 时取最大间隔，高于 active 时取最小间隔，之间按对数插值</li>
+ *   <li>市场关闭：等到交易日历中的下一次开盘，超出日历范围时取 closed-interval</li>
+ *   <li>配额：剩余额度低于一半时不快于配额允许的持续速率，额度耗尽时等到下一个令牌</li>
+ * </ul>
+ *
+ * @author Gold Monitor Team
+ * @version 1.0.0
+ */
+@Component
+public class AdaptivePollingPolicy {
+
+    private static final double BASIS_POINTS = 10_000.0;
+    private static final double NORMALIZE_MILLIS = 60_000.0;
+    private static final double QUOTA_RESERVE = 0.5;
+
+    private final UpstreamQuota quota;
+    private final boolean enabled;
+    private final long baseInterval;
+    private final long minInterval;
+    private final long maxInterval;
+    private final long closedInterval;
+    private final double alpha;
+    private final double quietBps;
+    private final double activeBps;
+
+    /**
+     * 波动 EWMA（基点），负数表示尚无样本
+     */
+    private double volatilityBps = -1;
+    private long lastPrice;
+    private long lastTimestamp;
+
+    private volatile Decision lastDecision;
+
+    public AdaptivePollingPolicy(PriceSourceAggregator priceSourceAggregator,
+                                 @Value("${gold.scheduler.adaptive.enabled:true}") boolean enabled,
+                                 @Value("${gold.scheduler.price-update-interval:30}") int baseIntervalSeconds,
+                                 @Value("${gold.scheduler.adaptive.min-interval:500}") long minInterval,
+                                 @Value("${gold.scheduler.adaptive.max-interval:300000}") long maxInterval,
+                                 @Value("${gold.scheduler.adaptive.closed-interval:600000}") long closedInterval,
+                                 @Value("${gold.scheduler.adaptive.ewma-alpha:0.2}") double alpha,
+                                 @Value("${gold.scheduler.adaptive.quiet-bps:1}") double quietBps,
+                                 @Value("${gold.scheduler.adaptive.active-bps:20}") double activeBps) {
+        this.quota = priceSourceAggregator.getQuota();
+        this.enabled = enabled;
+        this.baseInterval = baseIntervalSeconds * 1000L;
+        this.minInterval = minInterval;
+        this.maxInterval = Math.max(maxInterval, minInterval);
+        this.closedInterval = closedInterval;
+        this.alpha = alpha;
+        this.quietBps = quietBps;
+        this.activeBps = Math.max(activeBps, quietBps * 1.01);
+        this.lastDecision = new Decision(baseInterval, Collections.singletonList("尚未开始轮询"), -1, 1,
+                System.currentTimeMillis());
+    }
+
+    /**
+     * 记录一个 tick，更新波动 EWMA
+     *
+     * @param timestamp epoch 毫秒
+     * @param price 定点价格
+     */
+    public synchronized void onTick(long timestamp, long price) {
+        if (lastPrice > 0 && timestamp > lastTimestamp) {
+            double move = Math.abs(price - lastPrice) * BASIS_POINTS / lastPrice;
+            // 按 √时间 归一化到 1 分钟，轮询变快时单次变化变小不会反过来拉长间隔
+            double normalized = move * Math.sqrt(NORMALIZE_MILLIS / (timestamp - lastTimestamp));
+            volatilityBps = volatilityBps < 0 ? normalized : alpha * normalized + (1 - alpha) * volatilityBps;
+        }
+        lastPrice = price;
+        lastTimestamp = timestamp;
+    }
+
+    /**
+     * 决定下一次轮询的间隔
+     *
+     * @param now epoch 毫秒
+     * @param nextOpen 下一次开盘时刻（epoch 毫秒），市场开放（或强制启用）时不大于 now
+     * @return 间隔和原因
+     */
+    public synchronized Decision next(long now, long nextOpen) {
+        List<String> reasons = new ArrayList<>(3);
+        long interval;
+        if (!enabled) {
+            interval = baseInterval;
+            reasons.add("固定间隔");
+        } else if (nextOpen > now) {
+            if (nextOpen == MarketCalendar.NONE) {
+                interval = closedInterval;
+                reasons.add("市场关闭，交易日历中没有后续开盘时间");
+            } else {
+                interval = nextOpen - now;
+                reasons.add("市场关闭，" + Instant.ofEpochMilli(nextOpen) + " 开盘");
+            }
+        } else if (volatilityBps < 0) {
+            interval = baseInterval;
+            reasons.add("尚无波动数据，使用基准间隔");
+        } else {
+            interval = volatilityInterval();
+            reasons.add(String.format("波动 %.2f bp/min (quiet=%.2f, active=%.2f)",
+                    volatilityBps, quietBps, activeBps));
+        }
+
+        double headroom = quota.headroom(now);
+        long quotaFloor = quota.millisUntilAvailable(now);
+        if (quotaFloor == 0 && headroom < QUOTA_RESERVE) {
+            quotaFloor = quota.sustainedInterval();
+        }
+        if (quotaFloor > interval) {
+            interval = quotaFloor;
+            reasons.add(String.format("上游配额剩余 %.0f%%，限速", headroom * 100));
+        }
+
+        Decision decision = new Decision(interval, Collections.unmodifiableList(reasons), volatilityBps,
+                headroom, now);
+        lastDecision = decision;
+        return decision;
+    }
+
+    /**
+     * quiet → maxInterval，active → minInterval，之间按对数插值
+     */
+    private long volatilityInterval() {
+        if (volatilityBps <= quietBps) {
+            return maxInterval;
+        }
+        if (volatilityBps >= activeBps) {
+            return minInterval;
+        }
+        double position = Math.log(volatilityBps / quietBps) / Math.log(activeBps / quietBps);
+        return Math.round(maxInterval * Math.pow((double) minInterval / maxInterval, position));
+    }
+
+    /**
+     * 最近一次决定
+     */
+    public Decision getLastDecision() {
+        return lastDecision;
+    }
+
+    /**
+     * 轮询间隔决定
+     */
+    @Getter
+    public static final class Decision {
+
+        private final long intervalMillis;
+        private final List<String> reasons;
+        private final double volatilityBps;
+        private final double quotaHeadroom;
+        private final long decidedAt;
+
+        Decision(long intervalMillis, List<String> reasons, double volatilityBps, double quotaHeadroom,
+                 long decidedAt) {
+            this.intervalMillis = intervalMillis;
+            this.reasons = reasons;
+            this.volatilityBps = volatilityBps;
+            this.quotaHeadroom = quotaHeadroom;
+            this.decidedAt = decidedAt;
+        }
+    }
+}
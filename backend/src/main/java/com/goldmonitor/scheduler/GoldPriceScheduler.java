@@ -1,17 +1,38 @@
 package com.goldmonitor.scheduler;
 
+import com.goldmonitor.config.ExecutionMode;
+import com.goldmonitor.model.FixedPrice;
 import com.goldmonitor.model.GoldPrice;
+import com.goldmonitor.service.CandleAggregationService;
 import com.goldmonitor.service.GoldPriceService;
+import com.goldmonitor.service.GoldPriceSnapshotCache;
+import com.goldmonitor.service.IndicatorService;
+import com.goldmonitor.service.PriceAlertService;
+import com.goldmonitor.service.PriceHistoryService;
+import com.goldmonitor.service.PriceMatrixService;
+import com.goldmonitor.service.PriceResponseCache;
+import com.goldmonitor.stream.PriceStreamService;
+import com.goldmonitor.websocket.GoldPriceBroadcaster;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
-import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 /**
  * 黄金价格定时调度器
  * 定期获取黄金价格并通过WebSocket推送给前端
+ * 每次轮询完成后由 {@link AdaptivePollingPolicy} 根据波动、市场状态和上游配额决定下一次轮询的时间
  * 
  * @author Gold Monitor Team
  * @version 1.0.0
@@ -22,76 +43,252 @@ import org.springframework.stereotype.Component;
 public class GoldPriceScheduler {
 
     private final GoldPriceService goldPriceService;
-    private final SimpMessagingTemplate messagingTemplate;
+    private final GoldPriceBroadcaster broadcaster;
+    private final GoldPriceSnapshotCache snapshotCache;
+    private final PriceHistoryService priceHistoryService;
+    private final CandleAggregationService candleAggregationService;
+    private final IndicatorService indicatorService;
+    private final PriceMatrixService priceMatrixService;
+    private final PriceResponseCache responseCache;
+    private final PriceAlertService priceAlertService;
+    private final PriceStreamService priceStreamService;
+    private final AdaptivePollingPolicy pollingPolicy;
+    private final TickLogSummary tickLogSummary;
+
+    private final ExecutionMode executionMode;
+    private final MeterRegistry meterRegistry;
+
+    private ScheduledExecutorService executor;
+    private Timer tickTimer;
     
-    @Value("${gold.scheduler.price-update-interval:30}")
-    private int updateInterval;
+    @Value("${gold.scheduler.initial-delay:5}")
+    private int initialDelay;
     
     @Value("${gold.scheduler.force-enabled:false}")
     private boolean forceEnabled;
 
+    private volatile long nextPollAt;
+
     /**
-     * 定时获取黄金价格
-     * 每30秒执行一次（可配置）
+     * 定时轮询正在获取价格
      */
-    @Scheduled(fixedDelayString = "${gold.scheduler.price-update-interval:30}000",
-               initialDelayString = "${gold.scheduler.initial-delay:5}000")
-    public void fetchAndBroadcastGoldPrice() {
-        log.debug("开始执行定时任务：获取黄金价格");
-        
+    private volatile boolean polling;
+
+    @PostConstruct
+    public void start() {
+        tickTimer = Timer.builder("gold.tick.latency")
+                .description("从取得价格到推送给全部通道（STOMP 和 SSE / NDJSON）的耗时")
+                .register(meterRegistry);
+        // 虚拟线程模式下轮询任务运行在虚拟线程上
+        executor = Executors.newSingleThreadScheduledExecutor(executionMode.threadFactory("gold-price-poller-"));
+        schedule(initialDelay * 1000L);
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+    }
+
+    private void schedule(long delayMillis) {
+        nextPollAt = System.currentTimeMillis() + delayMillis;
+        if (!executor.isShutdown()) {
+            executor.schedule(this::poll, delayMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * 一次定时轮询：获取并广播价格，完成（成功或失败）后安排下一次轮询
+     */
+    private void poll() {
+        boolean scheduled = false;
+        polling = true;
         try {
-            // 检查市场状态（演示模式下强制启用）
-            if (!forceEnabled && !goldPriceService.isMarketOpen()) {
+            boolean marketOpen = forceEnabled || goldPriceService.isMarketOpen();
+            if (!marketOpen) {
                 log.debug("市场已关闭，跳过价格更新");
-                return;
+            } else {
+                fetchAndBroadcastGoldPrice(true);
+                scheduled = true;
             }
-            
-            // 获取黄金价格
-            goldPriceService.getCurrentGoldPrice()
-                    .subscribe(
-                            this::broadcastGoldPrice,
-                            error -> log.error("获取黄金价格失败: {}", error.getMessage())
-                    );
-                    
         } catch (Exception e) {
             log.error("定时任务执行异常: {}", e.getMessage(), e);
+        } finally {
+            if (!scheduled) {
+                polling = false;
+                scheduleNext();
+            }
+        }
+    }
+
+    private void scheduleNext() {
+        try {
+            long now = System.currentTimeMillis();
+            long nextOpen = forceEnabled ? now : goldPriceService.nextMarketOpen();
+            AdaptivePollingPolicy.Decision decision = pollingPolicy.next(now, nextOpen);
+            if (log.isDebugEnabled()) {
+                log.debug("下一次轮询在 {} ms 后: {}", decision.getIntervalMillis(), decision.getReasons());
+            }
+            schedule(decision.getIntervalMillis());
+        } catch (Exception e) {
+            // 不能让轮询链中断，沿用上一次的间隔
+            log.error("计算轮询间隔失败: {}", e.getMessage(), e);
+            schedule(pollingPolicy.getLastDecision().getIntervalMillis());
         }
     }
 
+    /**
+     * 获取黄金价格并广播
+     * 
+     * @param reschedule 完成后是否安排下一次定时轮询
+     */
+    private void fetchAndBroadcastGoldPrice(boolean reschedule) {
+        log.debug("开始执行定时任务：获取黄金价格");
+        
+        goldPriceService.getCurrentGoldPrice()
+                .doFinally(signal -> {
+                    if (reschedule) {
+                        polling = false;
+                        scheduleNext();
+                    }
+                })
+                .subscribe(
+                        this::broadcastGoldPrice,
+                        error -> {
+                            tickLogSummary.onFailure(System.currentTimeMillis());
+                            log.error("获取黄金价格失败: {}", error.getMessage());
+                        }
+                );
+    }
+
     /**
      * 广播黄金价格到所有连接的客户端
      * 
      * @param goldPrice 黄金价格对象
      */
     private void broadcastGoldPrice(GoldPrice goldPrice) {
+        long receivedAt = System.nanoTime();
+        // 先更新快照、历史数据和K线，REST 接口直接读取
+        snapshotCache.update(goldPrice);
+        if (goldPrice.isStale()) {
+            // 上游不可用时的陈旧价格已经推送过，不再计入历史、K线和波动，也不重复推送
+            tickLogSummary.onStale(System.currentTimeMillis());
+            if (log.isDebugEnabled()) {
+                log.debug("上游不可用，最近一次有效价格已有 {} ms", goldPrice.getAgeMillis());
+            }
+            return;
+        }
+        // 服务边界传递定点值对象，推送和日志汇总的热路径继续使用微单位 long
+        FixedPrice tick = goldPrice.toFixedPrice();
+        long price = tick.getMicros();
+        if (price <= 0) {
+            return;
+        }
+        if (tick.getCurrency() != PriceHistoryService.CURRENCY) {
+            // 上游没有返回 USD 报价时只更新快照，不混入以 USD 计价的历史、K线和提醒
+            log.warn("主报价货币为 {}，跳过本次 tick", tick.getCurrency());
+            return;
+        }
+        long timestamp = System.currentTimeMillis();
+        priceHistoryService.record(timestamp, tick);
+        candleAggregationService.onTick(timestamp, tick);
+        responseCache.onTick();
+        indicatorService.onTick(timestamp, tick);
+        pollingPolicy.onTick(timestamp, price);
+
         try {
-            // 发送到主题，所有订阅的客户端都会收到
-            messagingTemplate.convertAndSend("/topic/gold-price", goldPrice);
-            
-            log.info("成功广播黄金价格: ${}/oz (变化: {}%)", 
-                    goldPrice.getPrice(), 
-                    goldPrice.getChangePercent());
-                    
+            // 发送到主题，所有订阅的客户端都会收到；SSE / NDJSON 流复用同一份序列化结果
+            byte[] frame = broadcaster.broadcast(goldPrice, timestamp, price);
+            priceStreamService.publish(timestamp, frame);
+            tickTimer.record(System.nanoTime() - receivedAt, TimeUnit.NANOSECONDS);
+            tickLogSummary.onTick(timestamp, price);
+
+            // 每个 tick 的明细只在 DEBUG 级别输出，INFO 级别由 TickLogSummary 定期汇总
+            if (log.isDebugEnabled()) {
+                log.debug("成功广播黄金价格: ${}/oz (变化: {}%)",
+                        FixedPrice.format(price),
+                        FixedPrice.format(goldPrice.getChangePercent()));
+            }
         } catch (Exception e) {
             log.error("广播黄金价格失败: {}", e.getMessage(), e);
         }
+
+        // 推送金属 × 货币矩阵中发生变化的单元格
+        priceMatrixService.publishChanges();
+
+        // 评估价格提醒，只向触发的用户发送
+        priceAlertService.onTick(timestamp, tick);
     }
 
     /**
      * 手动触发价格更新
-     * 可用于测试或手动刷新
+     * 可用于测试或手动刷新；调用方取消订阅不会中断本次更新
+     * 
+     * @return 本次获取并广播的价格
      */
-    public void manualUpdate() {
+    public Mono<GoldPrice> manualUpdate() {
         log.info("手动触发价格更新");
-        fetchAndBroadcastGoldPrice();
+        return update();
+    }
+
+    /**
+     * 价格快照过期时由快照缓存触发的刷新
+     * 定时轮询正在进行或尚未到期（自适应间隔、市场关闭时等到下一次开盘）时不刷新，
+     * 市场检查与定时轮询相同；获取的价格与定时轮询一样计入历史数据并推送，REST 与 WebSocket 看到同一个价格
+     *
+     * @return 本次获取并广播的价格，不需要刷新时为空
+     */
+    public Mono<GoldPrice> refresh() {
+        if (polling || System.currentTimeMillis() < nextPollAt) {
+            return Mono.empty();
+        }
+        if (!forceEnabled && !goldPriceService.isMarketOpen()) {
+            return Mono.empty();
+        }
+        log.debug("定时轮询已过期，刷新价格");
+        return update();
+    }
+
+    private Mono<GoldPrice> update() {
+        Mono<GoldPrice> update = goldPriceService.getCurrentGoldPrice()
+                .doOnNext(this::broadcastGoldPrice)
+                .cache();
+        update.subscribe(goldPrice -> { },
+                error -> log.error("手动更新获取黄金价格失败: {}", error.getMessage()));
+        return update;
+    }
+
+    /**
+     * 获取下一次定时轮询的时间
+     * 
+     * @return epoch 毫秒
+     */
+    public long getNextPollAt() {
+        return nextPollAt;
+    }
+
+    /**
+     * 获取当前更新间隔
+     * 
+     * @return 更新间隔（毫秒）
+     */
+    public long getUpdateInterval() {
+        return pollingPolicy.getLastDecision().getIntervalMillis();
     }
 
     /**
-     * 获取更新间隔
+     * 轮询状态：当前间隔、原因、波动、上游配额和下一次轮询时间
      * 
-     * @return 更新间隔（秒）
+     * @return 状态信息
      */
-    public int getUpdateInterval() {
-        return updateInterval;
+    public Map<String, Object> getPollingStatus() {
+        AdaptivePollingPolicy.Decision decision = pollingPolicy.getLastDecision();
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("intervalMillis", decision.getIntervalMillis());
+        status.put("reasons", decision.getReasons());
+        status.put("volatilityBps", decision.getVolatilityBps() < 0
+                ? null : Math.round(decision.getVolatilityBps() * 100) / 100.0);
+        status.put("quotaHeadroom", Math.round(decision.getQuotaHeadroom() * 100) / 100.0);
+        status.put("nextPollAt", nextPollAt);
+        return status;
     }
 }
\ No newline at end of file
@@ -0,0 +1,92 @@
+package com.goldmonitor.scheduler;
+
+import com.goldmonitor.model.FixedPrice;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * tick 日志汇总
+ * 每个 tick 只更新几个原子计数器，不输出日志；每隔 summary-interval 由当时记录的线程输出一行汇总
+ * （tick 数、价格区间、最新价格、陈旧价格和失败次数），没有 tick 时不输出
+ *
+ * @author Gold Monitor Team
+ * @version 1.0.0
+ */
+@Slf4j
+@Component
+public class TickLogSummary {
+
+    private final long intervalMillis;
+    private final AtomicLong nextReportAt;
+    private final AtomicLong windowStart;
+
+    private final AtomicLong ticks = new AtomicLong();
+    private final AtomicLong stale = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private final AtomicLong minPrice = new AtomicLong(Long.MAX_VALUE);
+    private final AtomicLong maxPrice = new AtomicLong(Long.MIN_VALUE);
+    private volatile long lastPrice;
+
+    public TickLogSummary(@Value("${gold.logging.summary-interval:60000}") long intervalMillis) {
+        long now = System.currentTimeMillis();
+        this.intervalMillis = intervalMillis;
+        this.nextReportAt = new AtomicLong(now + intervalMillis);
+        this.windowStart = new AtomicLong(now);
+    }
+
+    /**
+     * 记录一个已广播的 tick
+     *
+     * @param now 当前时间（epoch 毫秒）
+     * @param price 定点价格
+     */
+    public void onTick(long now, long price) {
+        ticks.incrementAndGet();
+        minPrice.accumulateAndGet(price, Math::min);
+        maxPrice.accumulateAndGet(price, Math::max);
+        lastPrice = price;
+        maybeReport(now);
+    }
+
+    /**
+     * 记录一次上游不可用时返回的陈旧价格
+     */
+    public void onStale(long now) {
+        stale.incrementAndGet();
+        maybeReport(now);
+    }
+
+    /**
+     * 记录一次获取失败（没有可用的陈旧价格）
+     */
+    public void onFailure(long now) {
+        failures.incrementAndGet();
+        maybeReport(now);
+    }
+
+    private void maybeReport(long now) {
+        long due = nextReportAt.get();
+        if (now < due || !nextReportAt.compareAndSet(due, now + intervalMillis)) {
+            return;
+        }
+        long start = windowStart.getAndSet(now);
+        long tickCount = ticks.getAndSet(0);
+        long staleCount = stale.getAndSet(0);
+        long failureCount = failures.getAndSet(0);
+        long min = minPrice.getAndSet(Long.MAX_VALUE);
+        long max = maxPrice.getAndSet(Long.MIN_VALUE);
+        if (!log.isInfoEnabled() || tickCount + staleCount + failureCount == 0) {
+            return;
+        }
+        if (tickCount == 0) {
+            log.info("最近 {} 秒没有新价格：陈旧 {} 次，失败 {} 次", (now - start) / 1000, staleCount, failureCount);
+        } else {
+            log.info("最近 {} 秒广播 {} 个 tick：${} ~ ${}，最新 ${}；陈旧 {} 次，失败 {} 次",
+                    (now - start) / 1000, tickCount, FixedPrice.format(min), FixedPrice.format(max),
+                    FixedPrice.format(lastPrice), staleCount, failureCount);
+        }
+    }
+}
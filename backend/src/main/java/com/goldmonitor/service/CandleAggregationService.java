@@ -0,0 +1,104 @@
+package com.goldmonitor.service;
+
+import com.goldmonitor.analytics.CandleResolution;
+import com.goldmonitor.analytics.CandleSeries;
+import com.goldmonitor.codec.GoldBinaryCodec;
+import com.goldmonitor.model.Candle;
+import com.goldmonitor.model.FixedPrice;
+import com.goldmonitor.websocket.PriceFanout;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * K线聚合服务
+ * 对每个 tick 增量更新所有周期的K线，K线完成时推送到 /topic/gold-price/candles/{周期}，
+ * 并以二进制线格式推送到 /topic/gold-price/candles/{周期}/binary
+ *
+ * @author Gold Monitor Team
+ * @version 1.0.0
+ */
+@Slf4j
+@Service
+public class CandleAggregationService {
+
+    private static final String CANDLE_TOPIC_PREFIX = "/topic/gold-price/candles/";
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final PriceFanout priceFanout;
+    private final GoldBinaryCodec binaryCodec;
+    private final boolean binaryEnabled;
+    private final CandleSeries[] series;
+
+    public CandleAggregationService(SimpMessagingTemplate messagingTemplate,
+                                    PriceFanout priceFanout,
+                                    GoldBinaryCodec binaryCodec,
+                                    PriceHistoryService priceHistoryService,
+                                    @Value("${gold.candles.capacity:1440}") int capacity,
+                                    @Value("${gold.broadcast.binary-enabled:true}") boolean binaryEnabled) {
+        this.messagingTemplate = messagingTemplate;
+        this.priceFanout = priceFanout;
+        this.binaryCodec = binaryCodec;
+        this.binaryEnabled = binaryEnabled;
+
+        CandleResolution[] resolutions = CandleResolution.values();
+        this.series = new CandleSeries[resolutions.length];
+        for (int i = 0; i < resolutions.length; i++) {
+            series[i] = new CandleSeries(resolutions[i], capacity);
+        }
+
+        // 用已恢复的历史数据重建K线，不推送
+        priceHistoryService.forEach(this::aggregate);
+    }
+
+    /**
+     * 处理一个 tick
+     *
+     * @param timestamp epoch 毫秒
+     * @param tick 定点价格
+     * @throws IllegalArgumentException 价格货币不是历史数据的货币
+     */
+    public void onTick(long timestamp, FixedPrice tick) {
+        long price = tick.getMicros(PriceHistoryService.CURRENCY);
+        for (CandleSeries candleSeries : series) {
+            if (candleSeries.update(timestamp, price)) {
+                publish(candleSeries);
+            }
+        }
+    }
+
+    /**
+     * 获取指定周期的K线
+     *
+     * @param resolution K线周期
+     * @param limit 最大返回数量
+     * @return 按时间升序排列的K线，最后一根为当前未完成的K线
+     */
+    public List<Candle> getCandles(CandleResolution resolution, int limit) {
+        return series[resolution.ordinal()].getCandles(limit);
+    }
+
+    private void aggregate(long timestamp, long price) {
+        for (CandleSeries candleSeries : series) {
+            candleSeries.update(timestamp, price);
+        }
+    }
+
+    private void publish(CandleSeries candleSeries) {
+        Candle candle = candleSeries.getLastCompleted();
+        String topic = CANDLE_TOPIC_PREFIX + candleSeries.getResolution().getKey();
+        try {
+            messagingTemplate.convertAndSend(topic, candle);
+            if (binaryEnabled) {
+                priceFanout.publish(topic + "/binary", binaryCodec.encodeCandles(Collections.singletonList(candle)),
+                        GoldBinaryCodec.MEDIA_TYPE);
+            }
+        } catch (Exception e) {
+            log.error("推送K线失败: {}", e.getMessage());
+        }
+    }
+}
@@ -1,23 +1,32 @@
 package com.goldmonitor.service;
 
+import com.goldmonitor.market.MarketCalendar;
+import com.goldmonitor.model.CurrencyCode;
+import com.goldmonitor.model.FixedPrice;
 import com.goldmonitor.model.GoldPrice;
+import com.goldmonitor.model.MetalQuote;
+import com.goldmonitor.source.CircuitBreaker;
+import com.goldmonitor.source.PriceSourceAggregator;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
 
-import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.time.LocalDateTime;
-import java.time.LocalTime;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Random;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * 黄金价格服务类
- * 负责从外部API获取黄金价格数据
+ * 负责从外部API（经多数据源聚合器）获取黄金价格数据
+ * 上游请求经过熔断器，上游失败或熔断期间返回最近一次有效价格并标记为陈旧；模拟数据只用于演示模式
  * 
  * @author Gold Monitor Team
  * @version 1.0.0
@@ -26,17 +35,51 @@ import java.util.Random;
 @Service
 public class GoldPriceService {
 
-    private final WebClient webClient;
-    private final String apiUrl;
+    private final PriceSourceAggregator priceSourceAggregator;
+    private final PriceMatrixService priceMatrixService;
+    private final MarketCalendar marketCalendar;
+    private final CircuitBreaker circuitBreaker;
+    private final MeterRegistry meterRegistry;
     private final String apiKey;
     private final Random random = new Random();
 
-    public GoldPriceService(WebClient.Builder webClientBuilder,
-                           @Value("${gold.api.url}") String apiUrl,
+    /**
+     * 正在进行中的上游请求，并发调用方共享同一个结果
+     */
+    private final AtomicReference<Mono<GoldPrice>> inFlight = new AtomicReference<>();
+    private final Counter upstreamFetchCounter;
+    private final Counter coalescedCounter;
+    private final Counter rejectedCounter;
+    private final Counter staleCounter;
+    private final Counter mockCounter;
+
+    /**
+     * 最近一次从上游成功获取的价格
+     */
+    private final AtomicReference<GoldPriceSnapshotCache.Snapshot> lastGood = new AtomicReference<>();
+
+    public GoldPriceService(PriceSourceAggregator priceSourceAggregator,
+                           PriceMatrixService priceMatrixService,
+                           MarketCalendar marketCalendar,
+                           CircuitBreaker circuitBreaker,
+                           MeterRegistry meterRegistry,
                            @Value("${gold.api.key}") String apiKey) {
-        this.webClient = webClientBuilder.build();
-        this.apiUrl = apiUrl;
+        this.priceSourceAggregator = priceSourceAggregator;
+        this.priceMatrixService = priceMatrixService;
+        this.marketCalendar = marketCalendar;
+        this.circuitBreaker = circuitBreaker;
+        this.meterRegistry = meterRegistry;
         this.apiKey = apiKey;
+        this.upstreamFetchCounter = meterRegistry.counter("gold.upstream.requests", "type", "fetch");
+        this.coalescedCounter = meterRegistry.counter("gold.upstream.requests", "type", "coalesced");
+        this.rejectedCounter = meterRegistry.counter("gold.upstream.requests", "type", "rejected");
+        this.staleCounter = meterRegistry.counter("gold.upstream.fallback", "type", "stale");
+        this.mockCounter = meterRegistry.counter("gold.upstream.fallback", "type", "mock");
+
+        Gauge.builder("gold.upstream.circuit.state", circuitBreaker, breaker -> breaker.getState().ordinal())
+                .description("上游熔断器状态：0 关闭，1 打开，2 半开")
+                .register(meterRegistry);
+        circuitBreaker.setListener(this::onCircuitTransition);
     }
 
     /**
@@ -52,83 +95,171 @@ public class GoldPriceService {
             return generateMockGoldPrice();
         }
         
-        // 从真实API获取数据
-        return fetchFromApi()
-                .doOnSuccess(price -> log.info("成功获取黄金价格: ${}", price.getPrice()))
-                .doOnError(error -> log.error("获取黄金价格失败: {}", error.getMessage()))
-                .onErrorResume(throwable -> {
-                    log.warn("API调用失败，使用模拟数据作为降级方案: {}", throwable.getMessage());
-                    return generateMockGoldPrice();
-                });
+        // 从真实API获取数据，失败时返回最近一次有效价格
+        return fetchCoalesced()
+                .doOnSuccess(price -> {
+                    if (log.isDebugEnabled() && price != null) {
+                        log.debug("成功获取黄金价格: ${}", FixedPrice.format(price.getPrice()));
+                    }
+                })
+                .onErrorResume(this::serveStale);
     }
 
     /**
-     * 从外部API获取黄金价格
+     * 上游失败或熔断时的降级：返回最近一次有效价格的副本，标记为陈旧并带上年龄；
+     * 从未成功获取过价格时原样返回错误
+     * 
+     * @param error 上游错误
+     * @return 陈旧价格
+     */
+    private Mono<GoldPrice> serveStale(Throwable error) {
+        GoldPriceSnapshotCache.Snapshot last = lastGood.get();
+        if (last == null) {
+            log.error("获取黄金价格失败，且没有可用的历史价格: {}", error.getMessage());
+            return Mono.error(error);
+        }
+        if (error instanceof CircuitBreaker.RejectedException) {
+            log.debug("上游熔断中，返回最近一次有效价格");
+        } else {
+            log.warn("获取黄金价格失败，返回最近一次有效价格: {}", error.getMessage());
+        }
+        staleCounter.increment();
+        return Mono.just(last.getGoldPrice().toBuilder()
+                .stale(true)
+                .ageMillis(last.getAgeMillis())
+                .build());
+    }
+
+    /**
+     * 合并并发的上游请求
+     * 已有请求在进行中时直接共享其结果，N 个并发调用只产生一次上游往返
      * 
      * @return 黄金价格对象
      */
-    private Mono<GoldPrice> fetchFromApi() {
-        return webClient.get()
-                .uri(apiUrl)
-                .retrieve()
-                .bodyToMono(Map.class)
-                .map(this::parseGoldApiResponse)
-                .timeout(java.time.Duration.ofSeconds(10));
+    private Mono<GoldPrice> fetchCoalesced() {
+        while (true) {
+            Mono<GoldPrice> existing = inFlight.get();
+            if (existing != null) {
+                coalescedCounter.increment();
+                return existing;
+            }
+
+            Sinks.One<GoldPrice> sink = Sinks.one();
+            Mono<GoldPrice> shared = sink.asMono();
+            if (!inFlight.compareAndSet(null, shared)) {
+                continue;
+            }
+
+            // 先清除共享引用再发出结果，之后到达的调用方会发起新的请求
+            fetchGuarded().subscribe(
+                    price -> {
+                        inFlight.compareAndSet(shared, null);
+                        sink.tryEmitValue(price);
+                    },
+                    error -> {
+                        inFlight.compareAndSet(shared, null);
+                        sink.tryEmitError(error);
+                    },
+                    () -> {
+                        inFlight.compareAndSet(shared, null);
+                        sink.tryEmitEmpty();
+                    });
+            return shared;
+        }
     }
 
     /**
-     * 解析goldprice.org的响应数据
+     * 经熔断器发起上游请求
+     * 熔断打开时不发起请求，立即以 {@link CircuitBreaker.RejectedException} 失败；
+     * 放行的请求按结果和耗时报告给熔断器，成功的结果保存为最近一次有效价格
      * 
-     * @param response API响应
      * @return 黄金价格对象
      */
-    private GoldPrice parseGoldApiResponse(Map<String, Object> response) {
-        try {
-            // goldprice.org 返回格式: {"items": [{"xauPrice": 2050.30, "xagPrice": 25.40, "curr": "USD", "chgXau": 5.20, "chgXag": -0.30, "pcXau": 0.25, "pcXag": -1.18, "xauClose": 2045.10, "xagClose": 25.70, "timestamp": 1698765432}]}
-            @SuppressWarnings("unchecked")
-            List<Map<String, Object>> items = (List<Map<String, Object>>) response.get("items");
-            
-            if (items == null || items.isEmpty()) {
-                throw new RuntimeException("API响应中没有找到价格数据");
+    private Mono<GoldPrice> fetchGuarded() {
+        if (!circuitBreaker.tryAcquire(System.currentTimeMillis())) {
+            rejectedCounter.increment();
+            return Mono.error(new CircuitBreaker.RejectedException("上游熔断中，"
+                    + circuitBreaker.millisUntilHalfOpen(System.currentTimeMillis()) + " ms 后重试"));
+        }
+        upstreamFetchCounter.increment();
+        long start = System.nanoTime();
+        return fetchFromApi()
+                .doOnSuccess(price -> {
+                    long now = System.currentTimeMillis();
+                    circuitBreaker.onSuccess(elapsedMillis(start), now);
+                    if (price != null) {
+                        lastGood.set(new GoldPriceSnapshotCache.Snapshot(price, now));
+                    }
+                })
+                .doOnError(error -> circuitBreaker.onError(elapsedMillis(start), System.currentTimeMillis()));
+    }
+
+    private static long elapsedMillis(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+
+    private void onCircuitTransition(CircuitBreaker.State from, CircuitBreaker.State to) {
+        if (to == CircuitBreaker.State.OPEN) {
+            log.warn("上游熔断器打开 ({} -> {})，熔断期间返回最近一次有效价格", from, to);
+        } else {
+            log.info("上游熔断器状态变化: {} -> {}", from, to);
+        }
+        meterRegistry.counter("gold.upstream.circuit.transitions", "from", from.name(), "to", to.name())
+                .increment();
+    }
+
+    /**
+     * 熔断器状态
+     * 
+     * @return 状态、窗口内失败率和慢请求率、距离半开的毫秒数、最近一次有效价格的年龄
+     */
+    public Map<String, Object> getCircuitBreakerStatus() {
+        long now = System.currentTimeMillis();
+        GoldPriceSnapshotCache.Snapshot last = lastGood.get();
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("state", circuitBreaker.getState());
+        status.put("failureRate", Math.round(circuitBreaker.failureRate() * 100) / 100.0);
+        status.put("slowCallRate", Math.round(circuitBreaker.slowCallRate() * 100) / 100.0);
+        status.put("retryInMillis", circuitBreaker.millisUntilHalfOpen(now));
+        status.put("lastGoodAgeMillis", last == null ? null : now - last.getFetchedAt());
+        return status;
+    }
+
+    /**
+     * 从外部API获取黄金价格
+     * 一次请求返回的全部货币报价写入价格矩阵，主报价（美元，缺失时取第一条）转换为黄金价格对象
+     * 
+     * @return 黄金价格对象
+     */
+    private Mono<GoldPrice> fetchFromApi() {
+        return priceSourceAggregator.fetch()
+                .doOnNext(priceMatrixService::update)
+                .map(quotes -> {
+                    GoldPrice price = primaryQuote(quotes).toGoldPrice();
+                    price.setMarketStatus(isMarketOpen() ? "OPEN" : "CLOSED");
+                    return price;
+                });
+    }
+
+    private static MetalQuote primaryQuote(List<MetalQuote> quotes) {
+        for (MetalQuote quote : quotes) {
+            if (quote.getCurrency() == CurrencyCode.USD) {
+                return quote;
             }
-            
-            Map<String, Object> priceData = items.get(0);
-            BigDecimal price = new BigDecimal(priceData.get("xauPrice").toString());
-            String currency = priceData.getOrDefault("curr", "USD").toString();
-            
-            // 获取价格变化数据
-            BigDecimal change = new BigDecimal(priceData.getOrDefault("chgXau", "0").toString());
-            BigDecimal changePercent = new BigDecimal(priceData.getOrDefault("pcXau", "0").toString());
-            
-            return GoldPrice.builder()
-                    .id(String.valueOf(System.currentTimeMillis()))
-                    .price(price)
-                    .currency(currency)
-                    .unit("oz")
-                    .change(change)
-                    .changePercent(changePercent)
-                    .timestamp(LocalDateTime.now())
-                    .source("GOLDPRICE.ORG")
-                    .marketStatus(isMarketOpen() ? "OPEN" : "CLOSED")
-                    .build();
-                    
-        } catch (Exception e) {
-            log.error("解析API响应失败: {}", e.getMessage());
-            throw new RuntimeException("解析黄金价格数据失败", e);
         }
+        return quotes.get(0);
     }
-    
+
     /**
      * 计算价格变化（简单模拟，因为免费API可能不提供历史对比）
      * 
-     * @param currentPrice 当前价格
-     * @return 价格变化
+     * @param currentPrice 当前价格（微单位）
+     * @return 价格变化（微单位）
      */
-    private BigDecimal calculatePriceChange(BigDecimal currentPrice) {
+    private long calculatePriceChange(long currentPrice) {
         // 生成-1%到+1%的随机变化
         double changePercent = (random.nextDouble() - 0.5) * 2; // -1 到 1
-        return currentPrice.multiply(BigDecimal.valueOf(changePercent / 100))
-                .setScale(2, RoundingMode.HALF_UP);
+        return FixedPrice.round(Math.round(currentPrice * changePercent / 100), 2);
     }
 
     /**
@@ -138,26 +269,23 @@ public class GoldPriceService {
      * @return 模拟的黄金价格对象
      */
     private Mono<GoldPrice> generateMockGoldPrice() {
+        mockCounter.increment();
         // 基础价格：2000美元/盎司左右
         double basePrice = 2000.0;
         
-        // 生成±50美元的随机波动
+        // 生成±50美元的随机波动，全部以微单位 long 计算
         double variation = (random.nextDouble() - 0.5) * 100;
-        BigDecimal currentPrice = BigDecimal.valueOf(basePrice + variation)
-                .setScale(2, RoundingMode.HALF_UP);
+        long currentPrice = FixedPrice.round(FixedPrice.toMicros(basePrice + variation), 2);
         
         // 计算价格变化（模拟）
-        BigDecimal change = BigDecimal.valueOf((random.nextDouble() - 0.5) * 20)
-                .setScale(2, RoundingMode.HALF_UP);
+        long change = FixedPrice.round(FixedPrice.toMicros((random.nextDouble() - 0.5) * 20), 2);
         
-        BigDecimal changePercent = change.divide(currentPrice, 4, RoundingMode.HALF_UP)
-                .multiply(BigDecimal.valueOf(100))
-                .setScale(2, RoundingMode.HALF_UP);
+        long changePercent = FixedPrice.round(FixedPrice.percentOf(change, currentPrice), 2);
         
         GoldPrice goldPrice = GoldPrice.builder()
                 .id(String.valueOf(System.currentTimeMillis()))
                 .price(currentPrice)
-                .currency("USD")
+                .currency(CurrencyCode.USD)
                 .unit("oz")
                 .change(change)
                 .changePercent(changePercent)
@@ -166,7 +294,9 @@ public class GoldPriceService {
                 .marketStatus("OPEN")
                 .build();
         
-        log.debug("生成模拟黄金价格: ${}/oz", currentPrice);
+        if (log.isDebugEnabled()) {
+            log.debug("生成模拟黄金价格: ${}/oz", FixedPrice.format(currentPrice));
+        }
         return Mono.just(goldPrice);
     }
 
@@ -176,13 +306,24 @@ public class GoldPriceService {
      * @return 市场是否开放
      */
     public boolean isMarketOpen() {
-        // 简单的市场开放时间检查
-        // 实际应用中应该考虑时区和节假日
-        LocalDateTime now = LocalDateTime.now();
-        int hour = now.getHour();
-        int dayOfWeek = now.getDayOfWeek().getValue();
-        
-        // 周一到周五，早8点到晚8点
-        return dayOfWeek >= 1 && dayOfWeek <= 5 && hour >= 8 && hour <= 20;
+        return marketCalendar.isOpen(System.currentTimeMillis());
+    }
+
+    /**
+     * 下一次开盘时刻
+     * 
+     * @return epoch 毫秒，市场开放时为当前时刻，超出交易日历范围时为 {@link MarketCalendar#NONE}
+     */
+    public long nextMarketOpen() {
+        return marketCalendar.nextOpen(System.currentTimeMillis());
+    }
+
+    /**
+     * 下一次开盘或收盘时刻
+     * 
+     * @return epoch 毫秒，超出交易日历范围时为 {@link MarketCalendar#NONE}
+     */
+    public long nextMarketTransition() {
+        return marketCalendar.nextTransition(System.currentTimeMillis());
     }
-}
\ No newline at end of file
+}
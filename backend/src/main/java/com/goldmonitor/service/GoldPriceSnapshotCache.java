@@ -0,0 +1,183 @@
+package com.goldmonitor.service;
+
+import com.goldmonitor.model.GoldPrice;
+import com.goldmonitor.scheduler.GoldPriceScheduler;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 最新价格快照缓存
+ * 由定时任务写入，REST 接口直接读取，避免每个请求都访问上游API
+ *
+ * @author Gold Monitor Team
+ * @version 1.0.0
+ */
+@Slf4j
+@Component
+public class GoldPriceSnapshotCache {
+
+    private final GoldPriceService goldPriceService;
+    private final ObjectProvider<GoldPriceScheduler> scheduler;
+    private final long maxStalenessMillis;
+
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>();
+    private final AtomicBoolean refreshing = new AtomicBoolean(false);
+    private final AtomicLong sequence = new AtomicLong();
+
+    private final Counter hitCounter;
+    private final Counter staleCounter;
+    private final Counter missCounter;
+
+    public GoldPriceSnapshotCache(GoldPriceService goldPriceService,
+                                  ObjectProvider<GoldPriceScheduler> scheduler,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${gold.cache.max-staleness:60}") long maxStalenessSeconds) {
+        this.goldPriceService = goldPriceService;
+        this.scheduler = scheduler;
+        this.maxStalenessMillis = maxStalenessSeconds * 1000;
+
+        this.hitCounter = meterRegistry.counter("gold.cache.requests", "result", "hit");
+        this.staleCounter = meterRegistry.counter("gold.cache.requests", "result", "stale");
+        this.missCounter = meterRegistry.counter("gold.cache.requests", "result", "miss");
+        Gauge.builder("gold.cache.age", this, GoldPriceSnapshotCache::getAgeSeconds)
+                .description("最新价格快照的年龄")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 写入最新价格快照
+     * 陈旧价格（上游不可用时的降级结果）按原始获取时间写入，不会让快照显得新鲜，也不会覆盖更新的快照
+     *
+     * @param goldPrice 黄金价格对象
+     */
+    public void update(GoldPrice goldPrice) {
+        if (goldPrice == null) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        if (!goldPrice.isStale()) {
+            snapshot.set(new Snapshot(goldPrice, now, sequence.incrementAndGet()));
+            return;
+        }
+        long fetchedAt = now - goldPrice.getAgeMillis();
+        Snapshot current;
+        Snapshot stale;
+        do {
+            current = snapshot.get();
+            if (current != null && isNewer(current.getGoldPrice(), goldPrice)) {
+                return;
+            }
+            // 同一次获取的价格沿用原快照的写入时间
+            stale = new Snapshot(goldPrice, current == null ? fetchedAt : Math.min(current.getFetchedAt(), fetchedAt),
+                    sequence.incrementAndGet());
+        } while (!snapshot.compareAndSet(current, stale));
+    }
+
+    private static boolean isNewer(GoldPrice current, GoldPrice stale) {
+        return current.getTimestamp() != null && stale.getTimestamp() != null
+                && current.getTimestamp().isAfter(stale.getTimestamp());
+    }
+
+    /**
+     * 读取最新价格快照
+     * 快照超过最大陈旧时间时仍然立即返回旧值，并在后台触发一次（单飞）刷新，
+     * 刷新由定时任务执行，定时轮询尚未到期或市场关闭时不访问上游；
+     * 只有缓存为空时才需要等待上游，此时返回的 Mono 在上游返回后完成，不占用调用线程
+     *
+     * @return 价格快照，无法获取时为空
+     */
+    public Mono<Snapshot> get() {
+        Snapshot current = snapshot.get();
+        if (current == null) {
+            missCounter.increment();
+            return load();
+        }
+
+        if (current.getAgeMillis() > maxStalenessMillis) {
+            staleCounter.increment();
+            refreshAsync();
+        } else {
+            hitCounter.increment();
+        }
+        return Mono.just(current);
+    }
+
+    /**
+     * 后台刷新快照，同一时刻只允许一个刷新在执行
+     * 通过定时任务获取，价格同样计入历史数据并推送给 WebSocket 客户端，定时任务写入快照
+     */
+    private void refreshAsync() {
+        GoldPriceScheduler poller = scheduler.getIfAvailable();
+        if (poller == null || !refreshing.compareAndSet(false, true)) {
+            return;
+        }
+        log.debug("价格快照已过期，后台刷新");
+        poller.refresh()
+                .doFinally(signal -> refreshing.set(false))
+                .subscribe(goldPrice -> { },
+                        error -> log.warn("后台刷新价格快照失败: {}", error.getMessage()));
+    }
+
+    /**
+     * 缓存为空时加载，并发的首次请求由 GoldPriceService 合并为一次上游调用
+     */
+    private Mono<Snapshot> load() {
+        return goldPriceService.getCurrentGoldPrice()
+                .map(goldPrice -> {
+                    update(goldPrice);
+                    return snapshot.get();
+                });
+    }
+
+    /**
+     * 获取快照年龄（秒），缓存为空时返回 -1
+     */
+    private double getAgeSeconds() {
+        Snapshot current = snapshot.get();
+        return current == null ? -1 : current.getAgeMillis() / 1000.0;
+    }
+
+    /**
+     * 不可变的价格快照
+     */
+    @Getter
+    @RequiredArgsConstructor
+    public static final class Snapshot {
+
+        private final GoldPrice goldPrice;
+
+        /**
+         * 写入时间（毫秒）
+         */
+        private final long fetchedAt;
+
+        /**
+         * 快照序号，每次写入递增，用于生成 ETag
+         */
+        private final long sequence;
+
+        /**
+         * 不写入缓存的快照（例如最近一次有效价格），序号为 0
+         */
+        public Snapshot(GoldPrice goldPrice, long fetchedAt) {
+            this(goldPrice, fetchedAt, 0);
+        }
+
+        public long getAgeMillis() {
+            return System.currentTimeMillis() - fetchedAt;
+        }
+    }
+}
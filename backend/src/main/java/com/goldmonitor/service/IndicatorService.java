@@ -0,0 +1,171 @@
+package com.goldmonitor.service;
+
+import com.goldmonitor.analytics.IndicatorEngine;
+import com.goldmonitor.model.FixedPrice;
+import com.goldmonitor.websocket.PriceFanout;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 技术指标服务
+ * 每个 tick 增量更新 SMA / EMA / RSI / 标准差 / 布林带，编码一次后推送到 /topic/gold-price/indicators；
+ * 启动时用已恢复的历史数据预热，不推送
+ *
+ * 指标值为价格单位（RSI 为 0~100），保留 4 位小数；窗口尚未填满的指标为 null
+ *
+ * @author Gold Monitor Team
+ * @version 1.0.0
+ */
+@Slf4j
+@Service
+public class IndicatorService {
+
+    public static final String INDICATOR_TOPIC = "/topic/gold-price/indicators";
+
+    private static final int DECIMALS = 4;
+
+    private final IndicatorEngine engine;
+    private final PriceFanout priceFanout;
+    private final StringBuilder payload = new StringBuilder(512);
+
+    public IndicatorService(PriceFanout priceFanout,
+                            PriceHistoryService priceHistoryService,
+                            @Value("${gold.indicators.windows:20,50,200}") int[] windows,
+                            @Value("${gold.indicators.ema-periods:12,26}") int[] emaPeriods,
+                            @Value("${gold.indicators.rsi-periods:14}") int[] rsiPeriods,
+                            @Value("${gold.indicators.bollinger-width:2}") double bollingerWidth) {
+        this.priceFanout = priceFanout;
+        this.engine = new IndicatorEngine(windows, emaPeriods, rsiPeriods, bollingerWidth);
+
+        // 用已恢复的历史数据预热指标，不推送
+        priceHistoryService.forEach(engine::update);
+    }
+
+    /**
+     * 处理一个 tick 并推送最新指标
+     *
+     * @param timestamp epoch 毫秒
+     * @param tick 定点价格
+     * @throws IllegalArgumentException 价格货币不是历史数据的货币
+     */
+    public synchronized void onTick(long timestamp, FixedPrice tick) {
+        engine.update(timestamp, tick.getMicros(PriceHistoryService.CURRENCY));
+        try {
+            priceFanout.publish(INDICATOR_TOPIC, encode());
+        } catch (Exception e) {
+            log.error("推送技术指标失败: {}", e.getMessage());
+        }
+    }
+
+    private byte[] encode() {
+        payload.setLength(0);
+        payload.append("{\"timestamp\":").append(engine.getLastTimestamp())
+                .append(",\"price\":").append(FixedPrice.format(engine.getLastPrice()))
+                .append(",\"ticks\":").append(engine.getTicks())
+                .append(",\"sma\":{");
+        for (int i = 0; i < engine.windowCount(); i++) {
+            appendEntry(i, engine.window(i), engine.sma(i));
+        }
+        payload.append("},\"stddev\":{");
+        for (int i = 0; i < engine.windowCount(); i++) {
+            appendEntry(i, engine.window(i), engine.stddev(i));
+        }
+        payload.append("},\"bollinger\":{");
+        for (int i = 0; i < engine.windowCount(); i++) {
+            if (i > 0) {
+                payload.append(',');
+            }
+            payload.append('"').append(engine.window(i)).append("\":");
+            long upper = engine.upperBand(i);
+            if (upper == IndicatorEngine.NONE) {
+                payload.append("null");
+            } else {
+                payload.append("{\"upper\":");
+                appendValue(upper);
+                payload.append(",\"lower\":");
+                appendValue(engine.lowerBand(i));
+                payload.append('}');
+            }
+        }
+        payload.append("},\"ema\":{");
+        for (int i = 0; i < engine.emaCount(); i++) {
+            appendEntry(i, engine.emaPeriod(i), engine.ema(i));
+        }
+        payload.append("},\"rsi\":{");
+        for (int i = 0; i < engine.rsiCount(); i++) {
+            appendEntry(i, engine.rsiPeriod(i), engine.rsi(i));
+        }
+        payload.append("}}");
+        return payload.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private void appendEntry(int index, int period, long value) {
+        if (index > 0) {
+            payload.append(',');
+        }
+        payload.append('"').append(period).append("\":");
+        appendValue(value);
+    }
+
+    private void appendValue(long value) {
+        if (value == IndicatorEngine.NONE) {
+            payload.append("null");
+        } else {
+            payload.append(FixedPrice.format(FixedPrice.round(value, DECIMALS)));
+        }
+    }
+
+    /**
+     * 最新指标快照
+     *
+     * @return 指标数据，还没有任何 tick 时返回 null
+     */
+    public synchronized Map<String, Object> getSnapshot() {
+        if (engine.getTicks() == 0) {
+            return null;
+        }
+        Map<String, Object> sma = new LinkedHashMap<>();
+        Map<String, Object> stddev = new LinkedHashMap<>();
+        Map<String, Object> bollinger = new LinkedHashMap<>();
+        for (int i = 0; i < engine.windowCount(); i++) {
+            String key = String.valueOf(engine.window(i));
+            sma.put(key, toDecimal(engine.sma(i)));
+            stddev.put(key, toDecimal(engine.stddev(i)));
+            Map<String, Object> band = null;
+            if (engine.upperBand(i) != IndicatorEngine.NONE) {
+                band = new LinkedHashMap<>();
+                band.put("upper", toDecimal(engine.upperBand(i)));
+                band.put("lower", toDecimal(engine.lowerBand(i)));
+            }
+            bollinger.put(key, band);
+        }
+        Map<String, Object> ema = new LinkedHashMap<>();
+        for (int i = 0; i < engine.emaCount(); i++) {
+            ema.put(String.valueOf(engine.emaPeriod(i)), toDecimal(engine.ema(i)));
+        }
+        Map<String, Object> rsi = new LinkedHashMap<>();
+        for (int i = 0; i < engine.rsiCount(); i++) {
+            rsi.put(String.valueOf(engine.rsiPeriod(i)), toDecimal(engine.rsi(i)));
+        }
+
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("timestamp", engine.getLastTimestamp());
+        snapshot.put("price", FixedPrice.toBigDecimal(engine.getLastPrice()));
+        snapshot.put("ticks", engine.getTicks());
+        snapshot.put("sma", sma);
+        snapshot.put("stddev", stddev);
+        snapshot.put("bollinger", bollinger);
+        snapshot.put("ema", ema);
+        snapshot.put("rsi", rsi);
+        return snapshot;
+    }
+
+    private static Object toDecimal(long value) {
+        return value == IndicatorEngine.NONE ? null : FixedPrice.toBigDecimal(FixedPrice.round(value, DECIMALS));
+    }
+}
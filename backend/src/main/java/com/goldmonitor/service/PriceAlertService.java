@@ -0,0 +1,233 @@
+package com.goldmonitor.service;
+
+import com.goldmonitor.alert.AlertEngine;
+import com.goldmonitor.alert.AlertRule;
+import com.goldmonitor.alert.AlertType;
+import com.goldmonitor.model.FixedPrice;
+import com.goldmonitor.websocket.SessionPrincipalHandshakeHandler;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.user.SimpUserRegistry;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+
+import java.math.BigDecimal;
+import java.security.Principal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 价格提醒服务
+ * 客户端通过 STOMP 或 REST 注册阈值 / 涨跌幅提醒，每个 tick 由 {@link AlertEngine} 评估，
+ * 只有触发的提醒发送到对应用户的 /user/queue/alerts
+ *
+ * 提醒针对主价格（XAU/USD），规则触发一次后失效。
+ * 规则只能属于当前有 STOMP 会话的用户：提醒只能送达在线用户，匿名用户的规则在连接断开时随之删除，
+ * 不会为不存在的用户积累无法送达也无法回收的规则
+ *
+ * @author Gold Monitor Team
+ * @version 1.0.0
+ */
+@Slf4j
+@Service
+public class PriceAlertService {
+
+    public static final String ALERT_QUEUE = "/queue/alerts";
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final SimpUserRegistry userRegistry;
+    private final AlertEngine engine;
+    private final Counter registeredCounter;
+    private final Counter triggeredCounter;
+
+    /**
+     * 评估时复用的输出列表，只在 onTick 中加锁使用
+     */
+    private final List<AlertRule> triggered = new ArrayList<>();
+
+    /**
+     * 最近一次 tick 的价格（微单位），用作涨跌幅提醒的基准
+     */
+    private volatile long lastPrice;
+
+    public PriceAlertService(SimpMessagingTemplate messagingTemplate,
+                             SimpUserRegistry userRegistry,
+                             MeterRegistry meterRegistry,
+                             @Value("${gold.alerts.max-rules-per-user:100}") int maxRulesPerUser,
+                             @Value("${gold.alerts.max-rules:100000}") int maxRules) {
+        this.messagingTemplate = messagingTemplate;
+        this.userRegistry = userRegistry;
+        this.engine = new AlertEngine(maxRulesPerUser, maxRules);
+        this.registeredCounter = meterRegistry.counter("gold.alerts", "event", "registered");
+        this.triggeredCounter = meterRegistry.counter("gold.alerts", "event", "triggered");
+        Gauge.builder("gold.alerts.rules", engine, AlertEngine::size)
+                .description("有效的提醒规则数")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 处理一个 tick，发送触发的提醒
+     *
+     * @param timestamp epoch 毫秒
+     * @param tick 定点价格
+     * @throws IllegalArgumentException 价格货币不是历史数据的货币
+     */
+    public synchronized void onTick(long timestamp, FixedPrice tick) {
+        long price = tick.getMicros(PriceHistoryService.CURRENCY);
+        long previous = lastPrice;
+        lastPrice = price;
+        if (engine.evaluate(price, triggered) == 0) {
+            return;
+        }
+        try {
+            for (AlertRule rule : triggered) {
+                send(rule, timestamp, previous, price);
+            }
+            triggeredCounter.increment(triggered.size());
+            if (log.isDebugEnabled()) {
+                log.debug("触发 {} 条价格提醒: {} -> {}", triggered.size(),
+                        FixedPrice.format(previous), FixedPrice.format(price));
+            }
+        } finally {
+            triggered.clear();
+        }
+    }
+
+    private void send(AlertRule rule, long timestamp, long previous, long price) {
+        Map<String, Object> alert = new LinkedHashMap<>();
+        alert.put("type", "alert");
+        alert.put("rule", toMap(rule));
+        alert.put("direction", price > previous ? "UP" : "DOWN");
+        alert.put("previousPrice", FixedPrice.toBigDecimal(previous));
+        alert.put("price", FixedPrice.toBigDecimal(price));
+        alert.put("timestamp", timestamp);
+        try {
+            messagingTemplate.convertAndSendToUser(rule.getUserId(), ALERT_QUEUE, alert);
+        } catch (Exception e) {
+            log.error("发送价格提醒失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 注册提醒规则
+     *
+     * @param userId 接收提醒的用户（STOMP 会话用户名）
+     * @param type 提醒类型（ABOVE/BELOW/PERCENT）
+     * @param value ABOVE / BELOW 为价格，PERCENT 为百分比
+     * @return 规则
+     * @throws IllegalArgumentException 参数无效，或用户没有在线的 STOMP 会话
+     * @throws IllegalStateException 规则数已达上限，或尚无当前价格
+     */
+    public Map<String, Object> register(String userId, String type, Object value) {
+        if (type == null) {
+            throw new IllegalArgumentException("提醒类型不能为空");
+        }
+        if (!isOnline(userId)) {
+            throw new IllegalArgumentException("用户没有在线的 STOMP 会话: " + userId);
+        }
+        AlertRule rule = engine.register(userId, AlertType.fromName(type), parseValue(value).getMicros(), lastPrice,
+                System.currentTimeMillis());
+        if (!isOnline(userId)) {
+            // 注册期间连接断开，断开时的清理可能已经执行过
+            engine.remove(rule.getId(), userId);
+            throw new IllegalArgumentException("用户没有在线的 STOMP 会话: " + userId);
+        }
+        registeredCounter.increment();
+        return toMap(rule);
+    }
+
+    /**
+     * 删除提醒规则
+     *
+     * @param userId 规则所属用户，必须有在线的 STOMP 会话
+     * @return 是否删除
+     */
+    public boolean remove(long ruleId, String userId) {
+        return isOnline(userId) && engine.remove(ruleId, userId);
+    }
+
+    /**
+     * 用户当前有效的规则，用户没有在线的 STOMP 会话时为空
+     */
+    public List<Map<String, Object>> getRules(String userId) {
+        if (!isOnline(userId)) {
+            return Collections.emptyList();
+        }
+        List<Map<String, Object>> rules = new ArrayList<>();
+        for (AlertRule rule : engine.rulesOf(userId)) {
+            rules.add(toMap(rule));
+        }
+        return rules;
+    }
+
+    /**
+     * 有效规则总数
+     */
+    public int getRuleCount() {
+        return engine.size();
+    }
+
+    /**
+     * 连接断开时删除随连接创建的匿名用户的规则
+     */
+    @EventListener
+    public void onSessionDisconnect(SessionDisconnectEvent event) {
+        Principal user = event.getUser();
+        if (user instanceof SessionPrincipalHandshakeHandler.SessionPrincipal) {
+            int removed = engine.removeUser(user.getName());
+            if (removed > 0) {
+                log.debug("会话 {} 断开，删除 {} 条提醒规则", event.getSessionId(), removed);
+            }
+        }
+    }
+
+    /**
+     * 定期整理已触发规则留下的索引条目
+     */
+    @Scheduled(fixedDelayString = "${gold.alerts.maintenance-interval:60000}")
+    public void maintain() {
+        engine.maintain();
+    }
+
+    private boolean isOnline(String userId) {
+        return userId != null && userRegistry.getUser(userId) != null;
+    }
+
+    private static FixedPrice parseValue(Object value) {
+        if (value == null) {
+            throw new IllegalArgumentException("阈值不能为空");
+        }
+        try {
+            return FixedPrice.of(new BigDecimal(value.toString()), PriceHistoryService.CURRENCY);
+        } catch (NumberFormatException | ArithmeticException e) {
+            throw new IllegalArgumentException("无效的阈值: " + value);
+        }
+    }
+
+    private static Map<String, Object> toMap(AlertRule rule) {
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("id", rule.getId());
+        data.put("userId", rule.getUserId());
+        data.put("type", rule.getType());
+        if (rule.getUpThreshold() != AlertRule.NONE) {
+            data.put("upThreshold", FixedPrice.toBigDecimal(rule.getUpThreshold()));
+        }
+        if (rule.getDownThreshold() != AlertRule.NONE) {
+            data.put("downThreshold", FixedPrice.toBigDecimal(rule.getDownThreshold()));
+        }
+        if (rule.getType() == AlertType.PERCENT) {
+            data.put("percent", FixedPrice.toBigDecimal(rule.getPercent()));
+        }
+        data.put("createdAt", rule.getCreatedAt());
+        return data;
+    }
+}
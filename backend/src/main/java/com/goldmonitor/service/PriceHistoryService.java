@@ -0,0 +1,124 @@
+package com.goldmonitor.service;
+
+import com.goldmonitor.history.PriceHistorySlice;
+import com.goldmonitor.history.PriceTickJournal;
+import com.goldmonitor.history.PriceTickRingBuffer;
+import com.goldmonitor.history.TickConsumer;
+import com.goldmonitor.model.CurrencyCode;
+import com.goldmonitor.model.FixedPrice;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.nio.file.Paths;
+
+/**
+ * 历史价格服务
+ * 将每次获取到的价格记录到内存环形缓冲区和磁盘日志，并提供时间范围查询；
+ * 启动时从磁盘日志回放最近的数据重建环形缓冲区；历史数据以 {@link #CURRENCY} 计价，
+ * 缓冲区和日志内部只保存微单位 long
+ *
+ * @author Gold Monitor Team
+ * @version 1.0.0
+ */
+@Slf4j
+@Service
+public class PriceHistoryService {
+
+    /**
+     * 历史价格、K线、指标和提醒使用的货币
+     */
+    public static final CurrencyCode CURRENCY = CurrencyCode.USD;
+
+    private final PriceTickRingBuffer ringBuffer;
+    private final PriceTickJournal journal;
+    private final int maxQueryLimit;
+
+    public PriceHistoryService(@Value("${gold.history.capacity:1209600}") int capacity,
+                               @Value("${gold.history.max-query-limit:100000}") int maxQueryLimit,
+                               @Value("${gold.journal.enabled:true}") boolean journalEnabled,
+                               @Value("${gold.journal.dir:data/journal}") String journalDir,
+                               @Value("${gold.journal.segment-records:1048576}") int segmentRecords) {
+        this.ringBuffer = new PriceTickRingBuffer(capacity);
+        this.maxQueryLimit = maxQueryLimit;
+        this.journal = journalEnabled ? openJournal(journalDir, segmentRecords) : null;
+        log.info("历史价格缓冲区容量: {} 个tick (约 {} MB)", capacity, capacity * 16L / (1024 * 1024));
+    }
+
+    /**
+     * 打开磁盘日志并回放到环形缓冲区，失败时仅使用内存缓冲区
+     */
+    private PriceTickJournal openJournal(String journalDir, int segmentRecords) {
+        try {
+            long start = System.nanoTime();
+            PriceTickJournal opened = PriceTickJournal.open(Paths.get(journalDir), segmentRecords);
+            long replayed = opened.replay(ringBuffer.getCapacity(), ringBuffer::append);
+            log.info("已从价格日志恢复 {} 个tick ({} 个段)，耗时 {} ms",
+                    replayed, opened.getSegmentCount(), (System.nanoTime() - start) / 1_000_000);
+            return opened;
+        } catch (Exception e) {
+            log.warn("价格日志不可用，历史数据仅保存在内存中: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * 记录一个价格 tick
+     *
+     * @param timestamp epoch 毫秒
+     * @param tick 定点价格
+     * @throws IllegalArgumentException 价格货币不是 {@link #CURRENCY}
+     */
+    public void record(long timestamp, FixedPrice tick) {
+        long price = tick.getMicros(CURRENCY);
+        ringBuffer.append(timestamp, price);
+        if (journal != null) {
+            try {
+                journal.append(timestamp, price);
+            } catch (Exception e) {
+                log.error("写入价格日志失败: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 查询历史价格
+     * 起始时间早于内存缓冲区最旧数据时从磁盘日志读取
+     *
+     * @param from 起始时间（epoch 毫秒，含）
+     * @param to 结束时间（epoch 毫秒，含）
+     * @param limit 最大返回数量，超过时返回最近的数据
+     * @return 查询结果
+     */
+    public PriceHistorySlice query(long from, long to, int limit) {
+        int effectiveLimit = limit <= 0 ? maxQueryLimit : Math.min(limit, maxQueryLimit);
+        if (journal != null && from < ringBuffer.getOldestTimestamp()) {
+            return journal.query(from, to, effectiveLimit);
+        }
+        return ringBuffer.query(from, to, effectiveLimit);
+    }
+
+    /**
+     * 按时间顺序遍历内存中的全部 tick
+     *
+     * @param consumer 回调
+     */
+    public void forEach(TickConsumer consumer) {
+        ringBuffer.forEach(consumer);
+    }
+
+    /**
+     * 当前缓存的 tick 数
+     */
+    public int size() {
+        return ringBuffer.size();
+    }
+
+    @PreDestroy
+    public void close() {
+        if (journal != null) {
+            journal.close();
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package com.goldmonitor.service;
+
+import com.goldmonitor.analytics.PriceMatrix;
+import com.goldmonitor.model.CurrencyCode;
+import com.goldmonitor.model.FixedPrice;
+import com.goldmonitor.model.Metal;
+import com.goldmonitor.model.MetalQuote;
+import com.goldmonitor.websocket.PriceFanout;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 贵金属 × 货币价格矩阵服务
+ * 每次上游请求返回的全部货币报价写入矩阵，缺失的单元格通过交叉汇率推导；
+ * 每个单元格发生变化时推送到自己的主题 /topic/price/{金属}/{货币}
+ *
+ * @author Gold Monitor Team
+ * @version 1.0.0
+ */
+@Slf4j
+@Service
+public class PriceMatrixService {
+
+    public static final String TOPIC_PREFIX = "/topic/price/";
+
+    private final PriceMatrix matrix = new PriceMatrix();
+    private final PriceFanout priceFanout;
+
+    /**
+     * 每个单元格的主题，预先生成
+     */
+    private final String[] topics = new String[PriceMatrix.cellCount()];
+
+    /**
+     * 每个单元格已推送的版本
+     */
+    private final long[] publishedVersions = new long[PriceMatrix.cellCount()];
+
+    private final long[] cellValues = new long[6];
+    private final StringBuilder payload = new StringBuilder(192);
+
+    public PriceMatrixService(PriceFanout priceFanout) {
+        this.priceFanout = priceFanout;
+        for (int cell = 0; cell < topics.length; cell++) {
+            topics[cell] = TOPIC_PREFIX + PriceMatrix.metalOf(cell) + "/" + PriceMatrix.currencyOf(cell);
+        }
+    }
+
+    /**
+     * 写入一次上游请求返回的报价
+     *
+     * @param quotes 各货币报价
+     */
+    public void update(List<MetalQuote> quotes) {
+        matrix.update(quotes, System.currentTimeMillis());
+    }
+
+    /**
+     * 推送自上次推送以来发生变化的单元格
+     *
+     * @return 推送的单元格数
+     */
+    public synchronized int publishChanges() {
+        int published = 0;
+        for (int cell = 0; cell < topics.length; cell++) {
+            if (matrix.versionOf(cell) == publishedVersions[cell]) {
+                continue;
+            }
+            byte state = matrix.read(cell, cellValues);
+            if (state == PriceMatrix.EMPTY) {
+                continue;
+            }
+            try {
+                priceFanout.publish(topics[cell], encode(cell, state));
+                publishedVersions[cell] = cellValues[5];
+                published++;
+            } catch (Exception e) {
+                log.error("推送 {} 失败: {}", topics[cell], e.getMessage());
+            }
+        }
+        return published;
+    }
+
+    private byte[] encode(int cell, byte state) {
+        payload.setLength(0);
+        payload.append("{\"metal\":\"").append(PriceMatrix.metalOf(cell))
+                .append("\",\"currency\":\"").append(PriceMatrix.currencyOf(cell))
+                .append("\",\"price\":").append(FixedPrice.format(cellValues[0]))
+                .append(",\"change\":").append(FixedPrice.format(cellValues[1]))
+                .append(",\"changePercent\":").append(FixedPrice.format(cellValues[2]))
+                .append(",\"close\":").append(FixedPrice.format(cellValues[3]))
+                .append(",\"derived\":").append(state == PriceMatrix.DERIVED)
+                .append(",\"timestamp\":").append(cellValues[4])
+                .append('}');
+        return payload.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 单个单元格
+     *
+     * @return 单元格数据，无数据时返回 null
+     */
+    public Map<String, Object> getCell(Metal metal, CurrencyCode currency) {
+        long[] values = new long[6];
+        byte state = matrix.read(PriceMatrix.cell(metal, currency), values);
+        return state == PriceMatrix.EMPTY ? null : toMap(metal, currency, state, values);
+    }
+
+    /**
+     * 矩阵快照：所有有数据的单元格，以及由金价推导的兑美元汇率和金银比
+     */
+    public Map<String, Object> getSnapshot() {
+        List<Map<String, Object>> cells = new ArrayList<>();
+        long[] values = new long[6];
+        for (int cell = 0; cell < PriceMatrix.cellCount(); cell++) {
+            byte state = matrix.read(cell, values);
+            if (state != PriceMatrix.EMPTY) {
+                cells.add(toMap(PriceMatrix.metalOf(cell), PriceMatrix.currencyOf(cell), state, values));
+            }
+        }
+
+        Map<String, Object> usdRates = new LinkedHashMap<>();
+        Map<String, Object> goldSilverRatios = new LinkedHashMap<>();
+        for (CurrencyCode currency : CurrencyCode.values()) {
+            long rate = matrix.crossRate(CurrencyCode.USD, currency);
+            if (rate > 0) {
+                usdRates.put(currency.name(), FixedPrice.toBigDecimal(rate));
+            }
+            long ratio = matrix.goldSilverRatio(currency);
+            if (ratio > 0) {
+                goldSilverRatios.put(currency.name(), FixedPrice.toBigDecimal(ratio));
+            }
+        }
+
+        Map<String, Object> snapshot = new HashMap<>();
+        snapshot.put("cells", cells);
+        snapshot.put("usdRates", usdRates);
+        snapshot.put("goldSilverRatio", goldSilverRatios);
+        return snapshot;
+    }
+
+    private static Map<String, Object> toMap(Metal metal, CurrencyCode currency, byte state, long[] values) {
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("metal", metal);
+        data.put("currency", currency);
+        data.put("price", FixedPrice.toBigDecimal(values[0]));
+        data.put("change", FixedPrice.toBigDecimal(values[1]));
+        data.put("changePercent", FixedPrice.toBigDecimal(values[2]));
+        data.put("close", FixedPrice.toBigDecimal(values[3]));
+        data.put("derived", state == PriceMatrix.DERIVED);
+        data.put("timestamp", values[4]);
+        return data;
+    }
+}
@@ -0,0 +1,228 @@
+package com.goldmonitor.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.goldmonitor.codec.GoldBinaryCodec;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * 价格接口的预序列化响应缓存
+ * /gold/current 的响应体按价格快照序号缓存，/gold/history 和 /gold/candles 按查询参数和 tick 序号缓存：
+ * 每个 tick 最多序列化一次，之后的请求直接复用同一份字节；ETag 由启动时间和序号生成，
+ * 客户端带着当前 ETag 的条件请求不需要构建响应体。
+ * JSON 和二进制线格式（{@link GoldBinaryCodec}）分别缓存，ETag 不同
+ * /gold/current 的响应体只包含快照本身，快照年龄随请求时间变化，由控制器按请求写入响应头
+ *
+ * @author Gold Monitor Team
+ * @version 1.0.0
+ */
+@Component
+public class PriceResponseCache {
+
+    private final ObjectMapper objectMapper;
+    private final GoldBinaryCodec binaryCodec;
+    private final int maxEntries;
+
+    /**
+     * 进程启动时间，避免重启后序号从头开始与旧 ETag 冲突
+     */
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+
+    private final AtomicLong tickSequence = new AtomicLong();
+    private final AtomicReference<CachedResponse> current = new AtomicReference<>();
+    private final AtomicReference<CachedResponse> currentBinary = new AtomicReference<>();
+    private final Map<String, CachedResponse> queries = new ConcurrentHashMap<>();
+
+    private final Counter notModifiedCounter;
+    private final Counter cachedCounter;
+    private final Counter serializedCounter;
+
+    public PriceResponseCache(ObjectMapper objectMapper,
+                              GoldBinaryCodec binaryCodec,
+                              MeterRegistry meterRegistry,
+                              @Value("${gold.cache.response-entries:64}") int maxEntries) {
+        this.objectMapper = objectMapper;
+        this.binaryCodec = binaryCodec;
+        this.maxEntries = maxEntries;
+
+        this.notModifiedCounter = meterRegistry.counter("gold.http.responses", "result", "not-modified");
+        this.cachedCounter = meterRegistry.counter("gold.http.responses", "result", "cached");
+        this.serializedCounter = meterRegistry.counter("gold.http.responses", "result", "serialized");
+    }
+
+    /**
+     * 历史数据和K线已经包含新的 tick，之前缓存的查询响应全部失效
+     */
+    public void onTick() {
+        tickSequence.incrementAndGet();
+        queries.clear();
+    }
+
+    /**
+     * 当前价格响应的 ETag
+     *
+     * @param snapshot 价格快照
+     * @param binary 是否为二进制线格式
+     */
+    public String currentETag(GoldPriceSnapshotCache.Snapshot snapshot, boolean binary) {
+        return etag("s", snapshot.getSequence(), binary);
+    }
+
+    /**
+     * 历史数据和K线响应的 ETag
+     *
+     * @param binary 是否为二进制线格式
+     */
+    public String tickETag(boolean binary) {
+        return etag("t", tickSequence.get(), binary);
+    }
+
+    private String etag(String kind, long sequence, boolean binary) {
+        return "\"" + epoch + "-" + kind + sequence + (binary ? "-b" : "") + "\"";
+    }
+
+    /**
+     * 当前价格的响应体，同一个快照只序列化一次
+     *
+     * @param snapshot 价格快照
+     * @param binary 是否使用二进制线格式
+     * @return 预序列化的响应
+     */
+    public CachedResponse current(GoldPriceSnapshotCache.Snapshot snapshot, boolean binary) throws Exception {
+        AtomicReference<CachedResponse> slot = binary ? currentBinary : current;
+        CachedResponse cached = slot.get();
+        if (cached != null && cached.getSequence() == snapshot.getSequence()) {
+            cachedCounter.increment();
+            return cached;
+        }
+
+        byte[] body;
+        if (binary) {
+            serializedCounter.increment();
+            body = binaryCodec.encodeTick(snapshot.getGoldPrice());
+        } else {
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("data", snapshot.getGoldPrice());
+            body = serialize(response);
+        }
+        CachedResponse built = new CachedResponse(snapshot.getSequence(), currentETag(snapshot, binary),
+                contentType(binary), body);
+
+        // 并发构建时不让较旧的快照覆盖较新的
+        slot.accumulateAndGet(built, (previous, next) ->
+                previous != null && previous.getSequence() > next.getSequence() ? previous : next);
+        return built;
+    }
+
+    /**
+     * 查询的 JSON 响应体，同一个 tick 内相同的查询只序列化一次
+     *
+     * @param key 查询键（接口和全部参数）
+     * @param builder 构建响应
+     * @return 预序列化的响应
+     */
+    public CachedResponse query(String key, Supplier<Map<String, Object>> builder) throws Exception {
+        return lookup(key, false, () -> serialize(builder.get()));
+    }
+
+    /**
+     * 查询的二进制响应体，同一个 tick 内相同的查询只编码一次
+     *
+     * @param key 查询键（接口和全部参数）
+     * @param encoder 编码响应
+     * @return 预编码的响应
+     */
+    public CachedResponse queryBinary(String key, Supplier<byte[]> encoder) throws Exception {
+        return lookup("binary:" + key, true, () -> {
+            serializedCounter.increment();
+            return encoder.get();
+        });
+    }
+
+    /**
+     * 先读取序号再构建，构建期间到达的新 tick 只会让这份响应提前失效，不会让旧数据带上新的 ETag
+     */
+    private CachedResponse lookup(String key, boolean binary, BodyWriter writer) throws Exception {
+        long sequence = tickSequence.get();
+        CachedResponse cached = queries.get(key);
+        if (cached != null && cached.getSequence() == sequence) {
+            cachedCounter.increment();
+            return cached;
+        }
+
+        CachedResponse built = new CachedResponse(sequence, etag("t", sequence, binary), contentType(binary),
+                writer.write());
+        if (queries.size() < maxEntries) {
+            queries.put(key, built);
+        }
+        return built;
+    }
+
+    private static MediaType contentType(boolean binary) {
+        return binary ? GoldBinaryCodec.MEDIA_TYPE : MediaType.APPLICATION_JSON;
+    }
+
+    private byte[] serialize(Map<String, Object> response) throws Exception {
+        serializedCounter.increment();
+        return objectMapper.writeValueAsBytes(response);
+    }
+
+    /**
+     * 判断 If-None-Match 是否命中当前 ETag，命中时计数
+     *
+     * @param ifNoneMatch 请求头，可以为 null
+     * @param etag 当前 ETag（带引号）
+     * @return 是否可以返回 304
+     */
+    public boolean notModified(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || ifNoneMatch.isEmpty()) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                // If-None-Match 使用弱比较，例如经过 gzip 的代理会把强 ETag 改为弱 ETag
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag)) {
+                notModifiedCounter.increment();
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 预序列化的响应
+     */
+    @Getter
+    @RequiredArgsConstructor
+    public static final class CachedResponse {
+
+        private final long sequence;
+
+        private final String etag;
+
+        private final MediaType contentType;
+
+        private final byte[] body;
+    }
+
+    @FunctionalInterface
+    private interface BodyWriter {
+        byte[] write() throws Exception;
+    }
+}
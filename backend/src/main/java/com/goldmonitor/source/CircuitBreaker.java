@@ -0,0 +1,218 @@
+package com.goldmonitor.source;
+
+/**
+ * 上游熔断器
+ * 关闭状态下记录最近 windowSize 次请求的结果，请求数达到 minimumCalls 后，
+ * 失败率或慢请求率（耗时超过 slowCallMillis）超过阈值即打开；
+ * 打开期间直接拒绝请求，经过 openMillis 后进入半开状态，放行 halfOpenCalls 次试探请求，
+ * 全部成功则关闭，任何一次失败或慢请求则重新打开
+ *
+ * @author Gold Monitor Team
+ * @version 1.0.0
+ */
+public class CircuitBreaker {
+
+    /**
+     * 熔断器状态，序号即指标 gold.upstream.circuit.state 的取值
+     */
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    /**
+     * 状态变化监听器，在熔断器锁内调用，不应阻塞
+     */
+    public interface TransitionListener {
+
+        void onTransition(State from, State to);
+    }
+
+    /**
+     * 熔断期间被拒绝的请求；不收集堆栈，快速失败路径上不产生额外开销
+     */
+    public static final class RejectedException extends RuntimeException {
+
+        private static final long serialVersionUID = 1L;
+
+        public RejectedException(String message) {
+            super(message, null, false, false);
+        }
+    }
+
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final long slowCallMillis;
+    private final double slowCallRateThreshold;
+    private final long openMillis;
+    private final int halfOpenCalls;
+
+    /**
+     * 最近请求的结果（环形窗口）
+     */
+    private final boolean[] failed;
+    private final boolean[] slow;
+    private int index;
+    private int count;
+    private int failures;
+    private int slowCalls;
+
+    private State state = State.CLOSED;
+    private long openedAt;
+    private int halfOpenPermitted;
+    private int halfOpenSucceeded;
+
+    private TransitionListener listener = (from, to) -> { };
+
+    /**
+     * @param windowSize 统计窗口的请求数
+     * @param minimumCalls 开始计算失败率所需的最少请求数
+     * @param failureRateThreshold 失败率阈值（0~1）
+     * @param slowCallMillis 慢请求阈值（毫秒）
+     * @param slowCallRateThreshold 慢请求率阈值（0~1）
+     * @param openMillis 打开状态持续时间（毫秒）
+     * @param halfOpenCalls 半开状态放行的试探请求数
+     */
+    public CircuitBreaker(int windowSize, int minimumCalls, double failureRateThreshold,
+                          long slowCallMillis, double slowCallRateThreshold,
+                          long openMillis, int halfOpenCalls) {
+        int size = Math.max(windowSize, 1);
+        this.failed = new boolean[size];
+        this.slow = new boolean[size];
+        this.minimumCalls = Math.max(1, Math.min(minimumCalls, size));
+        this.failureRateThreshold = failureRateThreshold;
+        this.slowCallMillis = slowCallMillis;
+        this.slowCallRateThreshold = slowCallRateThreshold;
+        this.openMillis = openMillis;
+        this.halfOpenCalls = Math.max(halfOpenCalls, 1);
+    }
+
+    public synchronized void setListener(TransitionListener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * 申请发起一次请求
+     *
+     * @param now 当前时间（毫秒）
+     * @return 是否放行；放行后必须以 {@link #onSuccess} 或 {@link #onError} 报告结果
+     */
+    public synchronized boolean tryAcquire(long now) {
+        if (state == State.OPEN) {
+            if (now - openedAt < openMillis) {
+                return false;
+            }
+            transition(State.HALF_OPEN);
+            halfOpenPermitted = 0;
+            halfOpenSucceeded = 0;
+        }
+        if (state == State.HALF_OPEN) {
+            if (halfOpenPermitted >= halfOpenCalls) {
+                return false;
+            }
+            halfOpenPermitted++;
+        }
+        return true;
+    }
+
+    /**
+     * 报告一次成功的请求，耗时超过慢请求阈值时按慢请求统计
+     *
+     * @param durationMillis 请求耗时（毫秒）
+     * @param now 当前时间（毫秒）
+     */
+    public synchronized void onSuccess(long durationMillis, long now) {
+        record(false, durationMillis >= slowCallMillis, now);
+    }
+
+    /**
+     * 报告一次失败的请求
+     *
+     * @param durationMillis 请求耗时（毫秒）
+     * @param now 当前时间（毫秒）
+     */
+    public synchronized void onError(long durationMillis, long now) {
+        record(true, durationMillis >= slowCallMillis, now);
+    }
+
+    private void record(boolean callFailed, boolean callSlow, long now) {
+        if (state == State.HALF_OPEN) {
+            if (callFailed || callSlow) {
+                open(now);
+            } else if (++halfOpenSucceeded >= halfOpenCalls) {
+                resetWindow();
+                transition(State.CLOSED);
+            }
+            return;
+        }
+        if (state == State.OPEN) {
+            // 打开前已放行的请求迟到的结果，不再计入窗口
+            return;
+        }
+
+        if (count == failed.length) {
+            failures -= failed[index] ? 1 : 0;
+            slowCalls -= slow[index] ? 1 : 0;
+        } else {
+            count++;
+        }
+        failed[index] = callFailed;
+        slow[index] = callSlow;
+        failures += callFailed ? 1 : 0;
+        slowCalls += callSlow ? 1 : 0;
+        index = (index + 1) % failed.length;
+
+        if (count >= minimumCalls
+                && ((double) failures / count >= failureRateThreshold
+                || (double) slowCalls / count >= slowCallRateThreshold)) {
+            open(now);
+        }
+    }
+
+    private void open(long now) {
+        openedAt = now;
+        resetWindow();
+        transition(State.OPEN);
+    }
+
+    private void resetWindow() {
+        index = 0;
+        count = 0;
+        failures = 0;
+        slowCalls = 0;
+    }
+
+    private void transition(State to) {
+        State from = state;
+        state = to;
+        if (from != to) {
+            listener.onTransition(from, to);
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    /**
+     * 窗口内的失败率（0~1），请求数不足时为 0
+     */
+    public synchronized double failureRate() {
+        return count == 0 ? 0 : (double) failures / count;
+    }
+
+    /**
+     * 窗口内的慢请求率（0~1），请求数不足时为 0
+     */
+    public synchronized double slowCallRate() {
+        return count == 0 ? 0 : (double) slowCalls / count;
+    }
+
+    /**
+     * 距离进入半开状态的毫秒数，未打开时为 0
+     */
+    public synchronized long millisUntilHalfOpen(long now) {
+        return state == State.OPEN ? Math.max(0, openedAt + openMillis - now) : 0;
+    }
+}
@@ -0,0 +1,190 @@
+package com.goldmonitor.source;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.goldmonitor.model.CurrencyCode;
+import com.goldmonitor.model.FixedPrice;
+import com.goldmonitor.model.MetalQuote;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * goldprice.org 响应的流式解码器
+ * 直接用 JsonParser 逐个 token 读取，只取 items 中每种货币需要的字段，其余内容跳过，
+ * 不构建 Map/List 树，数字直接从解析器的字符缓冲转为微单位 long，不经过 Double/BigDecimal；
+ * 不在 {@link CurrencyCode} 中的货币跳过（每种货币只记录一次警告），不影响其他货币的报价
+ *
+ * 响应格式：
+ * <pre>
+ * {"items": [{"xauPrice": 2050.30, "xagPrice": 25.40, "curr": "USD", "chgXau": 5.20, "chgXag": -0.30,
+ *             "pcXau": 0.25, "pcXag": -1.18, "xauClose": 2045.10, "xagClose": 25.70},
+ *            {"curr": "EUR", ...}], ...}
+ * </pre>
+ *
+ * @author Gold Monitor Team
+ * @version 1.0.0
+ */
+@Slf4j
+public final class GoldPriceOrgDecoder {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private static final Set<String> UNSUPPORTED_CURRENCIES = ConcurrentHashMap.newKeySet();
+
+    private GoldPriceOrgDecoder() {
+    }
+
+    /**
+     * 解码响应
+     *
+     * @param content 响应体
+     * @return 各货币的报价，按响应中的顺序
+     * @throws IOException JSON 格式错误或缺少价格数据
+     */
+    public static List<MetalQuote> decode(InputStream content) throws IOException {
+        try (JsonParser parser = JSON_FACTORY.createParser(content)) {
+            return decode(parser);
+        }
+    }
+
+    /**
+     * 解码响应
+     *
+     * @param content 响应体
+     * @return 各货币的报价，按响应中的顺序
+     * @throws IOException JSON 格式错误或缺少价格数据
+     */
+    public static List<MetalQuote> decode(byte[] content) throws IOException {
+        try (JsonParser parser = JSON_FACTORY.createParser(content)) {
+            return decode(parser);
+        }
+    }
+
+    private static List<MetalQuote> decode(JsonParser parser) throws IOException {
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            throw new IOException("API响应不是JSON对象");
+        }
+        List<MetalQuote> quotes = new ArrayList<>(4);
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            JsonToken value = parser.nextToken();
+            if ("items".equals(field) && value == JsonToken.START_ARRAY) {
+                while ((value = parser.nextToken()) != JsonToken.END_ARRAY) {
+                    if (value == JsonToken.START_OBJECT) {
+                        MetalQuote quote = readQuote(parser);
+                        if (quote != null) {
+                            quotes.add(quote);
+                        }
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+                continue;
+            }
+            parser.skipChildren();
+        }
+        if (quotes.isEmpty()) {
+            throw new IOException("API响应中没有找到价格数据");
+        }
+        return quotes;
+    }
+
+    /**
+     * @return 报价，货币不受支持时返回 null
+     */
+    private static MetalQuote readQuote(JsonParser parser) throws IOException {
+        MetalQuote quote = new MetalQuote();
+        quote.setCurrency(CurrencyCode.USD);
+        boolean hasXauPrice = false;
+        boolean supported = true;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            parser.nextToken();
+            switch (field) {
+                case "curr":
+                    CurrencyCode currency = readCurrency(parser);
+                    if (currency != null) {
+                        quote.setCurrency(currency);
+                    } else {
+                        supported = false;
+                    }
+                    break;
+                case "xauPrice":
+                    quote.setXauPrice(readMicros(parser));
+                    hasXauPrice = true;
+                    break;
+                case "chgXau":
+                    quote.setXauChange(readMicros(parser));
+                    break;
+                case "pcXau":
+                    quote.setXauChangePercent(readMicros(parser));
+                    break;
+                case "xauClose":
+                    quote.setXauClose(readMicros(parser));
+                    break;
+                case "xagPrice":
+                    quote.setXagPrice(readMicros(parser));
+                    break;
+                case "chgXag":
+                    quote.setXagChange(readMicros(parser));
+                    break;
+                case "pcXag":
+                    quote.setXagChangePercent(readMicros(parser));
+                    break;
+                case "xagClose":
+                    quote.setXagClose(readMicros(parser));
+                    break;
+                default:
+                    parser.skipChildren();
+                    break;
+            }
+        }
+        if (!supported) {
+            return null;
+        }
+        if (!hasXauPrice) {
+            throw new IOException("API响应中没有找到黄金价格");
+        }
+        return quote;
+    }
+
+    private static CurrencyCode readCurrency(JsonParser parser) throws IOException {
+        String code = parser.getValueAsString();
+        try {
+            return CurrencyCode.fromCode(code);
+        } catch (IllegalArgumentException e) {
+            if (UNSUPPORTED_CURRENCIES.add(String.valueOf(code))) {
+                log.warn("API响应中的货币 {} 不受支持，跳过该报价", code);
+            }
+            return null;
+        }
+    }
+
+    /**
+     * 读取数字字段（微单位），兼容以字符串形式给出的数字，null 按 0 处理
+     */
+    private static long readMicros(JsonParser parser) throws IOException {
+        switch (parser.currentToken()) {
+            case VALUE_NUMBER_INT:
+            case VALUE_NUMBER_FLOAT:
+            case VALUE_STRING:
+                try {
+                    return FixedPrice.parseMicros(parser.getTextCharacters(), parser.getTextOffset(),
+                            parser.getTextLength());
+                } catch (NumberFormatException | ArithmeticException e) {
+                    throw new IOException("字段 " + parser.getCurrentName() + " 不是有效数字: " + parser.getText(), e);
+                }
+            case VALUE_NULL:
+                return 0;
+            default:
+                throw new IOException("字段 " + parser.getCurrentName() + " 不是数字");
+        }
+    }
+}
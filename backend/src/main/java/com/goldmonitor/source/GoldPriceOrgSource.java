@@ -0,0 +1,74 @@
+package com.goldmonitor.source;
+
+import com.goldmonitor.model.MetalQuote;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * goldprice.org 格式的数据源
+ * 任何返回相同 JSON 格式（dbXRates）的地址都可以作为数据源；
+ * dbXRates 支持一次请求多种货币（/dbXRates/USD,EUR,CNY），每种货币返回一条报价
+ *
+ * @author Gold Monitor Team
+ * @version 1.0.0
+ */
+@Slf4j
+public class GoldPriceOrgSource implements PriceSource {
+
+    private final String name;
+    private final String url;
+    private final WebClient webClient;
+    private final Timer parseTimer;
+
+    public GoldPriceOrgSource(String name, String url, WebClient webClient, Timer parseTimer) {
+        this.name = name;
+        this.url = url;
+        this.webClient = webClient;
+        this.parseTimer = parseTimer;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    /**
+     * 请求并解码价格：响应体的 DataBuffer 合并后直接交给流式解码器，不经过 Map 中间表示
+     */
+    @Override
+    public Mono<List<MetalQuote>> fetch() {
+        return DataBufferUtils.join(webClient.get()
+                        .uri(url)
+                        .retrieve()
+                        .bodyToFlux(DataBuffer.class))
+                .map(this::decode);
+    }
+
+    private List<MetalQuote> decode(DataBuffer body) {
+        try (InputStream content = body.asInputStream(true)) {
+            long start = System.nanoTime();
+            List<MetalQuote> quotes = GoldPriceOrgDecoder.decode(content);
+            parseTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            for (MetalQuote quote : quotes) {
+                quote.setSource(name);
+            }
+            return quotes;
+        } catch (IOException e) {
+            log.error("解析API响应失败: {}", e.getMessage());
+            throw new IllegalStateException("解析黄金价格数据失败", e);
+        }
+    }
+}
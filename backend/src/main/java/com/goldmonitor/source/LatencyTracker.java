@@ -0,0 +1,54 @@
+package com.goldmonitor.source;
+
+import java.util.Arrays;
+
+/**
+ * 数据源延迟统计
+ * 保存最近若干次成功请求的耗时，用于计算对冲请求的等待时间
+ *
+ * @author Gold Monitor Team
+ * @version 1.0.0
+ */
+public class LatencyTracker {
+
+    private final long[] samples;
+    private long count;
+
+    public LatencyTracker(int windowSize) {
+        this.samples = new long[windowSize];
+    }
+
+    /**
+     * 记录一次耗时
+     *
+     * @param millis 耗时（毫秒）
+     */
+    public synchronized void record(long millis) {
+        samples[(int) (count % samples.length)] = millis;
+        count++;
+    }
+
+    /**
+     * 计算分位数
+     *
+     * @param quantile 分位（0~1）
+     * @param defaultValue 没有样本时的返回值
+     * @return 分位数（毫秒）
+     */
+    public long percentile(double quantile, long defaultValue) {
+        long[] sorted;
+        synchronized (this) {
+            if (count == 0) {
+                return defaultValue;
+            }
+            sorted = Arrays.copyOf(samples, (int) Math.min(count, samples.length));
+        }
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+
+    public synchronized long getCount() {
+        return count;
+    }
+}
@@ -0,0 +1,27 @@
+package com.goldmonitor.source;
+
+import com.goldmonitor.model.MetalQuote;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * 上游价格数据源
+ *
+ * @author Gold Monitor Team
+ * @version 1.0.0
+ */
+public interface PriceSource {
+
+    /**
+     * 数据源名称，会写入报价的 source 字段
+     */
+    String getName();
+
+    /**
+     * 获取一次最新价格，一次请求尽量取回全部货币
+     *
+     * @return 各货币的金银报价，至少一条
+     */
+    Mono<List<MetalQuote>> fetch();
+}
@@ -0,0 +1,254 @@
+package com.goldmonitor.source;
+
+import com.goldmonitor.model.CurrencyCode;
+import com.goldmonitor.model.MetalQuote;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 多数据源聚合器
+ * hedged 模式：先请求第一个数据源，超过其 p95 延迟仍未返回时再请求下一个（前一个失败时立即请求），
+ * 取最先返回的有效结果；consensus 模式：同时请求全部数据源，取价格中位数
+ *
+ * 数据源地址中的 {currencies} 会被替换为 gold.api.currencies 配置的货币列表（逗号分隔），
+ * 一次请求取回全部货币的报价；不在 {@link CurrencyCode} 中的货币在启动时移除
+ *
+ * @author Gold Monitor Team
+ * @version 1.0.0
+ */
+@Slf4j
+@Component
+public class PriceSourceAggregator {
+
+    private static final int LATENCY_WINDOW = 128;
+    private static final double HEDGE_QUANTILE = 0.95;
+
+    private final List<TrackedSource> sources;
+    private final String mode;
+    private final Duration timeout;
+    private final long minHedgeDelay;
+    private final long maxHedgeDelay;
+    private final long defaultHedgeDelay;
+    private final UpstreamQuota quota;
+
+    public PriceSourceAggregator(WebClient.Builder webClientBuilder,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${gold.api.sources:GOLDPRICE.ORG=${gold.api.url}}") String[] sourceSpecs,
+                                 @Value("${gold.api.currencies:USD}") String[] currencies,
+                                 @Value("${gold.api.mode:hedged}") String mode,
+                                 @Value("${gold.api.timeout:10000}") long timeoutMillis,
+                                 @Value("${gold.api.hedge.min-delay:100}") long minHedgeDelay,
+                                 @Value("${gold.api.hedge.max-delay:3000}") long maxHedgeDelay,
+                                 @Value("${gold.api.hedge.default-delay:1000}") long defaultHedgeDelay,
+                                 @Value("${gold.api.rate-limit.requests-per-hour:3600}") int requestsPerHour,
+                                 @Value("${gold.api.rate-limit.burst:120}") int burst) {
+        WebClient webClient = webClientBuilder.build();
+        String currencyList = String.join(",", supportedCurrencies(currencies));
+        List<TrackedSource> configured = new ArrayList<>();
+        for (String spec : sourceSpecs) {
+            String trimmed = spec.trim().replace("{currencies}", currencyList);
+            if (!trimmed.isEmpty()) {
+                configured.add(new TrackedSource(createSource(trimmed, webClient, meterRegistry), meterRegistry));
+            }
+        }
+        if (configured.isEmpty()) {
+            throw new IllegalStateException("至少需要配置一个价格数据源 (gold.api.sources)");
+        }
+        this.sources = Collections.unmodifiableList(configured);
+        this.mode = mode;
+        this.timeout = Duration.ofMillis(timeoutMillis);
+        this.minHedgeDelay = minHedgeDelay;
+        this.maxHedgeDelay = maxHedgeDelay;
+        this.defaultHedgeDelay = defaultHedgeDelay;
+        this.quota = new UpstreamQuota(requestsPerHour, burst);
+        log.info("价格数据源 ({} 模式): {}", mode, sources.stream().map(s -> s.source.getName()).toArray());
+    }
+
+    /**
+     * 过滤掉不支持的货币，一个都不剩时使用 USD
+     */
+    private static List<String> supportedCurrencies(String[] currencies) {
+        List<String> supported = new ArrayList<>(currencies.length);
+        for (String currency : currencies) {
+            String code = currency.trim();
+            if (code.isEmpty()) {
+                continue;
+            }
+            try {
+                supported.add(CurrencyCode.fromCode(code).name());
+            } catch (IllegalArgumentException e) {
+                log.warn("gold.api.currencies 中的 {} 不受支持，已忽略（支持的货币: {}）",
+                        code, Arrays.toString(CurrencyCode.values()));
+            }
+        }
+        if (supported.isEmpty()) {
+            supported.add(CurrencyCode.USD.name());
+        }
+        return supported;
+    }
+
+    /**
+     * 解析数据源配置，格式为 "名称=地址" 或直接写地址
+     */
+    private static PriceSource createSource(String spec, WebClient webClient, MeterRegistry meterRegistry) {
+        int separator = spec.indexOf('=');
+        String name;
+        String url;
+        if (separator > 0 && !spec.substring(0, separator).contains("://")) {
+            name = spec.substring(0, separator).trim();
+            url = spec.substring(separator + 1).trim();
+        } else {
+            name = URI.create(spec).getHost();
+            url = spec;
+        }
+        Timer parseTimer = Timer.builder("gold.upstream.parse")
+                .description("上游响应解码耗时")
+                .tag("source", name)
+                .register(meterRegistry);
+        return new GoldPriceOrgSource(name, url, webClient, parseTimer);
+    }
+
+    private static Timer fetchTimer(MeterRegistry meterRegistry, String source, String outcome) {
+        return Timer.builder("gold.upstream.fetch")
+                .description("上游数据源请求耗时（含解码）")
+                .tag("source", source)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    /**
+     * 获取一次价格
+     *
+     * @return 各货币的金银报价，第一条为主报价
+     */
+    public Mono<List<MetalQuote>> fetch() {
+        return "consensus".equalsIgnoreCase(mode) ? consensus() : hedged();
+    }
+
+    /**
+     * 对冲请求：第 i 个数据源在前一个数据源的 p95 延迟之后（或前一个失败时）才发出
+     */
+    private Mono<List<MetalQuote>> hedged() {
+        if (sources.size() == 1) {
+            return timed(sources.get(0)).timeout(timeout);
+        }
+        List<Mono<List<MetalQuote>>> attempts = new ArrayList<>(sources.size());
+        Sinks.Empty<Void> previousFailed = null;
+        long delay = 0;
+        for (TrackedSource tracked : sources) {
+            Sinks.Empty<Void> failed = Sinks.empty();
+            Mono<List<MetalQuote>> attempt = timed(tracked).doOnError(error -> failed.tryEmitEmpty());
+            if (previousFailed != null) {
+                delay += hedgeDelay(attempts.size() - 1);
+                Mono<Long> trigger = Mono.firstWithSignal(
+                        Mono.delay(Duration.ofMillis(delay)),
+                        previousFailed.asMono().then(Mono.just(0L)));
+                attempt = attempt.delaySubscription(trigger);
+            }
+            attempts.add(attempt);
+            previousFailed = failed;
+        }
+        return Mono.firstWithValue(attempts).timeout(timeout);
+    }
+
+    /**
+     * 中位数共识：同时请求全部数据源，忽略失败的数据源，按主报价的金价取中位数
+     */
+    private Mono<List<MetalQuote>> consensus() {
+        return Flux.fromIterable(sources)
+                .flatMap(tracked -> timed(tracked)
+                        .timeout(timeout)
+                        .onErrorResume(error -> {
+                            log.warn("数据源 {} 请求失败: {}", tracked.source.getName(), error.getMessage());
+                            return Mono.empty();
+                        }))
+                .collectList()
+                .flatMap(results -> {
+                    if (results.isEmpty()) {
+                        return Mono.error(new IllegalStateException("所有价格数据源均不可用"));
+                    }
+                    results.sort(Comparator.comparingLong(quotes -> quotes.get(0).getXauPrice()));
+                    return Mono.just(results.get((results.size() - 1) / 2));
+                });
+    }
+
+    /**
+     * 请求单个数据源，记录配额消耗，校验结果并记录请求耗时（被对冲取消的请求不计入）
+     */
+    private Mono<List<MetalQuote>> timed(TrackedSource tracked) {
+        return Mono.defer(() -> {
+            quota.record(System.currentTimeMillis());
+            long start = System.nanoTime();
+            return tracked.source.fetch()
+                    .filter(PriceSourceAggregator::isValid)
+                    .switchIfEmpty(Mono.error(() -> new IllegalStateException(
+                            "数据源 " + tracked.source.getName() + " 返回了无效价格")))
+                    .doOnNext(quotes -> {
+                        long elapsed = System.nanoTime() - start;
+                        tracked.latency.record(elapsed / 1_000_000);
+                        tracked.successTimer.record(elapsed, TimeUnit.NANOSECONDS);
+                    })
+                    .doOnError(error -> tracked.errorTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS));
+        });
+    }
+
+    private static boolean isValid(List<MetalQuote> quotes) {
+        return !quotes.isEmpty() && quotes.get(0).getXauPrice() > 0;
+    }
+
+    /**
+     * 计算第 index 个数据源之后的对冲等待时间
+     */
+    private long hedgeDelay(int index) {
+        long p95 = sources.get(index).latency.percentile(HEDGE_QUANTILE, defaultHedgeDelay);
+        return Math.max(minHedgeDelay, Math.min(maxHedgeDelay, p95));
+    }
+
+    /**
+     * 各数据源的 p95 延迟（毫秒），用于状态展示
+     */
+    public List<String> describeSources() {
+        List<String> descriptions = new ArrayList<>(sources.size());
+        for (TrackedSource tracked : sources) {
+            descriptions.add(tracked.source.getName() + " p95=" + tracked.latency.percentile(HEDGE_QUANTILE, -1) + "ms");
+        }
+        return descriptions;
+    }
+
+    /**
+     * 上游请求配额，对冲请求实际发出的每一次请求都计入
+     */
+    public UpstreamQuota getQuota() {
+        return quota;
+    }
+
+    private static final class TrackedSource {
+
+        private final PriceSource source;
+        private final LatencyTracker latency = new LatencyTracker(LATENCY_WINDOW);
+        private final Timer successTimer;
+        private final Timer errorTimer;
+
+        private TrackedSource(PriceSource source, MeterRegistry meterRegistry) {
+            this.source = source;
+            this.successTimer = fetchTimer(meterRegistry, source.getName(), "success");
+            this.errorTimer = fetchTimer(meterRegistry, source.getName(), "error");
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.goldmonitor.source;
+
+/**
+ * 上游请求配额
+ * 令牌桶：容量为允许的突发请求数，按每小时请求数匀速补充；
+ * 只记录消耗、不拒绝请求，由调度器根据剩余额度放慢轮询
+ *
+ * @author Gold Monitor Team
+ * @version 1.0.0
+ */
+public class UpstreamQuota {
+
+    private final double capacity;
+    private final double tokensPerMilli;
+
+    private double tokens;
+    private long updatedAt;
+
+    /**
+     * @param requestsPerHour 每小时允许的请求数
+     * @param burst 允许的突发请求数
+     */
+    public UpstreamQuota(int requestsPerHour, int burst) {
+        this.capacity = Math.max(burst, 1);
+        this.tokensPerMilli = Math.max(requestsPerHour, 1) / 3_600_000.0;
+        this.tokens = capacity;
+        this.updatedAt = System.currentTimeMillis();
+    }
+
+    /**
+     * 记录一次上游请求
+     */
+    public synchronized void record(long now) {
+        refill(now);
+        // 允许透支到负一个桶，持续超额时等待时间相应变长
+        tokens = Math.max(tokens - 1, -capacity);
+    }
+
+    /**
+     * 剩余额度比例（0~1）
+     */
+    public synchronized double headroom(long now) {
+        refill(now);
+        return Math.max(0, tokens / capacity);
+    }
+
+    /**
+     * 距离可以再发出一次请求的毫秒数，有余额时为 0
+     */
+    public synchronized long millisUntilAvailable(long now) {
+        refill(now);
+        return tokens >= 1 ? 0 : (long) Math.ceil((1 - tokens) / tokensPerMilli);
+    }
+
+    /**
+     * 按配额持续请求时的最小间隔（毫秒）
+     */
+    public long sustainedInterval() {
+        return (long) Math.ceil(1 / tokensPerMilli);
+    }
+
+    private void refill(long now) {
+        if (now > updatedAt) {
+            tokens = Math.min(capacity, tokens + (now - updatedAt) * tokensPerMilli);
+            updatedAt = now;
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.goldmonitor.stream;
+
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.QueryStringDecoder;
+import lombok.extern.slf4j.Slf4j;
+import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.http.server.HttpServerRequest;
+import reactor.netty.http.server.HttpServerResponse;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * 独立的价格流服务器
+ * 在单独的端口上用 Reactor Netty 提供与 /gold/stream、/gold/stream/ndjson 相同的流：
+ * 空闲连接只占用 Netty 通道本身，不像 Servlet 异步请求那样各自保留请求和响应缓冲；
+ * 每个 tick 的帧是所有连接共享的同一个字节数组，写出时不复制，通道不可写时停止向该连接请求数据
+ *
+ * @author Gold Monitor Team
+ * @version 1.0.0
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "gold.stream.server.enabled", havingValue = "true")
+public class PriceStreamServer {
+
+    private final PriceStreamService priceStreamService;
+    private final String host;
+    private final int port;
+
+    private DisposableServer server;
+
+    public PriceStreamServer(PriceStreamService priceStreamService,
+                             @Value("${gold.stream.server.host:0.0.0.0}") String host,
+                             @Value("${gold.stream.server.port:8081}") int port) {
+        this.priceStreamService = priceStreamService;
+        this.host = host;
+        this.port = port;
+    }
+
+    @PostConstruct
+    public void start() {
+        server = HttpServer.create()
+                .host(host)
+                .port(port)
+                .route(routes -> routes
+                        .get("/gold/stream", (request, response) -> stream(request, response,
+                                MediaType.TEXT_EVENT_STREAM_VALUE, priceStreamService::sseFrames))
+                        .get("/gold/stream/ndjson", (request, response) -> stream(request, response,
+                                PriceStreamService.NDJSON_VALUE, priceStreamService::ndjsonFrames)))
+                .bindNow();
+        log.info("价格流服务器已启动: {}:{}", host, server.port());
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (server != null) {
+            server.disposeNow();
+        }
+    }
+
+    private Publisher<Void> stream(HttpServerRequest request, HttpServerResponse response, String contentType,
+                                   Function<Long, Flux<byte[]>> frames) {
+        Long lastEventId;
+        try {
+            lastEventId = lastEventId(request);
+        } catch (NumberFormatException e) {
+            return response.status(HttpResponseStatus.BAD_REQUEST)
+                    .header(HttpHeaderNames.CONTENT_TYPE, "text/plain;charset=UTF-8")
+                    .sendString(Flux.just("无效的事件 ID: " + e.getMessage()), StandardCharsets.UTF_8);
+        }
+        return response
+                .header(HttpHeaderNames.CONTENT_TYPE, contentType)
+                .header(HttpHeaderNames.CACHE_CONTROL, "no-cache")
+                .header(HttpHeaderNames.ACCESS_CONTROL_ALLOW_ORIGIN, "*")
+                .sendByteArray(frames.apply(lastEventId));
+    }
+
+    /**
+     * Last-Event-ID 请求头优先，其次为 lastEventId 查询参数
+     */
+    private static Long lastEventId(HttpServerRequest request) {
+        String header = request.requestHeaders().get("Last-Event-ID");
+        if (header != null && !header.isEmpty()) {
+            return Long.parseLong(header.trim());
+        }
+        List<String> values = new QueryStringDecoder(request.uri()).parameters().get("lastEventId");
+        return values == null || values.isEmpty() ? null : Long.parseLong(values.get(0));
+    }
+
+    /**
+     * 实际监听的端口（配置为 0 时由系统分配）
+     */
+    public int getPort() {
+        return server.port();
+    }
+}
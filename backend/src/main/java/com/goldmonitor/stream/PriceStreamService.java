@@ -0,0 +1,170 @@
+package com.goldmonitor.stream;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 价格事件流（SSE / NDJSON）
+ * 所有连接共享同一个热 Flux：每个 tick 只构建一次事件（SSE 事件、NDJSON 行以及编码好的字节帧都预先生成），
+ * 共享的回放缓冲保留最近若干个 tick，断线重连时按 Last-Event-ID 补发；
+ * 每个连接有自己的有界缓冲，客户端读得慢时丢弃最旧的事件，不影响其他连接
+ *
+ * 事件 ID 为 tick 时间（epoch 毫秒，严格递增），服务重启后仍可用于续传
+ *
+ * @author Gold Monitor Team
+ * @version 1.0.0
+ */
+@Slf4j
+@Service
+public class PriceStreamService {
+
+    public static final String EVENT_NAME = "price";
+    public static final String NDJSON_VALUE = "application/x-ndjson";
+
+    private static final StreamEvent HEARTBEAT = new StreamEvent(-1,
+            ServerSentEvent.<String>builder().comment("heartbeat").build(), "\n",
+            ":heartbeat\n\n".getBytes(StandardCharsets.UTF_8), "\n".getBytes(StandardCharsets.UTF_8));
+
+    /**
+     * 最近 tick 的回放缓冲，新订阅者先收到缓冲中的事件再接收实时事件，两者之间没有空隙
+     */
+    private final Sinks.Many<StreamEvent> ticks;
+    private final Flux<StreamEvent> heartbeats;
+    private final int connectionBacklog;
+
+    private volatile long latestId;
+
+    private final AtomicInteger connections = new AtomicInteger();
+    private final Counter droppedCounter;
+
+    public PriceStreamService(MeterRegistry meterRegistry,
+                              @Value("${gold.stream.replay-size:256}") int replaySize,
+                              @Value("${gold.stream.connection-backlog:256}") int connectionBacklog,
+                              @Value("${gold.stream.heartbeat-interval:15000}") long heartbeatMillis) {
+        this.ticks = Sinks.many().replay().limit(Math.max(replaySize, 1));
+        // 所有连接共用一个定时器
+        this.heartbeats = Flux.interval(Duration.ofMillis(heartbeatMillis))
+                .map(tick -> HEARTBEAT)
+                .share();
+        // 续传时回放的事件也要放得下
+        this.connectionBacklog = Math.max(connectionBacklog, replaySize);
+
+        this.droppedCounter = meterRegistry.counter("gold.stream.dropped");
+        Gauge.builder("gold.stream.connections", connections, AtomicInteger::get)
+                .description("当前 SSE / NDJSON 价格流连接数")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 发布一个 tick
+     *
+     * @param timestamp tick 时间（epoch 毫秒）
+     * @param json 预序列化的价格 JSON
+     */
+    public synchronized void publish(long timestamp, byte[] json) {
+        long id = Math.max(timestamp, latestId + 1);
+        String data = new String(json, StandardCharsets.UTF_8);
+        ServerSentEvent<String> sse = ServerSentEvent.builder(data)
+                .id(Long.toString(id))
+                .event(EVENT_NAME)
+                .build();
+        String line = "{\"id\":" + id + ",\"data\":" + data + "}\n";
+        String frame = "id:" + id + "\nevent:" + EVENT_NAME + "\ndata:" + data + "\n\n";
+        latestId = id;
+        ticks.tryEmitNext(new StreamEvent(id, sse, line,
+                frame.getBytes(StandardCharsets.UTF_8), line.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * SSE 事件流
+     *
+     * @param lastEventId 客户端最后收到的事件 ID，为空时从最新的 tick 开始
+     * @return 价格事件和心跳注释
+     */
+    public Flux<ServerSentEvent<String>> sse(Long lastEventId) {
+        return events(lastEventId).map(event -> event.sse);
+    }
+
+    /**
+     * NDJSON 事件流，每行 {"id":..., "data":{价格}}，心跳为空行
+     *
+     * @param lastEventId 客户端最后收到的事件 ID，为空时从最新的 tick 开始
+     * @return 每个元素为一行（含换行符：Spring MVC 按原样写出字符串元素，不会补分隔符）
+     */
+    public Flux<String> ndjson(Long lastEventId) {
+        return events(lastEventId).map(event -> event.ndjson);
+    }
+
+    /**
+     * 编码好的 SSE 帧，所有连接共享同一个字节数组，供独立的流服务器直接写出
+     *
+     * @param lastEventId 客户端最后收到的事件 ID，为空时从最新的 tick 开始
+     * @return SSE 帧
+     */
+    public Flux<byte[]> sseFrames(Long lastEventId) {
+        return events(lastEventId).map(event -> event.sseFrame);
+    }
+
+    /**
+     * 编码好的 NDJSON 行（含换行符）
+     *
+     * @param lastEventId 客户端最后收到的事件 ID，为空时从最新的 tick 开始
+     * @return NDJSON 行
+     */
+    public Flux<byte[]> ndjsonFrames(Long lastEventId) {
+        return events(lastEventId).map(event -> event.ndjsonFrame);
+    }
+
+    private Flux<StreamEvent> events(Long lastEventId) {
+        return Flux.defer(() -> {
+            long latest = latestId;
+            // 不续传或 ID 来自未来（例如其他实例）时从最新的 tick 开始
+            long after = lastEventId == null || lastEventId > latest ? latest - 1 : lastEventId;
+            return Flux.merge(ticks.asFlux().filter(event -> event.id > after), heartbeats)
+                    .onBackpressureBuffer(connectionBacklog, event -> droppedCounter.increment(),
+                            BufferOverflowStrategy.DROP_OLDEST)
+                    .doOnSubscribe(subscription -> connections.incrementAndGet())
+                    .doFinally(signal -> connections.decrementAndGet());
+        });
+    }
+
+    /**
+     * 当前连接数
+     */
+    public int getConnectionCount() {
+        return connections.get();
+    }
+
+    /**
+     * 预先生成的事件，所有连接共享
+     */
+    private static final class StreamEvent {
+
+        private final long id;
+        private final ServerSentEvent<String> sse;
+        private final String ndjson;
+        private final byte[] sseFrame;
+        private final byte[] ndjsonFrame;
+
+        private StreamEvent(long id, ServerSentEvent<String> sse, String ndjson, byte[] sseFrame,
+                            byte[] ndjsonFrame) {
+            this.id = id;
+            this.sse = sse;
+            this.ndjson = ndjson;
+            this.sseFrame = sseFrame;
+            this.ndjsonFrame = ndjsonFrame;
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.goldmonitor.websocket;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeType;
+import org.springframework.util.MimeTypeUtils;
+
+/**
+ * 基于 Spring 消息代理（SimpleBroker）的扇出实现
+ * 设置 gold.fanout.engine=broker 时启用
+ *
+ * @author Gold Monitor Team
+ * @version 1.0.0
+ */
+@Component
+@ConditionalOnProperty(name = "gold.fanout.engine", havingValue = "broker")
+public class BrokerPriceFanout implements PriceFanout {
+
+    private final SimpMessagingTemplate messagingTemplate;
+
+    public BrokerPriceFanout(SimpMessagingTemplate messagingTemplate) {
+        this.messagingTemplate = messagingTemplate;
+    }
+
+    /**
+     * 发送预序列化的负载，跳过消息转换器
+     */
+    @Override
+    public void publish(String destination, byte[] payload, MimeType contentType) {
+        send(messagingTemplate, destination, payload, contentType);
+    }
+
+    /**
+     * Spring 的 STOMP 处理器只对 application/octet-stream 使用 WebSocket 二进制帧，
+     * 其余类型按文本帧发送会破坏二进制负载，所以非文本负载经消息代理时以 application/octet-stream 发送
+     */
+    static void send(SimpMessagingTemplate messagingTemplate, String destination, byte[] payload, MimeType contentType) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create();
+        accessor.setContentType(StompFrames.isText(contentType) ? contentType : MimeTypeUtils.APPLICATION_OCTET_STREAM);
+        accessor.setLeaveMutable(true);
+        Message<byte[]> message = MessageBuilder.createMessage(payload, accessor.getMessageHeaders());
+        messagingTemplate.send(destination, message);
+    }
+}
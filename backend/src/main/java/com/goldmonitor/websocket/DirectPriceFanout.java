@@ -0,0 +1,98 @@
+package com.goldmonitor.websocket;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeType;
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketMessage;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 直连扇出引擎（默认）
+ * 价格主题绕过 SimpleBroker：每条消息的 STOMP 帧按订阅 ID 只编码一次（同一客户端库生成的订阅 ID
+ * 大多相同，例如 sub-0），同一订阅 ID 的全部会话共享同一个帧，按预先计算好的订阅者数组
+ * 放入各会话的有界发送队列（只关心最新值的目的地放入单槽缓冲）；其余目的地仍交给 Spring 消息代理。
+ * JSON 负载以文本帧发送，其余类型（例如二进制线格式）以二进制帧发送，帧头带负载的 content-type
+ *
+ * @author Gold Monitor Team
+ * @version 1.0.0
+ */
+@Component
+@ConditionalOnProperty(name = "gold.fanout.engine", havingValue = "direct", matchIfMissing = true)
+public class DirectPriceFanout implements PriceFanout {
+
+    private final FanoutSessionRegistry registry;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final AtomicLong messageIds = new AtomicLong();
+    private final Counter droppedCounter;
+    private final Counter conflatedCounter;
+
+    public DirectPriceFanout(FanoutSessionRegistry registry,
+                             SimpMessagingTemplate messagingTemplate,
+                             MeterRegistry meterRegistry) {
+        this.registry = registry;
+        this.messagingTemplate = messagingTemplate;
+        this.droppedCounter = meterRegistry.counter("gold.fanout.frames.dropped");
+        this.conflatedCounter = meterRegistry.counter("gold.fanout.frames.conflated");
+    }
+
+    @Override
+    public void publish(String destination, byte[] payload, MimeType contentType) {
+        if (!registry.handles(destination)) {
+            BrokerPriceFanout.send(messagingTemplate, destination, payload, contentType);
+            return;
+        }
+
+        FanoutSessionRegistry.Subscriber[] subscribers = registry.getSubscribers(destination);
+        if (subscribers.length == 0) {
+            return;
+        }
+        String messageId = "p-" + messageIds.incrementAndGet();
+        boolean text = StompFrames.isText(contentType);
+        String sharedText = text ? StompFrames.sharedPart(destination, messageId, payload, contentType) : null;
+        byte[] sharedBinary = text ? null : StompFrames.sharedBinaryPart(destination, messageId, payload, contentType);
+        int dropped = 0;
+        int conflated = 0;
+        // 订阅者数组中相同订阅 ID 相邻，订阅 ID 变化时才编码新的帧
+        String frameSubscriptionId = null;
+        TextMessage textFrame = null;
+        byte[] binaryFrame = null;
+        for (FanoutSessionRegistry.Subscriber subscriber : subscribers) {
+            if (!subscriber.subscriptionId.equals(frameSubscriptionId)) {
+                frameSubscriptionId = subscriber.subscriptionId;
+                if (text) {
+                    textFrame = new TextMessage(subscriber.framePrefix + sharedText);
+                } else {
+                    binaryFrame = concat(subscriber.framePrefixBytes, sharedBinary);
+                }
+            }
+            // 容器发送时会移动 ByteBuffer 的 position，二进制帧每个会话单独包装同一个数组
+            WebSocketMessage<?> frame = text ? textFrame : new BinaryMessage(binaryFrame);
+            if (subscriber.slot != null) {
+                if (subscriber.session.offerLatest(subscriber.slot, frame)) {
+                    conflated++;
+                }
+            } else {
+                dropped += subscriber.session.offer(frame);
+            }
+        }
+        if (dropped > 0) {
+            droppedCounter.increment(dropped);
+        }
+        if (conflated > 0) {
+            conflatedCounter.increment(conflated);
+        }
+    }
+
+    private static byte[] concat(byte[] prefix, byte[] shared) {
+        byte[] frame = new byte[prefix.length + shared.length];
+        System.arraycopy(prefix, 0, frame, 0, prefix.length);
+        System.arraycopy(shared, 0, frame, prefix.length, shared.length);
+        return frame;
+    }
+}
@@ -0,0 +1,280 @@
+package com.goldmonitor.websocket;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.adapter.NativeWebSocketSession;
+import org.springframework.web.socket.handler.WebSocketSessionDecorator;
+import org.springframework.web.socket.sockjs.transport.SockJsSession;
+
+import java.io.IOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 扇出引擎使用的会话包装
+ * 所有写操作（Spring 自身的 STOMP 帧和扇出推送）通过同一把锁串行化；
+ * 扇出推送先进入有界队列或单槽最新值缓冲，由独立线程池异步发送；
+ * 队列满时丢弃最旧的帧，单槽缓冲中未发送的旧帧直接被新帧替换。
+ * 单次发送超过 sendTimeLimit 的会话被关闭：Tomcat 上阻塞写本身在该时间后超时，
+ * 其他容器由注册表的巡检线程关闭会话，慢客户端占用发送线程的时间不超过这个上限
+ *
+ * @author Gold Monitor Team
+ * @version 1.0.0
+ */
+@Slf4j
+class FanoutSession extends WebSocketSessionDecorator {
+
+    private static final String TOMCAT_BLOCKING_SEND_TIMEOUT = "org.apache.tomcat.websocket.BLOCKING_SEND_TIMEOUT";
+
+    private final ReentrantLock sendLock = new ReentrantLock();
+    private final ArrayBlockingQueue<WebSocketMessage<?>> queue;
+    private final CopyOnWriteArrayList<LatestValueSlot> slots = new CopyOnWriteArrayList<>();
+    private final AtomicBoolean draining = new AtomicBoolean(false);
+    private final Executor executor;
+    private final Runnable drainTask = this::drain;
+
+    /**
+     * SockJS 会话只能发送文本帧
+     */
+    private final boolean binarySupported;
+
+    private final AtomicLong conflated = new AtomicLong();
+    private volatile int highWaterMark;
+
+    /**
+     * 当前发送开始的时间（System.nanoTime），没有发送时为 0
+     */
+    private volatile long sendStartedAt;
+
+    private volatile boolean closed;
+
+    FanoutSession(WebSocketSession delegate, int queueCapacity, Executor executor, long sendTimeLimitMillis) {
+        super(delegate);
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, queueCapacity));
+        this.executor = executor;
+        this.binarySupported = !(WebSocketSessionDecorator.unwrap(delegate) instanceof SockJsSession);
+        limitBlockingSend(delegate, sendTimeLimitMillis);
+    }
+
+    /**
+     * Tomcat 的阻塞写默认 20 秒后才超时，按会话设置为发送时间上限
+     */
+    private static void limitBlockingSend(WebSocketSession delegate, long sendTimeLimitMillis) {
+        WebSocketSession session = WebSocketSessionDecorator.unwrap(delegate);
+        if (session instanceof NativeWebSocketSession) {
+            javax.websocket.Session nativeSession =
+                    ((NativeWebSocketSession) session).getNativeSession(javax.websocket.Session.class);
+            if (nativeSession != null) {
+                nativeSession.getUserProperties().put(TOMCAT_BLOCKING_SEND_TIMEOUT, sendTimeLimitMillis);
+            }
+        }
+    }
+
+    @Override
+    public void sendMessage(WebSocketMessage<?> message) throws IOException {
+        sendLock.lock();
+        try {
+            sendStartedAt = System.nanoTime();
+            super.sendMessage(message);
+        } finally {
+            sendStartedAt = 0;
+            sendLock.unlock();
+        }
+    }
+
+    boolean isBinarySupported() {
+        return binarySupported;
+    }
+
+    /**
+     * 当前发送是否已经超过时间上限
+     *
+     * @param now System.nanoTime()
+     * @param limitNanos 发送时间上限（纳秒）
+     */
+    boolean isSendStalled(long now, long limitNanos) {
+        long startedAt = sendStartedAt;
+        return !closed && startedAt != 0 && now - startedAt > limitNanos;
+    }
+
+    /**
+     * 丢弃待发送的帧并关闭会话
+     */
+    void abort() {
+        markClosed();
+        closeQuietly();
+    }
+
+    /**
+     * 同步发送 ERROR 帧后以协议错误关闭会话
+     * 直接经过发送锁写出，不会像 Spring 的并发会话装饰器那样在另一个线程正在发送时只入队、随后被关闭丢弃
+     *
+     * @param message 错误说明
+     */
+    void reject(String message) {
+        markClosed();
+        try {
+            sendMessage(new TextMessage(StompFrames.error(message)));
+            close(CloseStatus.PROTOCOL_ERROR);
+        } catch (Exception e) {
+            log.debug("会话 {} 发送 ERROR 帧失败", getId(), e);
+            closeQuietly();
+        }
+    }
+
+    /**
+     * 放入一帧等待发送
+     *
+     * @param frame STOMP 帧
+     * @return 因队列已满被丢弃的旧帧数
+     */
+    int offer(WebSocketMessage<?> frame) {
+        if (closed) {
+            return 0;
+        }
+        int dropped = 0;
+        while (!queue.offer(frame)) {
+            if (queue.poll() != null) {
+                dropped++;
+            }
+        }
+        updateHighWaterMark();
+        scheduleDrain();
+        return dropped;
+    }
+
+    /**
+     * 放入一帧到单槽最新值缓冲
+     *
+     * @param slot 该订阅的缓冲槽
+     * @param frame STOMP 帧
+     * @return 是否替换了尚未发送的旧帧
+     */
+    boolean offerLatest(LatestValueSlot slot, WebSocketMessage<?> frame) {
+        if (closed) {
+            return false;
+        }
+        boolean replaced = slot.put(frame);
+        if (replaced) {
+            conflated.incrementAndGet();
+        } else {
+            updateHighWaterMark();
+        }
+        scheduleDrain();
+        return replaced;
+    }
+
+    void addSlot(LatestValueSlot slot) {
+        slots.add(slot);
+    }
+
+    void removeSlot(LatestValueSlot slot) {
+        slots.remove(slot);
+        slot.clear();
+    }
+
+    /**
+     * 被替换（合并）掉的帧数
+     */
+    long getConflatedCount() {
+        return conflated.get();
+    }
+
+    /**
+     * 待发送帧数（队列 + 已占用的缓冲槽）的历史最大值
+     */
+    int getHighWaterMark() {
+        return highWaterMark;
+    }
+
+    void markClosed() {
+        closed = true;
+        queue.clear();
+        for (LatestValueSlot slot : slots) {
+            slot.clear();
+        }
+    }
+
+    /**
+     * 当前待发送帧数（队列 + 已占用的缓冲槽）
+     */
+    int getPendingCount() {
+        int depth = queue.size();
+        for (LatestValueSlot slot : slots) {
+            if (slot.isOccupied()) {
+                depth++;
+            }
+        }
+        return depth;
+    }
+
+    private void updateHighWaterMark() {
+        int depth = getPendingCount();
+        if (depth > highWaterMark) {
+            highWaterMark = depth;
+        }
+    }
+
+    private boolean hasPending() {
+        if (!queue.isEmpty()) {
+            return true;
+        }
+        for (LatestValueSlot slot : slots) {
+            if (slot.isOccupied()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void scheduleDrain() {
+        if (draining.compareAndSet(false, true)) {
+            executor.execute(drainTask);
+        }
+    }
+
+    private void drain() {
+        try {
+            boolean sent = true;
+            while (!closed && sent) {
+                sent = false;
+                WebSocketMessage<?> frame;
+                while (!closed && (frame = queue.poll()) != null) {
+                    sendMessage(frame);
+                    sent = true;
+                }
+                for (LatestValueSlot slot : slots) {
+                    if (!closed && (frame = slot.take()) != null) {
+                        sendMessage(frame);
+                        sent = true;
+                    }
+                }
+            }
+        } catch (Exception e) {
+            log.debug("向会话 {} 推送失败: {}", getId(), e.getMessage());
+            markClosed();
+            closeQuietly();
+        } finally {
+            draining.set(false);
+        }
+        // 释放标记后可能有新帧进入
+        if (!closed && hasPending()) {
+            scheduleDrain();
+        }
+    }
+
+    private void closeQuietly() {
+        try {
+            close(CloseStatus.SESSION_NOT_RELIABLE);
+        } catch (Exception ignored) {
+            // 会话可能已经关闭
+        }
+    }
+}
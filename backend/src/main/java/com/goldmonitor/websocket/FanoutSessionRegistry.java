@@ -0,0 +1,335 @@
+package com.goldmonitor.websocket;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.WebSocketHandlerDecorator;
+import org.springframework.web.socket.handler.WebSocketHandlerDecoratorFactory;
+
+import javax.annotation.PreDestroy;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 扇出会话注册表
+ * 作为 WebSocket 处理器装饰器记录所有会话，作为入站通道拦截器跟踪对价格主题的订阅，
+ * 为每个目的地预先计算好订阅者数组（写时复制），推送时无需做目的地匹配；
+ * 巡检线程关闭单次发送超过 gold.fanout.send-time-limit 的会话。
+ * SockJS 会话不能发送二进制帧，订阅二进制主题（以 /binary 结尾）时返回 STOMP ERROR 并关闭连接
+ *
+ * @author Gold Monitor Team
+ * @version 1.0.0
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "gold.fanout.engine", havingValue = "direct", matchIfMissing = true)
+public class FanoutSessionRegistry implements ChannelInterceptor, WebSocketHandlerDecoratorFactory {
+
+    private static final Subscriber[] NO_SUBSCRIBERS = new Subscriber[0];
+
+    private static final String BINARY_SUFFIX = "/binary";
+
+    private final Set<String> destinations;
+    private final Set<String> conflatedDestinations;
+    private final int queueCapacity;
+    private final ExecutorService executor;
+    private final ScheduledExecutorService watchdog;
+    private final long sendTimeLimitMillis;
+    private final long sendTimeLimitNanos;
+
+    private final Map<String, FanoutSession> sessions = new ConcurrentHashMap<>();
+    private final Map<String, Subscriber[]> subscribers = new ConcurrentHashMap<>();
+
+    private final DistributionSummary sessionConflated;
+    private final DistributionSummary sessionHighWaterMark;
+    private final Counter timedOutCounter;
+
+    public FanoutSessionRegistry(MeterRegistry meterRegistry,
+                                 @Value("${gold.fanout.destinations:/topic/gold-price,/topic/gold-price/delta,/topic/gold-price/binary,"
+                                         + "/topic/gold-price/candles/1m/binary,/topic/gold-price/candles/5m/binary,"
+                                         + "/topic/gold-price/candles/15m/binary,/topic/gold-price/candles/1h/binary,"
+                                         + "/topic/gold-price/candles/1d/binary}") String[] destinations,
+                                 @Value("${gold.fanout.conflate-destinations:/topic/gold-price,/topic/gold-price/binary}") String[] conflatedDestinations,
+                                 @Value("${gold.fanout.session-queue-capacity:16}") int queueCapacity,
+                                 @Value("${gold.fanout.pool-size:8}") int poolSize,
+                                 @Value("${gold.fanout.send-time-limit:3000}") long sendTimeLimitMillis) {
+        this.destinations = new HashSet<>(Arrays.asList(destinations));
+        this.conflatedDestinations = new HashSet<>(Arrays.asList(conflatedDestinations));
+        this.queueCapacity = queueCapacity;
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(poolSize, runnable -> {
+            Thread thread = new Thread(runnable, "price-fanout-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.sendTimeLimitMillis = sendTimeLimitMillis;
+        this.sendTimeLimitNanos = TimeUnit.MILLISECONDS.toNanos(sendTimeLimitMillis);
+        this.watchdog = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "price-fanout-watchdog");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long checkInterval = Math.max(100, sendTimeLimitMillis / 4);
+        watchdog.scheduleWithFixedDelay(this::closeStalledSessions, checkInterval, checkInterval, TimeUnit.MILLISECONDS);
+
+        Gauge.builder("gold.fanout.sessions", sessions, Map::size)
+                .description("WebSocket 会话数")
+                .register(meterRegistry);
+        Gauge.builder("gold.fanout.session.queue.depth", this, FanoutSessionRegistry::pendingFrames)
+                .description("全部会话中等待发送的帧数")
+                .register(meterRegistry);
+        Gauge.builder("gold.fanout.session.queue.high-water.active", this, FanoutSessionRegistry::maxHighWaterMark)
+                .description("当前会话中待发送帧数历史最大值的最大者")
+                .register(meterRegistry);
+        this.sessionConflated = DistributionSummary.builder("gold.fanout.session.conflated")
+                .description("每个会话关闭时累计被合并的 tick 数")
+                .register(meterRegistry);
+        this.sessionHighWaterMark = DistributionSummary.builder("gold.fanout.session.queue.high-water")
+                .description("每个会话关闭时待发送帧数的历史最大值")
+                .register(meterRegistry);
+        this.timedOutCounter = meterRegistry.counter("gold.fanout.sessions.timed-out");
+        for (String destination : this.destinations) {
+            subscribers.put(destination, NO_SUBSCRIBERS);
+            Gauge.builder("gold.fanout.subscriptions", subscribers, map -> map.get(destination).length)
+                    .description("价格主题订阅数")
+                    .tag("destination", destination)
+                    .register(meterRegistry);
+        }
+        log.info("价格扇出引擎接管目的地: {}", this.destinations);
+    }
+
+    /**
+     * 目的地是否由扇出引擎负责
+     */
+    public boolean handles(String destination) {
+        return destinations.contains(destination);
+    }
+
+    /**
+     * 获取目的地的订阅者快照
+     */
+    Subscriber[] getSubscribers(String destination) {
+        Subscriber[] current = subscribers.get(destination);
+        return current == null ? NO_SUBSCRIBERS : current;
+    }
+
+    // ---- 入站通道拦截：跟踪订阅 ----
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        MessageHeaders headers = message.getHeaders();
+        SimpMessageType type = SimpMessageHeaderAccessor.getMessageType(headers);
+        if (type == null) {
+            return message;
+        }
+        String sessionId = SimpMessageHeaderAccessor.getSessionId(headers);
+        switch (type) {
+            case SUBSCRIBE:
+                String destination = SimpMessageHeaderAccessor.getDestination(headers);
+                String subscriptionId = SimpMessageHeaderAccessor.getSubscriptionId(headers);
+                if (destination != null && subscriptionId != null && handles(destination)
+                        && !addSubscriber(destination, sessionId, subscriptionId)) {
+                    return null;
+                }
+                break;
+            case UNSUBSCRIBE:
+                removeSubscribers(sessionId, SimpMessageHeaderAccessor.getSubscriptionId(headers));
+                break;
+            case DISCONNECT:
+                removeSubscribers(sessionId, null);
+                break;
+            default:
+                break;
+        }
+        return message;
+    }
+
+    /**
+     * @return 订阅被拒绝时返回 false，SUBSCRIBE 不再继续传递
+     */
+    private boolean addSubscriber(String destination, String sessionId, String subscriptionId) {
+        FanoutSession session = sessions.get(sessionId);
+        if (session == null) {
+            return true;
+        }
+        if (destination.endsWith(BINARY_SUFFIX) && !session.isBinarySupported()) {
+            log.debug("拒绝 SockJS 会话 {} 订阅二进制主题 {}", sessionId, destination);
+            session.reject("SockJS 连接不支持二进制帧，无法订阅 " + destination + "，请使用原生 WebSocket 或 JSON 主题");
+            return false;
+        }
+        LatestValueSlot slot = null;
+        if (conflatedDestinations.contains(destination)) {
+            slot = new LatestValueSlot();
+            session.addSlot(slot);
+        }
+        Subscriber subscriber = new Subscriber(session, subscriptionId, slot);
+        // 相同订阅 ID 的订阅者相邻存放，推送时每组只编码一个帧
+        subscribers.compute(destination, (key, current) -> {
+            int index = current.length;
+            for (int i = current.length - 1; i >= 0; i--) {
+                if (current[i].subscriptionId.equals(subscriptionId)) {
+                    index = i + 1;
+                    break;
+                }
+            }
+            Subscriber[] next = new Subscriber[current.length + 1];
+            System.arraycopy(current, 0, next, 0, index);
+            next[index] = subscriber;
+            System.arraycopy(current, index, next, index + 1, current.length - index);
+            return next;
+        });
+        return true;
+    }
+
+    /**
+     * 移除会话的订阅，subscriptionId 为 null 时移除该会话的全部订阅
+     */
+    private void removeSubscribers(String sessionId, String subscriptionId) {
+        if (sessionId == null) {
+            return;
+        }
+        for (String destination : destinations) {
+            subscribers.computeIfPresent(destination, (key, current) -> {
+                int kept = 0;
+                Subscriber[] next = new Subscriber[current.length];
+                for (Subscriber subscriber : current) {
+                    if (!subscriber.matches(sessionId, subscriptionId)) {
+                        next[kept++] = subscriber;
+                    } else if (subscriber.slot != null) {
+                        subscriber.session.removeSlot(subscriber.slot);
+                    }
+                }
+                return kept == current.length ? current : Arrays.copyOf(next, kept);
+            });
+        }
+    }
+
+    // ---- WebSocket 处理器装饰：跟踪会话 ----
+
+    @Override
+    public WebSocketHandler decorate(WebSocketHandler handler) {
+        return new WebSocketHandlerDecorator(handler) {
+
+            @Override
+            public void afterConnectionEstablished(WebSocketSession session) throws Exception {
+                FanoutSession fanoutSession = new FanoutSession(session, queueCapacity, executor, sendTimeLimitMillis);
+                sessions.put(session.getId(), fanoutSession);
+                super.afterConnectionEstablished(fanoutSession);
+            }
+
+            @Override
+            public void handleMessage(WebSocketSession session, WebSocketMessage<?> message) throws Exception {
+                super.handleMessage(wrap(session), message);
+            }
+
+            @Override
+            public void handleTransportError(WebSocketSession session, Throwable exception) throws Exception {
+                super.handleTransportError(wrap(session), exception);
+            }
+
+            @Override
+            public void afterConnectionClosed(WebSocketSession session, CloseStatus closeStatus) throws Exception {
+                FanoutSession fanoutSession = sessions.remove(session.getId());
+                removeSubscribers(session.getId(), null);
+                if (fanoutSession != null) {
+                    fanoutSession.markClosed();
+                    sessionConflated.record(fanoutSession.getConflatedCount());
+                    sessionHighWaterMark.record(fanoutSession.getHighWaterMark());
+                }
+                super.afterConnectionClosed(fanoutSession != null ? fanoutSession : session, closeStatus);
+            }
+
+            private WebSocketSession wrap(WebSocketSession session) {
+                FanoutSession fanoutSession = sessions.get(session.getId());
+                return fanoutSession != null ? fanoutSession : session;
+            }
+        };
+    }
+
+    /**
+     * 关闭单次发送超过时间上限的会话，释放被阻塞的发送线程
+     */
+    private void closeStalledSessions() {
+        long now = System.nanoTime();
+        for (FanoutSession session : sessions.values()) {
+            if (session.isSendStalled(now, sendTimeLimitNanos)) {
+                log.warn("会话 {} 发送超过 {} ms，关闭连接", session.getId(), sendTimeLimitMillis);
+                timedOutCounter.increment();
+                session.abort();
+            }
+        }
+    }
+
+    private double pendingFrames() {
+        int pending = 0;
+        for (FanoutSession session : sessions.values()) {
+            pending += session.getPendingCount();
+        }
+        return pending;
+    }
+
+    private double maxHighWaterMark() {
+        int max = 0;
+        for (FanoutSession session : sessions.values()) {
+            max = Math.max(max, session.getHighWaterMark());
+        }
+        return max;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        watchdog.shutdownNow();
+        executor.shutdownNow();
+    }
+
+    /**
+     * 订阅者：会话 + 订阅 ID，以及预先编码好的帧头前缀；
+     * 只关心最新值的目的地带有单槽缓冲
+     */
+    static final class Subscriber {
+
+        final FanoutSession session;
+        final String subscriptionId;
+        final String framePrefix;
+        final byte[] framePrefixBytes;
+        final LatestValueSlot slot;
+
+        Subscriber(FanoutSession session, String subscriptionId, LatestValueSlot slot) {
+            this.session = session;
+            this.subscriptionId = subscriptionId;
+            this.slot = slot;
+            this.framePrefix = "MESSAGE\nsubscription:" + StompFrames.escapeHeader(subscriptionId) + "\n";
+            this.framePrefixBytes = framePrefix.getBytes(StandardCharsets.UTF_8);
+        }
+
+        boolean matches(String sessionId, String subscriptionId) {
+            return session.getId().equals(sessionId)
+                    && (subscriptionId == null || this.subscriptionId.equals(subscriptionId));
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.goldmonitor.websocket;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.goldmonitor.codec.GoldBinaryCodec;
+import com.goldmonitor.model.GoldPrice;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 黄金价格广播器
+ * 每个 tick 只序列化一次，预序列化的字节直接交给扇出引擎，不再在发送时做 Jackson 转换；
+ * 同时向增量主题推送紧凑的增量帧/关键帧，向二进制主题推送定长二进制格式的 tick
+ *
+ * @author Gold Monitor Team
+ * @version 1.0.0
+ */
+@Slf4j
+@Component
+public class GoldPriceBroadcaster {
+
+    public static final String PRICE_TOPIC = "/topic/gold-price";
+    public static final String DELTA_TOPIC = "/topic/gold-price/delta";
+    public static final String BINARY_TOPIC = "/topic/gold-price/binary";
+
+    private final PriceFanout priceFanout;
+    private final ObjectMapper objectMapper;
+    private final PriceFrameEncoder frameEncoder;
+    private final GoldBinaryCodec binaryCodec;
+    private final boolean deltaEnabled;
+    private final boolean binaryEnabled;
+
+    private final DistributionSummary fullFrameBytes;
+    private final DistributionSummary keyframeBytes;
+    private final DistributionSummary deltaFrameBytes;
+    private final DistributionSummary binaryFrameBytes;
+    private final Timer priceFanoutTimer;
+    private final Timer deltaFanoutTimer;
+    private final Timer binaryFanoutTimer;
+
+    public GoldPriceBroadcaster(PriceFanout priceFanout,
+                                ObjectMapper objectMapper,
+                                GoldBinaryCodec binaryCodec,
+                                MeterRegistry meterRegistry,
+                                @Value("${gold.broadcast.delta-enabled:true}") boolean deltaEnabled,
+                                @Value("${gold.broadcast.keyframe-interval:30}") int keyframeInterval,
+                                @Value("${gold.broadcast.binary-enabled:true}") boolean binaryEnabled) {
+        this.priceFanout = priceFanout;
+        this.objectMapper = objectMapper;
+        this.frameEncoder = new PriceFrameEncoder(keyframeInterval);
+        this.binaryCodec = binaryCodec;
+        this.deltaEnabled = deltaEnabled;
+        this.binaryEnabled = binaryEnabled;
+
+        this.fullFrameBytes = frameSummary(meterRegistry, "full");
+        this.keyframeBytes = frameSummary(meterRegistry, "keyframe");
+        this.deltaFrameBytes = frameSummary(meterRegistry, "delta");
+        this.binaryFrameBytes = frameSummary(meterRegistry, "binary");
+        this.priceFanoutTimer = fanoutTimer(meterRegistry, PRICE_TOPIC);
+        this.deltaFanoutTimer = fanoutTimer(meterRegistry, DELTA_TOPIC);
+        this.binaryFanoutTimer = fanoutTimer(meterRegistry, BINARY_TOPIC);
+    }
+
+    private static DistributionSummary frameSummary(MeterRegistry meterRegistry, String type) {
+        return DistributionSummary.builder("gold.broadcast.frame.bytes")
+                .description("每个 tick 推送的帧大小")
+                .baseUnit("bytes")
+                .tag("type", type)
+                .register(meterRegistry);
+    }
+
+    private static Timer fanoutTimer(MeterRegistry meterRegistry, String destination) {
+        return Timer.builder("gold.fanout.duration")
+                .description("一帧交给扇出引擎（编码并放入全部订阅者的发送队列）的耗时")
+                .tag("destination", destination)
+                .register(meterRegistry);
+    }
+
+    /**
+     * 广播一个 tick
+     *
+     * @param goldPrice 黄金价格对象
+     * @param timestamp tick 时间（epoch 毫秒）
+     * @param price 定点价格
+     * @return 预序列化的完整价格帧（JSON），可供其他推送通道复用
+     */
+    public synchronized byte[] broadcast(GoldPrice goldPrice, long timestamp, long price) throws Exception {
+        byte[] full = objectMapper.writeValueAsBytes(goldPrice);
+        long start = System.nanoTime();
+        priceFanout.publish(PRICE_TOPIC, full);
+        priceFanoutTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        fullFrameBytes.record(full.length);
+
+        if (deltaEnabled) {
+            byte[] frame = frameEncoder.encode(timestamp, price,
+                    goldPrice.getChange(), goldPrice.getChangePercent(),
+                    goldPrice.getCurrency() != null ? goldPrice.getCurrency().name() : null, goldPrice.getUnit(),
+                    goldPrice.getSource(), goldPrice.getMarketStatus());
+            start = System.nanoTime();
+            priceFanout.publish(DELTA_TOPIC, frame);
+            deltaFanoutTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            (frameEncoder.isLastKeyframe() ? keyframeBytes : deltaFrameBytes).record(frame.length);
+        }
+
+        if (binaryEnabled) {
+            byte[] frame = binaryCodec.encodeTick(goldPrice, timestamp);
+            start = System.nanoTime();
+            priceFanout.publish(BINARY_TOPIC, frame, GoldBinaryCodec.MEDIA_TYPE);
+            binaryFanoutTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            binaryFrameBytes.record(frame.length);
+        }
+        return full;
+    }
+}
@@ -1,11 +1,15 @@
 package com.goldmonitor.websocket;
 
+import com.goldmonitor.service.PriceAlertService;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.messaging.handler.annotation.MessageMapping;
 import org.springframework.messaging.handler.annotation.SendTo;
+import org.springframework.messaging.simp.annotation.SendToUser;
 import org.springframework.messaging.simp.annotation.SubscribeMapping;
 import org.springframework.stereotype.Controller;
 
+import java.security.Principal;
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.Map;
@@ -19,8 +23,11 @@ import java.util.Map;
  */
 @Slf4j
 @Controller
+@RequiredArgsConstructor
 public class GoldPriceWebSocketHandler {
 
+    private final PriceAlertService priceAlertService;
+
     /**
      * 处理客户端订阅黄金价格主题
      * 
@@ -76,4 +83,62 @@ public class GoldPriceWebSocketHandler {
         
         return pong;
     }
-}
\ No newline at end of file
+
+    /**
+     * 注册价格提醒
+     * 消息格式：{"type": "ABOVE|BELOW|PERCENT", "value": 2100}，触发时发送到 /user/queue/alerts
+     * 
+     * @param message 提醒规则
+     * @param principal 会话用户
+     * @return 注册结果
+     */
+    @MessageMapping("/gold-price/alerts/register")
+    @SendToUser(PriceAlertService.ALERT_QUEUE)
+    public Map<String, Object> registerAlert(Map<String, Object> message, Principal principal) {
+        Map<String, Object> response = new HashMap<>();
+        try {
+            Map<String, Object> rule = priceAlertService.register(userOf(principal),
+                    (String) message.get("type"), message.get("value"));
+            response.put("type", "registered");
+            response.put("rule", rule);
+        } catch (IllegalArgumentException | IllegalStateException | ClassCastException e) {
+            response.put("type", "error");
+            response.put("message", e.getMessage());
+        }
+        response.put("timestamp", LocalDateTime.now());
+        
+        return response;
+    }
+
+    /**
+     * 取消价格提醒
+     * 消息格式：{"id": 1}
+     * 
+     * @param message 规则编号
+     * @param principal 会话用户
+     * @return 取消结果
+     */
+    @MessageMapping("/gold-price/alerts/cancel")
+    @SendToUser(PriceAlertService.ALERT_QUEUE)
+    public Map<String, Object> cancelAlert(Map<String, Object> message, Principal principal) {
+        Map<String, Object> response = new HashMap<>();
+        Object id = message.get("id");
+        boolean removed = id instanceof Number
+                && priceAlertService.remove(((Number) id).longValue(), userOf(principal));
+        response.put("type", removed ? "cancelled" : "error");
+        response.put("id", id);
+        if (!removed) {
+            response.put("message", "提醒规则不存在: " + id);
+        }
+        response.put("timestamp", LocalDateTime.now());
+        
+        return response;
+    }
+
+    private static String userOf(Principal principal) {
+        if (principal == null) {
+            throw new IllegalStateException("当前连接没有会话用户");
+        }
+        return principal.getName();
+    }
+}
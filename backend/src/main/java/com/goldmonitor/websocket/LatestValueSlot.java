@@ -0,0 +1,45 @@
+package com.goldmonitor.websocket;
+
+import org.springframework.web.socket.WebSocketMessage;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 单槽最新值缓冲
+ * 对价格这类只关心最新值的数据，客户端还没取走上一帧时新帧直接替换旧帧，
+ * 慢客户端占用的内存恒定为一帧
+ *
+ * @author Gold Monitor Team
+ * @version 1.0.0
+ */
+class LatestValueSlot {
+
+    private final AtomicReference<WebSocketMessage<?>> latest = new AtomicReference<>();
+
+    /**
+     * 放入最新帧
+     *
+     * @param frame STOMP 帧
+     * @return 是否替换了尚未发送的旧帧
+     */
+    boolean put(WebSocketMessage<?> frame) {
+        return latest.getAndSet(frame) != null;
+    }
+
+    /**
+     * 取走当前帧
+     *
+     * @return 当前帧，没有时返回 null
+     */
+    WebSocketMessage<?> take() {
+        return latest.getAndSet(null);
+    }
+
+    boolean isOccupied() {
+        return latest.get() != null;
+    }
+
+    void clear() {
+        latest.set(null);
+    }
+}
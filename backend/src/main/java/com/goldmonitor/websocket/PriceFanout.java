@@ -0,0 +1,33 @@
+package com.goldmonitor.websocket;
+
+import org.springframework.util.MimeType;
+import org.springframework.util.MimeTypeUtils;
+
+/**
+ * 价格推送扇出引擎
+ * 负责把预序列化的负载推送给某个目的地的全部订阅者
+ *
+ * @author Gold Monitor Team
+ * @version 1.0.0
+ */
+public interface PriceFanout {
+
+    /**
+     * 推送 JSON 消息
+     *
+     * @param destination 目的地，例如 /topic/gold-price
+     * @param payload UTF-8 JSON 负载，调用后不可再修改
+     */
+    default void publish(String destination, byte[] payload) {
+        publish(destination, payload, MimeTypeUtils.APPLICATION_JSON);
+    }
+
+    /**
+     * 推送消息，STOMP MESSAGE 帧带 content-type 头
+     *
+     * @param destination 目的地，例如 /topic/gold-price/binary
+     * @param payload 负载，调用后不可再修改
+     * @param contentType 负载类型；非文本类型以 WebSocket 二进制帧发送
+     */
+    void publish(String destination, byte[] payload, MimeType contentType);
+}
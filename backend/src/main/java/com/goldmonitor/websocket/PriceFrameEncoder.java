@@ -0,0 +1,206 @@
+package com.goldmonitor.websocket;
+
+import com.goldmonitor.model.FixedPrice;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * 紧凑价格帧编码器
+ * 每个 tick 只编码一次，直接写入可复用的字节缓冲区；相对上一帧只输出发生变化的字段（增量帧），
+ * 并每隔固定帧数输出一次包含全部字段的关键帧，便于新订阅者和丢帧的客户端重新同步
+ *
+ * 帧格式（JSON）：
+ * <pre>
+ * 关键帧 {"t":"k","s":12,"ts":1703123456789,"p":2045.67,"c":12.34,"cp":0.61,"cur":"USD","u":"oz","src":"API","m":"OPEN"}
+ * 增量帧 {"t":"d","s":13,"ts":1703123486789,"p":2045.7}
+ * </pre>
+ *
+ * 非线程安全，调用方需保证串行调用
+ *
+ * @author Gold Monitor Team
+ * @version 1.0.0
+ */
+public class PriceFrameEncoder {
+
+    private final int keyframeInterval;
+    private byte[] buffer = new byte[256];
+    private int position;
+
+    private long sequence;
+    private boolean lastKeyframe;
+
+    private long lastPrice;
+    private long lastChange;
+    private long lastChangePercent;
+    private String lastCurrency;
+    private String lastUnit;
+    private String lastSource;
+    private String lastMarketStatus;
+
+    public PriceFrameEncoder(int keyframeInterval) {
+        this.keyframeInterval = Math.max(1, keyframeInterval);
+    }
+
+    /**
+     * 编码一个 tick
+     *
+     * @param timestamp epoch 毫秒
+     * @param price 定点价格
+     * @param change 定点价格变化
+     * @param changePercent 定点价格变化百分比
+     * @param currency 货币单位
+     * @param unit 重量单位
+     * @param source 数据来源
+     * @param marketStatus 市场状态
+     * @return 帧内容（UTF-8 JSON），每次调用返回新的数组
+     */
+    public byte[] encode(long timestamp, long price, long change, long changePercent,
+                         String currency, String unit, String source, String marketStatus) {
+        boolean keyframe = sequence % keyframeInterval == 0;
+        position = 0;
+
+        writeAscii(keyframe ? "{\"t\":\"k\",\"s\":" : "{\"t\":\"d\",\"s\":");
+        writeLong(sequence);
+        writeAscii(",\"ts\":");
+        writeLong(timestamp);
+        if (keyframe || price != lastPrice) {
+            writeAscii(",\"p\":");
+            writeDecimal(price);
+        }
+        if (keyframe || change != lastChange) {
+            writeAscii(",\"c\":");
+            writeDecimal(change);
+        }
+        if (keyframe || changePercent != lastChangePercent) {
+            writeAscii(",\"cp\":");
+            writeDecimal(changePercent);
+        }
+        if (keyframe || !Objects.equals(currency, lastCurrency)) {
+            writeStringField(",\"cur\":", currency);
+        }
+        if (keyframe || !Objects.equals(unit, lastUnit)) {
+            writeStringField(",\"u\":", unit);
+        }
+        if (keyframe || !Objects.equals(source, lastSource)) {
+            writeStringField(",\"src\":", source);
+        }
+        if (keyframe || !Objects.equals(marketStatus, lastMarketStatus)) {
+            writeStringField(",\"m\":", marketStatus);
+        }
+        writeByte('}');
+
+        sequence++;
+        lastKeyframe = keyframe;
+        lastPrice = price;
+        lastChange = change;
+        lastChangePercent = changePercent;
+        lastCurrency = currency;
+        lastUnit = unit;
+        lastSource = source;
+        lastMarketStatus = marketStatus;
+        return Arrays.copyOf(buffer, position);
+    }
+
+    /**
+     * 上一次编码的是否为关键帧
+     */
+    public boolean isLastKeyframe() {
+        return lastKeyframe;
+    }
+
+    private void writeStringField(String name, String value) {
+        writeAscii(name);
+        if (value == null) {
+            writeAscii("null");
+            return;
+        }
+        writeByte('"');
+        for (int i = 0; i < value.length(); i++) {
+            char ch = value.charAt(i);
+            if (ch == '"' || ch == '\\') {
+                writeByte('\\');
+                writeByte(ch);
+            } else if (ch < 0x20) {
+                writeAscii(String.format("\\u%04x", (int) ch));
+            } else if (ch < 0x80) {
+                writeByte(ch);
+            } else {
+                byte[] encoded = String.valueOf(ch).getBytes(StandardCharsets.UTF_8);
+                for (byte b : encoded) {
+                    writeByte(b);
+                }
+            }
+        }
+        writeByte('"');
+    }
+
+    /**
+     * 以十进制写出定点数，去掉小数部分末尾的 0
+     */
+    private void writeDecimal(long scaled) {
+        if (scaled < 0) {
+            writeByte('-');
+            scaled = -scaled;
+        }
+        long integer = scaled / FixedPrice.MICROS_PER_UNIT;
+        long fraction = scaled % FixedPrice.MICROS_PER_UNIT;
+        writeLong(integer);
+        if (fraction == 0) {
+            return;
+        }
+        writeByte('.');
+        int digits = FixedPrice.SCALE;
+        while (fraction % 10 == 0) {
+            fraction /= 10;
+            digits--;
+        }
+        for (long divisor = pow10(digits - 1); divisor > 0; divisor /= 10) {
+            writeByte((char) ('0' + (fraction / divisor) % 10));
+        }
+    }
+
+    private void writeLong(long value) {
+        if (value < 0) {
+            writeByte('-');
+            value = -value;
+        }
+        if (value == 0) {
+            writeByte('0');
+            return;
+        }
+        long divisor = 1;
+        while (value / divisor >= 10) {
+            divisor *= 10;
+        }
+        for (; divisor > 0; divisor /= 10) {
+            writeByte((char) ('0' + (value / divisor) % 10));
+        }
+    }
+
+    private void writeAscii(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            writeByte(text.charAt(i));
+        }
+    }
+
+    private void writeByte(char ch) {
+        writeByte((byte) ch);
+    }
+
+    private void writeByte(byte b) {
+        if (position == buffer.length) {
+            buffer = Arrays.copyOf(buffer, buffer.length * 2);
+        }
+        buffer[position++] = b;
+    }
+
+    private static long pow10(int exponent) {
+        long result = 1;
+        for (int i = 0; i < exponent; i++) {
+            result *= 10;
+        }
+        return result;
+    }
+}
@@ -0,0 +1,49 @@
+package com.goldmonitor.websocket;
+
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.server.support.DefaultHandshakeHandler;
+
+import java.security.Principal;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * 握手处理器
+ * 未登录的连接分配一个随机的会话用户，使 /user/queue/alerts 等用户目的地可用；
+ * 用户名通过 STOMP CONNECTED 帧的 user-name 头返回给客户端
+ *
+ * @author Gold Monitor Team
+ * @version 1.0.0
+ */
+public class SessionPrincipalHandshakeHandler extends DefaultHandshakeHandler {
+
+    @Override
+    protected Principal determineUser(ServerHttpRequest request, WebSocketHandler wsHandler,
+                                      Map<String, Object> attributes) {
+        Principal principal = super.determineUser(request, wsHandler, attributes);
+        return principal != null ? principal : new SessionPrincipal(UUID.randomUUID().toString());
+    }
+
+    /**
+     * 随连接创建的匿名用户，连接断开后其提醒规则随之删除
+     */
+    public static final class SessionPrincipal implements Principal {
+
+        private final String name;
+
+        SessionPrincipal(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+}
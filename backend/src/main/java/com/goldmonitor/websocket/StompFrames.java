@@ -0,0 +1,120 @@
+package com.goldmonitor.websocket;
+
+import org.springframework.util.MimeType;
+import org.springframework.util.MimeTypeUtils;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * STOMP 帧编码工具
+ * 扇出引擎把 MESSAGE 帧拆成两部分：每个订阅 ID 的前缀（命令 + subscription 头，订阅时预先编码）
+ * 和每条消息共享的部分（其余帧头 + 消息体，每条消息只编码一次）
+ *
+ * @author Gold Monitor Team
+ * @version 1.0.0
+ */
+final class StompFrames {
+
+    private StompFrames() {
+    }
+
+    /**
+     * 负载是否以 WebSocket 文本帧发送（JSON 和 text/*）
+     */
+    static boolean isText(MimeType contentType) {
+        return "text".equals(contentType.getType()) || MimeTypeUtils.APPLICATION_JSON.isCompatibleWith(contentType);
+    }
+
+    /**
+     * 编码文本 MESSAGE 帧中所有订阅者共享的部分
+     *
+     * @param destination 目的地
+     * @param messageId 消息 ID
+     * @param payload UTF-8 消息体
+     * @param contentType 消息体类型
+     * @return 从 destination 头到结尾 NUL 的帧内容
+     */
+    static String sharedPart(String destination, String messageId, byte[] payload, MimeType contentType) {
+        String body = new String(payload, StandardCharsets.UTF_8);
+        StringBuilder frame = new StringBuilder(body.length() + destination.length() + 96);
+        appendHeaders(frame, destination, messageId, payload.length, contentType)
+                .append(body)
+                .append('\0');
+        return frame.toString();
+    }
+
+    /**
+     * 编码二进制 MESSAGE 帧中所有订阅者共享的部分，消息体原样写入
+     *
+     * @param destination 目的地
+     * @param messageId 消息 ID
+     * @param payload 消息体
+     * @param contentType 消息体类型
+     * @return 从 destination 头到结尾 NUL 的帧内容
+     */
+    static byte[] sharedBinaryPart(String destination, String messageId, byte[] payload, MimeType contentType) {
+        StringBuilder headers = new StringBuilder(destination.length() + 128);
+        byte[] head = appendHeaders(headers, destination, messageId, payload.length, contentType)
+                .toString().getBytes(StandardCharsets.UTF_8);
+        byte[] frame = new byte[head.length + payload.length + 1];
+        System.arraycopy(head, 0, frame, 0, head.length);
+        System.arraycopy(payload, 0, frame, head.length, payload.length);
+        return frame;
+    }
+
+    private static StringBuilder appendHeaders(StringBuilder frame, String destination, String messageId,
+                                               int contentLength, MimeType contentType) {
+        return frame.append("destination:").append(escapeHeader(destination)).append('\n')
+                .append("content-type:").append(contentType).append('\n')
+                .append("message-id:").append(messageId).append('\n')
+                .append("content-length:").append(contentLength).append('\n')
+                .append('\n');
+    }
+
+    /**
+     * 编码 ERROR 帧
+     *
+     * @param message 错误说明，写入 message 头
+     * @return 完整的文本帧
+     */
+    static String error(String message) {
+        return "ERROR\nmessage:" + escapeHeader(message) + "\ncontent-length:0\n\n\0";
+    }
+
+    /**
+     * 按 STOMP 1.2 规范转义帧头的值
+     */
+    static String escapeHeader(String value) {
+        StringBuilder escaped = null;
+        for (int i = 0; i < value.length(); i++) {
+            char ch = value.charAt(i);
+            String replacement;
+            switch (ch) {
+                case '\\':
+                    replacement = "\\\\";
+                    break;
+                case ':':
+                    replacement = "\\c";
+                    break;
+                case '\n':
+                    replacement = "\\n";
+                    break;
+                case '\r':
+                    replacement = "\\r";
+                    break;
+                default:
+                    replacement = null;
+                    break;
+            }
+            if (replacement != null) {
+                if (escaped == null) {
+                    escaped = new StringBuilder(value.length() + 8).append(value, 0, i);
+                }
+                escaped.append(replacement);
+            } else if (escaped != null) {
+                escaped.append(ch);
+            }
+        }
+        return escaped == null ? value : escaped.toString();
+    }
+}
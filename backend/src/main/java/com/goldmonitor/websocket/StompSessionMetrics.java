@@ -0,0 +1,41 @@
+package com.goldmonitor.websocket;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.messaging.SubProtocolWebSocketHandler;
+
+/**
+ * STOMP 会话与通道指标
+ * 会话数取自 Spring 的子协议处理器统计（两种扇出引擎下都有效），
+ * 通道队列深度为入站 / 出站通道执行器中等待处理的消息数
+ *
+ * @author Gold Monitor Team
+ * @version 1.0.0
+ */
+@Component
+public class StompSessionMetrics {
+
+    public StompSessionMetrics(MeterRegistry meterRegistry,
+                               @Qualifier("subProtocolWebSocketHandler") WebSocketHandler subProtocolWebSocketHandler,
+                               @Qualifier("clientInboundChannelExecutor") ThreadPoolTaskExecutor inboundExecutor,
+                               @Qualifier("clientOutboundChannelExecutor") ThreadPoolTaskExecutor outboundExecutor) {
+        SubProtocolWebSocketHandler.Stats stats = ((SubProtocolWebSocketHandler) subProtocolWebSocketHandler).getStats();
+        Gauge.builder("gold.stomp.sessions", stats, SubProtocolWebSocketHandler.Stats::getTotalSessions)
+                .description("活动的 STOMP 会话数（含 SockJS）")
+                .register(meterRegistry);
+        channelQueue(meterRegistry, "inbound", inboundExecutor);
+        channelQueue(meterRegistry, "outbound", outboundExecutor);
+    }
+
+    private static void channelQueue(MeterRegistry meterRegistry, String channel, ThreadPoolTaskExecutor executor) {
+        Gauge.builder("gold.websocket.channel.queue", executor,
+                        pool -> pool.getThreadPoolExecutor().getQueue().size())
+                .description("STOMP 通道执行器中等待处理的消息数")
+                .tag("channel", channel)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,218 @@
+package com.goldmonitor.history;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 价格 tick 日志测试
+ * 段容量设为 4 条记录，少量 tick 即可覆盖段滚动
+ *
+ * @author Gold Monitor Team
+ * @version 1.0.0
+ */
+class PriceTickJournalTest {
+
+    private static final int SEGMENT_RECORDS = 4;
+    private static final long BASE_TIMESTAMP = 1_700_000_000_000L;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void rollsOverWhenSegmentIsFull() throws IOException {
+        PriceTickJournal journal = PriceTickJournal.open(directory, SEGMENT_RECORDS);
+        appendTicks(journal, 0, 10);
+
+        assertThat(journal.size()).isEqualTo(10);
+        assertThat(journal.getSegmentCount()).isEqualTo(3);
+        assertThat(segmentFiles()).hasSize(3);
+    }
+
+    @Test
+    void reopenReplaysAllSegments() throws IOException {
+        PriceTickJournal journal = PriceTickJournal.open(directory, SEGMENT_RECORDS);
+        appendTicks(journal, 0, 10);
+        journal.close();
+
+        PriceTickJournal reopened = PriceTickJournal.open(directory, SEGMENT_RECORDS);
+        assertThat(reopened.size()).isEqualTo(10);
+        assertThat(reopened.getSegmentCount()).isEqualTo(3);
+
+        List<long[]> replayed = new ArrayList<>();
+        assertThat(reopened.replay(Long.MAX_VALUE, (timestamp, price) -> replayed.add(new long[]{timestamp, price})))
+                .isEqualTo(10);
+        assertThat(replayed).hasSize(10);
+        for (int i = 0; i < 10; i++) {
+            assertThat(replayed.get(i)).containsExactly(timestamp(i), price(i));
+        }
+
+        // 只回放最近的 tick，跨越段边界
+        List<Long> recent = new ArrayList<>();
+        assertThat(reopened.replay(6, (timestamp, price) -> recent.add(timestamp))).isEqualTo(6);
+        assertThat(recent).containsExactly(timestamp(4), timestamp(5), timestamp(6),
+                timestamp(7), timestamp(8), timestamp(9));
+    }
+
+    @Test
+    void appendsAfterReopenContinueInPartialSegment() throws IOException {
+        PriceTickJournal journal = PriceTickJournal.open(directory, SEGMENT_RECORDS);
+        appendTicks(journal, 0, 10);
+        journal.close();
+
+        PriceTickJournal reopened = PriceTickJournal.open(directory, SEGMENT_RECORDS);
+        appendTicks(reopened, 10, 2);
+        assertThat(reopened.getSegmentCount()).isEqualTo(3);
+        appendTicks(reopened, 12, 1);
+        assertThat(reopened.getSegmentCount()).isEqualTo(4);
+        reopened.close();
+
+        PriceTickJournal again = PriceTickJournal.open(directory, SEGMENT_RECORDS);
+        assertThat(again.size()).isEqualTo(13);
+        assertThat(again.query(timestamp(9), timestamp(12), 0).getTimestamps())
+                .containsExactly(timestamp(9), timestamp(10), timestamp(11), timestamp(12));
+    }
+
+    @Test
+    void earlierTimestampIsClampedToLatest() throws IOException {
+        PriceTickJournal journal = PriceTickJournal.open(directory, SEGMENT_RECORDS);
+        journal.append(BASE_TIMESTAMP, 1);
+        journal.append(BASE_TIMESTAMP - 5000, 2);
+
+        PriceHistorySlice slice = journal.query(Long.MIN_VALUE, Long.MAX_VALUE, 0);
+        assertThat(slice.getTimestamps()).containsExactly(BASE_TIMESTAMP, BASE_TIMESTAMP);
+        assertThat(slice.getPrices()).containsExactly(1, 2);
+    }
+
+    @Test
+    void queryAcrossSegmentsWithLimit() throws IOException {
+        PriceTickJournal journal = PriceTickJournal.open(directory, SEGMENT_RECORDS);
+        appendTicks(journal, 0, 10);
+
+        // 范围 [2, 9] 跨越全部三个段，不限制数量
+        PriceHistorySlice all = journal.query(timestamp(2), timestamp(9), 0);
+        assertThat(all.size()).isEqualTo(8);
+        assertThat(all.getTimestamps()[0]).isEqualTo(timestamp(2));
+        assertThat(all.getPrices()[7]).isEqualTo(price(9));
+
+        // 超过 limit 时返回最近的 limit 条，结果仍跨越段边界
+        PriceHistorySlice limited = journal.query(timestamp(1), timestamp(8), 5);
+        assertThat(limited.getTimestamps()).containsExactly(timestamp(4), timestamp(5), timestamp(6),
+                timestamp(7), timestamp(8));
+        assertThat(limited.getPrices()).containsExactly(price(4), price(5), price(6), price(7), price(8));
+
+        // 边界位于两条记录之间
+        PriceHistorySlice between = journal.query(timestamp(3) + 1, timestamp(5) - 1, 0);
+        assertThat(between.getTimestamps()).containsExactly(timestamp(4));
+
+        assertThat(journal.query(timestamp(0), timestamp(9), 3).getTimestamps())
+                .containsExactly(timestamp(7), timestamp(8), timestamp(9));
+        assertThat(journal.query(timestamp(9) + 1, Long.MAX_VALUE, 0).size()).isZero();
+        assertThat(journal.query(timestamp(5), timestamp(4), 0)).isSameAs(PriceHistorySlice.EMPTY);
+    }
+
+    @Test
+    void skipsCorruptSegmentOnOpen() throws IOException {
+        PriceTickJournal journal = PriceTickJournal.open(directory, SEGMENT_RECORDS);
+        appendTicks(journal, 0, 10);
+        journal.close();
+
+        // 破坏中间段的魔数
+        writeInt(segmentFiles().get(1), 0, 0xDEADBEEF);
+
+        PriceTickJournal reopened = PriceTickJournal.open(directory, SEGMENT_RECORDS);
+        assertThat(reopened.getSegmentCount()).isEqualTo(2);
+        assertThat(reopened.size()).isEqualTo(6);
+        List<Long> replayed = new ArrayList<>();
+        reopened.replay(Long.MAX_VALUE, (timestamp, price) -> replayed.add(timestamp));
+        assertThat(replayed).containsExactly(timestamp(0), timestamp(1), timestamp(2), timestamp(3),
+                timestamp(8), timestamp(9));
+    }
+
+    @Test
+    void uncommittedRecordIsNotReplayed() throws IOException {
+        PriceTickJournal journal = PriceTickJournal.open(directory, SEGMENT_RECORDS);
+        appendTicks(journal, 0, 7);
+        journal.close();
+
+        // 模拟记录已写入、记录数尚未更新时崩溃：最后一段的记录数回退一条
+        List<Path> files = segmentFiles();
+        writeInt(files.get(files.size() - 1), 16, 2);
+
+        PriceTickJournal reopened = PriceTickJournal.open(directory, SEGMENT_RECORDS);
+        assertThat(reopened.size()).isEqualTo(6);
+        assertThat(reopened.query(Long.MIN_VALUE, Long.MAX_VALUE, 0).getTimestamps())
+                .endsWith(timestamp(4), timestamp(5));
+
+        // 之后的写入覆盖未提交的记录
+        reopened.append(timestamp(20), price(20));
+        assertThat(reopened.query(timestamp(6), Long.MAX_VALUE, 0).getTimestamps())
+                .containsExactly(timestamp(20));
+    }
+
+    @Test
+    void truncatedLastSegmentDoesNotBlockAppends() throws IOException {
+        PriceTickJournal journal = PriceTickJournal.open(directory, SEGMENT_RECORDS);
+        appendTicks(journal, 0, 8);
+        journal.close();
+
+        // 模拟创建新段时崩溃：段文件只写入了一部分
+        Files.write(directory.resolve("ticks-0000000002.seg"), new byte[10]);
+
+        PriceTickJournal reopened = PriceTickJournal.open(directory, SEGMENT_RECORDS);
+        assertThat(reopened.getSegmentCount()).isEqualTo(2);
+        assertThat(reopened.size()).isEqualTo(8);
+
+        appendTicks(reopened, 8, 2);
+        assertThat(reopened.size()).isEqualTo(10);
+        assertThat(reopened.getSegmentCount()).isEqualTo(3);
+        reopened.close();
+
+        PriceTickJournal again = PriceTickJournal.open(directory, SEGMENT_RECORDS);
+        assertThat(again.size()).isEqualTo(10);
+        assertThat(again.query(timestamp(7), Long.MAX_VALUE, 0).getTimestamps())
+                .containsExactly(timestamp(7), timestamp(8), timestamp(9));
+    }
+
+    private static void appendTicks(PriceTickJournal journal, int from, int count) {
+        for (int i = from; i < from + count; i++) {
+            journal.append(timestamp(i), price(i));
+        }
+    }
+
+    private static long timestamp(int index) {
+        return BASE_TIMESTAMP + index * 1000L;
+    }
+
+    private static long price(int index) {
+        return 2_000_000_000L + index * 10_000L;
+    }
+
+    private List<Path> segmentFiles() throws IOException {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "ticks-*.seg")) {
+            stream.forEach(files::add);
+        }
+        files.sort(null);
+        return files;
+    }
+
+    private static void writeInt(Path file, long position, int value) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.allocate(4).putInt(value);
+            buffer.flip();
+            channel.write(buffer, position);
+        }
+    }
+}
@@ -0,0 +1,249 @@
+package com.goldmonitor.source;
+
+import com.goldmonitor.model.FixedPrice;
+import com.goldmonitor.model.MetalQuote;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 多数据源聚合器测试
+ * 每个数据源是一个本地 HTTP 桩服务，可以设置响应延迟、状态码和价格
+ *
+ * @author Gold Monitor Team
+ * @version 1.0.0
+ */
+class PriceSourceAggregatorTest {
+
+    private static final Duration BLOCK = Duration.ofSeconds(10);
+
+    private final List<StubUpstream> upstreams = new ArrayList<>();
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @AfterEach
+    void stopUpstreams() {
+        upstreams.forEach(StubUpstream::stop);
+    }
+
+    @Test
+    void fastPrimaryIsNotHedged() throws Exception {
+        StubUpstream primary = upstream("2000", 0, 200);
+        StubUpstream secondary = upstream("2100", 0, 200);
+
+        List<MetalQuote> quotes = aggregator("hedged", 500, primary, secondary).fetch().block(BLOCK);
+
+        assertThat(quotes.get(0).getXauPrice()).isEqualTo(micros("2000"));
+        // 超过对冲等待时间后确认备用数据源没有收到请求
+        Thread.sleep(800);
+        assertThat(primary.requests()).isEqualTo(1);
+        assertThat(secondary.requests()).isZero();
+    }
+
+    @Test
+    void slowPrimaryIsHedgedAfterDelay() {
+        StubUpstream primary = upstream("2000", 5000, 200);
+        StubUpstream secondary = upstream("2100", 0, 200);
+
+        long start = System.nanoTime();
+        List<MetalQuote> quotes = aggregator("hedged", 500, primary, secondary).fetch().block(BLOCK);
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertThat(quotes.get(0).getXauPrice()).isEqualTo(micros("2100"));
+        // 对冲等待时间从发起获取时开始计算
+        assertThat(secondary.firstRequestAt() - start).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(500));
+        assertThat(elapsedMillis).isLessThan(3000);
+    }
+
+    @Test
+    void failedPrimaryFailsOverImmediately() {
+        StubUpstream primary = upstream("2000", 0, 503);
+        StubUpstream secondary = upstream("2100", 0, 200);
+
+        List<MetalQuote> quotes = aggregator("hedged", 3000, primary, secondary).fetch().block(BLOCK);
+
+        assertThat(quotes.get(0).getXauPrice()).isEqualTo(micros("2100"));
+        assertThat(secondary.firstRequestAt() - primary.firstRequestAt())
+                .isLessThan(TimeUnit.MILLISECONDS.toNanos(1500));
+    }
+
+    @Test
+    void losingRequestsAreCancelled() throws Exception {
+        StubUpstream first = upstream("2000", 5000, 200);
+        StubUpstream second = upstream("2050", 5000, 200);
+        StubUpstream third = upstream("2100", 0, 200);
+
+        List<MetalQuote> quotes = aggregator("hedged", 300, first, second, third).fetch().block(BLOCK);
+
+        assertThat(quotes.get(0).getXauPrice()).isEqualTo(micros("2100"));
+        // 客户端取消后连接被关闭，桩服务在响应之前就看到断开
+        assertThat(first.awaitCancelled(3, TimeUnit.SECONDS)).isTrue();
+        assertThat(second.awaitCancelled(3, TimeUnit.SECONDS)).isTrue();
+        assertThat(first.responded()).isFalse();
+        assertThat(second.responded()).isFalse();
+        // 被取消的请求既不计入成功耗时，也不计入失败耗时
+        assertThat(fetchCount("S0", "success") + fetchCount("S0", "error")).isZero();
+        assertThat(fetchCount("S1", "success") + fetchCount("S1", "error")).isZero();
+        assertThat(fetchCount("S2", "success")).isEqualTo(1);
+    }
+
+    @Test
+    void allHedgedSourcesFailing() {
+        StubUpstream primary = upstream("2000", 0, 503);
+        StubUpstream secondary = upstream("2100", 0, 500);
+
+        assertThatThrownBy(() -> aggregator("hedged", 3000, primary, secondary).fetch().block(BLOCK))
+                .isInstanceOf(NoSuchElementException.class);
+        assertThat(primary.requests()).isEqualTo(1);
+        assertThat(secondary.requests()).isEqualTo(1);
+    }
+
+    @Test
+    void consensusTakesMedian() {
+        StubUpstream low = upstream("2000", 0, 200);
+        StubUpstream high = upstream("2300", 100, 200);
+        StubUpstream middle = upstream("2100", 50, 200);
+
+        List<MetalQuote> quotes = aggregator("consensus", 1000, low, high, middle).fetch().block(BLOCK);
+
+        assertThat(quotes.get(0).getXauPrice()).isEqualTo(micros("2100"));
+        assertThat(low.requests()).isEqualTo(1);
+        assertThat(high.requests()).isEqualTo(1);
+        assertThat(middle.requests()).isEqualTo(1);
+    }
+
+    @Test
+    void consensusSkipsFailedSources() {
+        StubUpstream low = upstream("2000", 0, 200);
+        StubUpstream failed = upstream("1", 0, 503);
+        StubUpstream middle = upstream("2100", 0, 200);
+        StubUpstream invalid = upstream("0", 0, 200);
+        StubUpstream high = upstream("2300", 0, 200);
+
+        List<MetalQuote> quotes = aggregator("consensus", 1000, low, failed, middle, invalid, high)
+                .fetch().block(BLOCK);
+
+        assertThat(quotes.get(0).getXauPrice()).isEqualTo(micros("2100"));
+        assertThat(failed.requests()).isEqualTo(1);
+        assertThat(invalid.requests()).isEqualTo(1);
+    }
+
+    @Test
+    void consensusFailsWhenAllSourcesFail() {
+        StubUpstream first = upstream("2000", 0, 503);
+        StubUpstream second = upstream("2100", 0, 500);
+
+        assertThatThrownBy(() -> aggregator("consensus", 1000, first, second).fetch().block(BLOCK))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("所有价格数据源均不可用");
+    }
+
+    /**
+     * 创建聚合器，数据源依次命名为 S0、S1 ...；延迟统计为空时对冲等待时间固定为 hedgeDelay
+     */
+    private PriceSourceAggregator aggregator(String mode, long hedgeDelay, StubUpstream... stubs) {
+        String[] specs = new String[stubs.length];
+        for (int i = 0; i < stubs.length; i++) {
+            specs[i] = "S" + i + "=" + stubs[i].url();
+        }
+        return new PriceSourceAggregator(WebClient.builder(), meterRegistry, specs, new String[]{"USD"},
+                mode, 8000, hedgeDelay, hedgeDelay, hedgeDelay, 3600, 120);
+    }
+
+    private long fetchCount(String source, String outcome) {
+        return meterRegistry.get("gold.upstream.fetch").tag("source", source).tag("outcome", outcome)
+                .timer().count();
+    }
+
+    private StubUpstream upstream(String price, long delayMillis, int status) {
+        StubUpstream upstream = new StubUpstream(price, delayMillis, status);
+        upstreams.add(upstream);
+        return upstream;
+    }
+
+    private static long micros(String price) {
+        return FixedPrice.toMicros(new BigDecimal(price));
+    }
+
+    /**
+     * goldprice.org 格式的桩服务，记录请求次数、首次请求时间，以及响应之前被客户端断开的连接
+     */
+    private static final class StubUpstream {
+
+        private final DisposableServer server;
+        private final AtomicInteger requests = new AtomicInteger();
+        private final AtomicLong firstRequestAt = new AtomicLong();
+        private final AtomicBoolean responded = new AtomicBoolean();
+        private final CountDownLatch cancelled = new CountDownLatch(1);
+
+        private StubUpstream(String price, long delayMillis, int status) {
+            String body = "{\"ts\":1698765432123,\"tsj\":1698765431000,\"date\":\"x\",\"items\":[{\"curr\":\"USD\","
+                    + "\"xauPrice\":" + price + ",\"xagPrice\":25.4,\"chgXau\":5.2,\"chgXag\":-0.3,"
+                    + "\"pcXau\":0.25,\"pcXag\":-1.18,\"xauClose\":2045.1,\"xagClose\":25.7}]}";
+            this.server = HttpServer.create()
+                    .host("127.0.0.1")
+                    .port(0)
+                    .handle((request, response) -> {
+                        firstRequestAt.compareAndSet(0, System.nanoTime());
+                        requests.incrementAndGet();
+                        AtomicBoolean replied = new AtomicBoolean();
+                        response.withConnection(connection -> connection.onDispose(() -> {
+                            if (!replied.get()) {
+                                cancelled.countDown();
+                            }
+                        }));
+                        Mono<Void> reply = Mono.defer(() -> {
+                            replied.set(true);
+                            responded.set(true);
+                            return status == 200
+                                    ? response.header("Content-Type", "application/json").sendString(Mono.just(body)).then()
+                                    : response.status(status).send();
+                        });
+                        return Mono.delay(Duration.ofMillis(delayMillis)).then(reply);
+                    })
+                    .bindNow();
+        }
+
+        private String url() {
+            return "http://127.0.0.1:" + server.port() + "/dbXRates/USD";
+        }
+
+        private int requests() {
+            return requests.get();
+        }
+
+        private long firstRequestAt() {
+            return firstRequestAt.get();
+        }
+
+        private boolean responded() {
+            return responded.get();
+        }
+
+        private boolean awaitCancelled(long timeout, TimeUnit unit) throws InterruptedException {
+            return cancelled.await(timeout, unit);
+        }
+
+        private void stop() {
+            server.disposeNow();
+        }
+    }
+}